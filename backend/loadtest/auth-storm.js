@@ -0,0 +1,88 @@
+// 登录风暴负载测试（k6）：并排对比同步认证接口（/api/users）与异步认证接口（/api/async/users）
+//
+// 运行：k6 run -e BASE_URL=http://localhost:8081 loadtest/auth-storm.js
+// 参数（均可用 -e 覆盖）：
+//   BASE_URL    后端地址
+//   USERNAME / PASSWORD  登录账号
+//   LOGIN_RATE  每种接口每秒的登录请求数（bcrypt + 用户查询 + 登录日志写入）
+//   CHECK_RATE  每种接口每秒的用户名检查请求数（登录风暴期间的轻量请求）
+//   DURATION    持续时间
+//
+// 同步与异步两组场景先后执行（各DURATION），互不争抢服务端资源；
+// 结果按stack标签区分：http_req_duration{stack:servlet} / http_req_duration{stack:async}
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'admin123';
+const LOGIN_RATE = parseInt(__ENV.LOGIN_RATE || '100', 10);
+const CHECK_RATE = parseInt(__ENV.CHECK_RATE || '200', 10);
+const DURATION = __ENV.DURATION || '1m';
+
+const PREFIX = {
+  servlet: '/api/users',
+  async: '/api/async/users',
+};
+
+function scenario(exec, stack, rate, startTime) {
+  return {
+    executor: 'constant-arrival-rate',
+    exec,
+    rate,
+    timeUnit: '1s',
+    duration: DURATION,
+    startTime,
+    preAllocatedVUs: 100,
+    maxVUs: 2000,
+    env: { STACK: stack },
+    tags: { stack },
+  };
+}
+
+// 第二组在第一组结束并留出10秒间隔后开始
+const SECOND_START = `${parseDuration(DURATION) + 10}s`;
+
+export const options = {
+  scenarios: {
+    servlet_login: scenario('login', 'servlet', LOGIN_RATE, '0s'),
+    servlet_check: scenario('checkUsername', 'servlet', CHECK_RATE, '0s'),
+    async_login: scenario('login', 'async', LOGIN_RATE, SECOND_START),
+    async_check: scenario('checkUsername', 'async', CHECK_RATE, SECOND_START),
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    // 只用于在汇总中按接口和stack分别输出指标
+    'http_req_duration{stack:servlet,name:login}': ['p(99)>=0'],
+    'http_req_duration{stack:async,name:login}': ['p(99)>=0'],
+    'http_req_duration{stack:servlet,name:check}': ['p(99)>=0'],
+    'http_req_duration{stack:async,name:check}': ['p(99)>=0'],
+    'checks{stack:servlet}': ['rate>=0'],
+    'checks{stack:async}': ['rate>=0'],
+  },
+};
+
+function parseDuration(value) {
+  const match = /^(\d+)(s|m|h)$/.exec(value);
+  if (!match) {
+    throw new Error(`无法解析DURATION: ${value}`);
+  }
+  return parseInt(match[1], 10) * { s: 1, m: 60, h: 3600 }[match[2]];
+}
+
+export function login() {
+  const res = http.post(`${BASE_URL}${PREFIX[__ENV.STACK]}/login`,
+    JSON.stringify({ username: USERNAME, password: PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' }, tags: { name: 'login' } });
+  // 503表示被隔离舱或认证线程池拒绝，单独统计
+  check(res, {
+    'login ok': (r) => r.status === 200 && r.json('code') === 200,
+    'login not rejected': (r) => r.status === 200 && r.json('code') !== 503,
+  });
+}
+
+export function checkUsername() {
+  const res = http.get(`${BASE_URL}${PREFIX[__ENV.STACK]}/check/username?username=${USERNAME}`,
+    { tags: { name: 'check' } });
+  check(res, { 'check ok': (r) => r.status === 200 && r.json('code') === 200 });
+}
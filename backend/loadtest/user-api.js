@@ -0,0 +1,84 @@
+// 用户接口负载测试（k6），用于对比平台线程与虚拟线程两种请求处理模式
+//
+// 运行：k6 run -e BASE_URL=http://localhost:8081 -e MODE=platform loadtest/user-api.js
+// 参数（均可用 -e 覆盖）：
+//   BASE_URL    后端地址
+//   USERNAME / PASSWORD  登录账号
+//   READ_RATE   每秒读请求数（用户列表 + 当前用户）
+//   LOGIN_RATE  每秒登录请求数（bcrypt + 用户查询 + 登录日志写入）
+//   DURATION    持续时间
+//   MODE        本次测试的请求处理模式，只作为标签写入结果，便于对比两次运行
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8081';
+const USERNAME = __ENV.USERNAME || 'admin';
+const PASSWORD = __ENV.PASSWORD || 'admin123';
+const READ_RATE = parseInt(__ENV.READ_RATE || '300', 10);
+const LOGIN_RATE = parseInt(__ENV.LOGIN_RATE || '20', 10);
+const DURATION = __ENV.DURATION || '2m';
+const MODE = __ENV.MODE || 'unknown';
+
+export const options = {
+  // 固定到达速率：服务端变慢时k6继续按速率发请求，排队和超时会体现在p99上
+  scenarios: {
+    reads: {
+      executor: 'constant-arrival-rate',
+      exec: 'reads',
+      rate: READ_RATE,
+      timeUnit: '1s',
+      duration: DURATION,
+      preAllocatedVUs: 200,
+      maxVUs: 2000,
+    },
+    logins: {
+      executor: 'constant-arrival-rate',
+      exec: 'login',
+      rate: LOGIN_RATE,
+      timeUnit: '1s',
+      duration: DURATION,
+      preAllocatedVUs: 50,
+      maxVUs: 500,
+    },
+  },
+  tags: { mode: MODE },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    'http_req_duration{scenario:reads}': ['p(99)<1000'],
+    'http_req_duration{scenario:logins}': ['p(99)<2000'],
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+function loginRequest() {
+  return http.post(`${BASE_URL}/api/users/login`,
+    JSON.stringify({ username: USERNAME, password: PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' }, tags: { name: 'POST /api/users/login' } });
+}
+
+export function setup() {
+  const res = loginRequest();
+  const token = res.json('data.token');
+  if (!token) {
+    throw new Error(`登录失败: ${res.status} ${res.body}`);
+  }
+  return { token };
+}
+
+export function reads(data) {
+  const params = { headers: { Authorization: `Bearer ${data.token}` } };
+  // 不带If-None-Match，每次都完整查询，测量的是数据库往返而不是304
+  const page = Math.floor(Math.random() * 5) + 1;
+  const list = http.get(`${BASE_URL}/api/users?page=${page}&size=20`,
+    Object.assign({ tags: { name: 'GET /api/users' } }, params));
+  check(list, { 'list 200': (r) => r.status === 200 && r.json('code') === 200 });
+
+  const current = http.get(`${BASE_URL}/api/users/current`,
+    Object.assign({ tags: { name: 'GET /api/users/current' } }, params));
+  check(current, { 'current 200': (r) => r.status === 200 && r.json('code') === 200 });
+}
+
+export function login() {
+  const res = loginRequest();
+  check(res, { 'login 200': (r) => r.status === 200 && r.json('code') === 200 });
+}
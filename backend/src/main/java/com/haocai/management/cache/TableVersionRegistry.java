@@ -0,0 +1,326 @@
+package com.haocai.management.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据表版本登记
+ * <p>
+ * 职责：
+ * 1. 为每张表维护一个内存版本号，表中数据变化时递增
+ * 2. 为每张表的每个部门维护一个版本号，只涉及部分部门的修改不影响其他部门的版本
+ * 3. 根据相关版本号生成弱ETag，数据未变化时条件GET可直接返回304，不查询数据库
+ * 4. 记录待发布的版本变化，由TableVersionSynchronizer延迟写入数据库通知其他节点
+ * <p>
+ * 设计原则：
+ * - 版本号是本进程内的计数，各节点递增的次数不同（本地修改每次递增，其他节点的修改每轮同步只递增一次），
+ *   不同节点可能在数据不同时到达相同的计数；ETag以每个进程随机生成的启动ID开头，
+ *   重启或其他节点生成的ETag不会与本进程的相同，不会误判为未修改
+ * - 修改数据的方法在事务提交后递增版本号，其他请求不会在提交前拿到新版本号却读到旧数据
+ * - 查询方应先取ETag再查询数据，二者之间发生的修改只会导致多返回一次完整响应
+ * - 启用读写分离时，版本号递增后的粘滞窗口内从库可能仍是旧数据，此期间不生成ETag
+ * - 读取版本号只有一次哈希查找和一次volatile读，缓存、ETag、统计等可以频繁校验
+ * <p>
+ * 部门版本号 = 全部部门的公共版本号 + 该部门自身的版本号：
+ * - 修改涉及的部门已知时只递增这些部门的版本号
+ * - 无法确定涉及哪些部门时递增公共版本号，使全部部门的版本号同时变化
+ * <p>
+ * 注意：其他节点的修改经数据库同步后才可见（延迟约为同步间隔的两倍），
+ * 直接改库的修改由各表的变更指纹检查发现
+ */
+@Slf4j
+@Component
+public class TableVersionRegistry {
+
+    public static final String SYS_USER = "sys_user";
+
+    public static final String SYS_DEPARTMENT = "sys_department";
+
+    /**
+     * 版本键中表名与部门ID的分隔符
+     */
+    static final char KEY_SEPARATOR = ':';
+
+    /**
+     * 表名 -> 版本信息
+     */
+    private final Map<String, TableVersion> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 待发布到数据库的版本键
+     */
+    private final Set<String> unpublished = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 本进程的启动ID（随机生成），作为所有ETag的前缀
+     */
+    private final String bootId = Long.toUnsignedString(UUID.randomUUID().getMostSignificantBits(), 36);
+
+    /**
+     * 版本号递增后不生成ETag的时长（纳秒），未启用读写分离时为0
+     */
+    private final long settleNanos;
+
+    public TableVersionRegistry(@Value("${datasource.routing.enabled:false}") boolean routingEnabled,
+                                @Value("${datasource.routing.sticky-window:5000}") long settleMillis) {
+        this.settleNanos = routingEnabled ? settleMillis * 1_000_000L : 0;
+    }
+
+    /**
+     * 查询表的当前版本号
+     *
+     * @param table 表名
+     * @return 版本号
+     */
+    public long current(String table) {
+        return version(table).value.get();
+    }
+
+    /**
+     * 查询表中某个部门的数据的当前版本号
+     *
+     * @param table        表名
+     * @param departmentId 部门ID
+     * @return 版本号
+     */
+    public long departmentVersion(String table, Long departmentId) {
+        return version(table).departmentVersion(departmentId);
+    }
+
+    /**
+     * 立即递增表的版本号（无法确定涉及哪些部门，全部部门的版本号同时变化）
+     * <p>
+     * 用于已经提交的修改
+     *
+     * @param table 表名
+     */
+    public void bump(String table) {
+        apply(table, null, true);
+    }
+
+    /**
+     * 只递增本节点中表的版本号，不发布到其他节点
+     * <p>
+     * 用于每个节点都会各自发现的变化，如变更指纹检查发现的直接改库、部门树快照重建
+     *
+     * @param table 表名
+     */
+    public void bumpLocal(String table) {
+        apply(table, null, false);
+    }
+
+    /**
+     * 立即递增表及指定部门的版本号
+     *
+     * @param table         表名
+     * @param departmentIds 修改涉及的部门，为null的元素（未分配部门的数据）只递增表的版本号
+     */
+    public void bump(String table, Collection<Long> departmentIds) {
+        apply(table, departmentIds, true);
+    }
+
+    /**
+     * 事务提交后递增表的版本号；不在事务中时立即递增
+     * <p>
+     * 事务回滚时版本号不变
+     *
+     * @param table 表名
+     */
+    public void bumpAfterCommit(String table) {
+        afterCommit(() -> bump(table));
+    }
+
+    /**
+     * 事务提交后递增表及指定部门的版本号；不在事务中时立即递增
+     *
+     * @param table         表名
+     * @param departmentIds 修改涉及的部门
+     */
+    public void bumpAfterCommit(String table, Collection<Long> departmentIds) {
+        List<Long> copy = new ArrayList<>(departmentIds);
+        afterCommit(() -> bump(table, copy));
+    }
+
+    /**
+     * 根据一张或多张表的版本号生成弱ETag
+     *
+     * @param tables 响应数据依赖的表
+     * @return 弱ETag，任一表处于粘滞窗口内时返回null（不应进行条件GET）
+     */
+    public String weakETag(String... tables) {
+        return weakDepartmentETag(null, null, tables);
+    }
+
+    /**
+     * 根据表中若干部门的版本号（以及其他依赖表的版本号）生成弱ETag
+     * <p>
+     * 部门集合固定时各部门版本号之和只增不减，可以代表这些部门的数据版本
+     *
+     * @param table         按部门区分版本的表，为null时只使用tables
+     * @param departmentIds 响应数据涉及的部门
+     * @param tables        响应数据依赖的其他表
+     * @return 弱ETag，任一表处于粘滞窗口内时返回null（不应进行条件GET）
+     */
+    public String weakDepartmentETag(String table, Collection<Long> departmentIds, String... tables) {
+        long now = System.nanoTime();
+        StringBuilder etag = new StringBuilder("W/\"").append(bootId);
+        if (table != null) {
+            TableVersion version = version(table);
+            if (!version.isSettled(now, settleNanos)) {
+                return null;
+            }
+            long sum = 0;
+            for (Long departmentId : departmentIds) {
+                sum += version.departmentVersion(departmentId);
+            }
+            etag.append('.').append(Long.toString(sum, 36));
+        }
+        for (String dependency : tables) {
+            TableVersion version = version(dependency);
+            if (!version.isSettled(now, settleNanos)) {
+                return null;
+            }
+            etag.append('.').append(Long.toString(version.value.get(), 36));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * 取出并清空待发布的版本键
+     *
+     * @return 版本键：表名、“表名:部门ID”或“表名:”（未分配部门的数据）
+     */
+    List<String> drainUnpublished() {
+        List<String> keys = new ArrayList<>(unpublished.size());
+        for (String key : unpublished) {
+            if (unpublished.remove(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 重新登记发布失败的版本键，下次同步时重试
+     */
+    void requeueUnpublished(Collection<String> keys) {
+        unpublished.addAll(keys);
+    }
+
+    /**
+     * 应用其他节点发布的版本变化（不再发布）
+     *
+     * @param key 版本键：表名、“表名:部门ID”或“表名:”
+     */
+    void applyRemote(String key) {
+        int separator = key.indexOf(KEY_SEPARATOR);
+        if (separator < 0) {
+            apply(key, null, false);
+            return;
+        }
+        String table = key.substring(0, separator);
+        if (separator == key.length() - 1) {
+            apply(table, Collections.singletonList(null), false);
+            return;
+        }
+        try {
+            Long departmentId = Long.valueOf(key.substring(separator + 1));
+            apply(table, List.of(departmentId), false);
+        } catch (NumberFormatException e) {
+            log.warn("忽略无法识别的数据版本键: {}", key);
+        }
+    }
+
+    /**
+     * 递增版本号
+     *
+     * @param departmentIds 为null表示无法确定涉及的部门
+     * @param publish       是否需要发布到数据库
+     */
+    private void apply(String table, Collection<Long> departmentIds, boolean publish) {
+        TableVersion version = version(table);
+        if (departmentIds == null) {
+            version.allDepartments.incrementAndGet();
+            if (publish) {
+                unpublished.add(table);
+            }
+        } else {
+            for (Long departmentId : departmentIds) {
+                if (departmentId != null) {
+                    version.departments.computeIfAbsent(departmentId, id -> new AtomicLong()).incrementAndGet();
+                }
+                if (publish) {
+                    // 未分配部门的数据发布为“表名:”，其他节点只递增表的版本号
+                    unpublished.add(departmentId != null ? table + KEY_SEPARATOR + departmentId : table + KEY_SEPARATOR);
+                }
+            }
+        }
+        version.bumpedAt = System.nanoTime();
+        version.value.incrementAndGet();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private TableVersion version(String table) {
+        return versions.computeIfAbsent(table, key -> new TableVersion());
+    }
+
+    /**
+     * 单张表的版本信息
+     */
+    private static final class TableVersion {
+
+        /**
+         * 表版本号，任何修改都递增
+         */
+        final AtomicLong value = new AtomicLong();
+
+        /**
+         * 全部部门的公共版本号，无法确定涉及哪些部门时递增
+         */
+        final AtomicLong allDepartments = new AtomicLong();
+
+        /**
+         * 部门ID -> 部门自身的版本号
+         */
+        final Map<Long, AtomicLong> departments = new ConcurrentHashMap<>();
+
+        /**
+         * 最近一次递增的时间（System.nanoTime），0表示启动后未递增
+         */
+        volatile long bumpedAt;
+
+        long departmentVersion(Long departmentId) {
+            AtomicLong own = departmentId != null ? departments.get(departmentId) : null;
+            return allDepartments.get() + (own != null ? own.get() : 0);
+        }
+
+        boolean isSettled(long now, long settleNanos) {
+            return settleNanos <= 0 || bumpedAt == 0 || now - bumpedAt >= settleNanos;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.haocai.management.cache;
+
+import com.haocai.management.entity.SysDataVersion;
+import com.haocai.management.mapper.SysDataVersionMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据表版本同步
+ * <p>
+ * 职责：
+ * 1. 延迟发布：定期把本节点的版本变化写入sys_data_version，同一版本键在一个周期内的多次修改只写一次
+ * 2. 定期读取sys_data_version，发现其他节点发布的变化后递增本节点的版本号
+ * <p>
+ * 设计原则：
+ * - 修改数据的请求只递增内存版本号，不在请求的事务中写版本表
+ * - 版本表只有“表”和“表:部门”两类行，全表读取的开销很小
+ * - 本节点发布后版本表的版本号应恰好增加1，多出的部分来自其他节点
+ * <p>
+ * 注意：版本表不存在或数据库不可用时只影响跨节点通知，本节点的ETag照常工作；
+ * 其他节点的修改最迟在两个同步周期后生效
+ */
+@Slf4j
+@Component
+public class TableVersionSynchronizer {
+
+    @Autowired
+    private TableVersionRegistry registry;
+
+    @Autowired
+    private SysDataVersionMapper dataVersionMapper;
+
+    /**
+     * 版本键 -> 最近一次读取到的数据库版本号，为null表示尚未成功读取
+     */
+    private Map<String, Long> lastSeen;
+
+    /**
+     * 上次同步是否成功，用于只在状态变化时输出警告
+     */
+    private boolean healthy = true;
+
+    /**
+     * 发布本节点的版本变化并应用其他节点的变化
+     */
+    @Scheduled(fixedDelayString = "${cache.version.sync-interval:2000}")
+    public synchronized void synchronize() {
+        List<String> published = registry.drainUnpublished();
+        try {
+            for (int i = 0; i < published.size(); i++) {
+                try {
+                    dataVersionMapper.increment(published.get(i));
+                } catch (RuntimeException e) {
+                    registry.requeueUnpublished(published.subList(i, published.size()));
+                    throw e;
+                }
+            }
+            Map<String, Long> current = new HashMap<>();
+            for (SysDataVersion row : dataVersionMapper.selectList(null)) {
+                current.put(row.getVersionKey(), row.getVersion() != null ? row.getVersion() : 0L);
+            }
+            if (lastSeen != null) {
+                applyRemoteChanges(current, published);
+            }
+            lastSeen = current;
+            if (!healthy) {
+                log.info("数据版本同步已恢复");
+                healthy = true;
+            }
+        } catch (RuntimeException e) {
+            if (healthy) {
+                log.warn("数据版本同步失败，其他节点的修改暂时无法使本节点的ETag失效: {}", e.getMessage());
+                healthy = false;
+            } else {
+                log.debug("数据版本同步失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 对比两次读取的数据库版本号，递增其他节点修改过的版本键
+     */
+    private void applyRemoteChanges(Map<String, Long> current, List<String> published) {
+        current.forEach((key, version) -> {
+            long expected = lastSeen.getOrDefault(key, 0L);
+            if (published.contains(key)) {
+                expected++;
+            }
+            if (version > expected) {
+                registry.applyRemote(key);
+            }
+        });
+    }
+}
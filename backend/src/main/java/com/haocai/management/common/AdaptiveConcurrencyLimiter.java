@@ -0,0 +1,134 @@
+package com.haocai.management.common;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 自适应并发限制器（AIMD）
+ * <p>
+ * 功能说明：
+ * 1. 限制某一组路由同时处理的请求数，超出限制的请求立即拒绝，不排队、不等待
+ * 2. 根据请求耗时调整限制：耗时正常且并发接近限制时加1（加性增），超时或失败时乘以backoffRatio（乘性减），
+ *    每个超时阈值的时间窗口内最多缩减一次
+ * 3. 导出限制、处理中请求数和拒绝次数指标，标签group为路由组名称
+ * <p>
+ * 设计说明：
+ * - 数据库变慢时请求耗时先上升，限制随之收缩，多出的请求在进入认证和查询之前被拒绝，
+ *   Tomcat线程不会全部堆积在等待数据库的调用上；数据库恢复后限制逐步回升
+ * - 数据库变慢时同一批处理中的请求几乎同时超时，若每个请求都缩减一次，
+ *   50个并发就会缩减0.9^50，限制直接跌到下限；按窗口缩减后一批超时只算一次过载信号
+ * - 只有处理中请求数达到限制的一半以上时才增加限制，低负载时限制不会无意义地涨到上限
+ * - 获取和释放都是无锁的CAS操作，不分配对象
+ * <p>
+ * 与Bulkhead的区别：隔离舱按固定份额保护数据库连接，本限制器按观测到的耗时保护请求线程
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long timeoutNanos;
+    private final double backoffRatio;
+    private final AtomicInteger limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * 最近一次缩减限制的时间（System.nanoTime）
+     */
+    private final AtomicLong lastBackoffNanos;
+    private final Counter rejected;
+
+    /**
+     * @param name 路由组名称
+     * @param initialLimit 初始限制
+     * @param minLimit 限制下限
+     * @param maxLimit 限制上限
+     * @param timeoutMillis 超过该耗时的请求视为过载信号（毫秒）
+     * @param backoffRatio 过载时限制的缩减比例，取值(0, 1)
+     * @param registry 指标注册表
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      long timeoutMillis, double backoffRatio, MeterRegistry registry) {
+        if (minLimit <= 0 || minLimit > maxLimit) {
+            throw new IllegalArgumentException("并发限制器" + name + "的限制范围无效: " + minLimit + "~" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("并发限制器" + name + "的缩减比例必须在0和1之间: " + backoffRatio);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.backoffRatio = backoffRatio;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.lastBackoffNanos = new AtomicLong(System.nanoTime() - timeoutNanos);
+
+        Gauge.builder("http.concurrency.limit", limit, AtomicInteger::get)
+                .description("路由组当前的并发限制").tag("group", name).register(registry);
+        Gauge.builder("http.concurrency.in-flight", inFlight, AtomicInteger::get)
+                .description("路由组处理中的请求数").tag("group", name).register(registry);
+        this.rejected = Counter.builder("http.concurrency.rejected")
+                .description("超出并发限制被拒绝的请求数").tag("group", name).register(registry);
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     *
+     * @return true-已占用，处理结束后必须调用release；false-已达到限制，请求应被拒绝
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放名额并根据本次请求的结果调整限制
+     *
+     * @param elapsedNanos 请求处理耗时（纳秒）
+     * @param failed       请求是否因异常失败
+     */
+    public void release(long elapsedNanos, boolean failed) {
+        release(elapsedNanos, failed, System.nanoTime());
+    }
+
+    /**
+     * 释放名额，nowNanos为当前时间（测试中用于控制缩减窗口）
+     */
+    void release(long elapsedNanos, boolean failed, long nowNanos) {
+        int current = inFlight.getAndDecrement();
+        if (failed || elapsedNanos > timeoutNanos) {
+            long last = lastBackoffNanos.get();
+            // 距上次缩减不足一个超时阈值时忽略，并发释放时只有CAS成功的线程缩减
+            if (nowNanos - last >= timeoutNanos && lastBackoffNanos.compareAndSet(last, nowNanos)) {
+                limit.updateAndGet(value -> Math.max(minLimit, (int) (value * backoffRatio)));
+            }
+        } else if (current * 2 >= limit.get()) {
+            limit.updateAndGet(value -> Math.min(maxLimit, value + 1));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit.get();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -43,8 +43,8 @@ public class ApiResponse<T> {
     private LocalDateTime timestamp;
 
     /**
-     * 请求ID（可选）
-     * 用于跟踪单个请求的完整生命周期
+     * 请求ID
+     * 用于跟踪单个请求的完整生命周期，取自RequestIdFilter写入MDC的值，非请求线程中为null
      */
     private String requestId;
 
@@ -56,7 +56,7 @@ public class ApiResponse<T> {
      * @return ApiResponse实例
      */
     public static <T> ApiResponse<T> success(T data) {
-        return new ApiResponse<>(200, "success", data, LocalDateTime.now(), null);
+        return new ApiResponse<>(200, "success", data, LocalDateTime.now(), RequestIds.current());
     }
 
     /**
@@ -65,7 +65,7 @@ public class ApiResponse<T> {
      * @return ApiResponse实例
      */
     public static ApiResponse<Void> success() {
-        return new ApiResponse<>(200, "success", null, LocalDateTime.now(), null);
+        return new ApiResponse<>(200, "success", null, LocalDateTime.now(), RequestIds.current());
     }
 
     /**
@@ -76,7 +76,7 @@ public class ApiResponse<T> {
      * @return ApiResponse实例
      */
     public static <T> ApiResponse<T> error(Integer code, String message) {
-        return new ApiResponse<>(code, message, null, LocalDateTime.now(), null);
+        return new ApiResponse<>(code, message, null, LocalDateTime.now(), RequestIds.current());
     }
 
     /**
@@ -86,7 +86,7 @@ public class ApiResponse<T> {
      * @return ApiResponse实例
      */
     public static <T> ApiResponse<T> error(String message) {
-        return new ApiResponse<>(500, message, null, LocalDateTime.now(), null);
+        return new ApiResponse<>(500, message, null, LocalDateTime.now(), RequestIds.current());
     }
 
     /**
@@ -0,0 +1,129 @@
+package com.haocai.management.common;
+
+import com.haocai.management.exception.BulkheadFullException;
+import com.haocai.management.timing.RequestTiming;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 信号量隔离舱
+ * <p>
+ * 功能说明：
+ * 1. 限制某一类操作同时占用的数据库连接数，避免一类流量耗尽整个连接池
+ * 2. 许可已满时最多等待maxWait，超时抛出BulkheadFullException（503）
+ * 3. 导出并发数、等待数、拒绝次数和等待耗时指标，标签name为隔离舱名称
+ * <p>
+ * 设计说明：
+ * - 使用公平信号量，等待中的请求按到达顺序获得许可
+ * - 无竞争时只做一次tryAcquire，不计时、不分配对象
+ * - 必须在获取数据库连接之前进入隔离舱（即事务之外），否则无法起到隔离作用
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final long maxWaitMillis;
+    private final Semaphore semaphore;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    /**
+     * @param name 隔离舱名称
+     * @param maxConcurrent 最大并发数
+     * @param maxWaitMillis 获取许可的最长等待时间（毫秒），0表示不等待
+     * @param registry 指标注册表
+     */
+    public Bulkhead(String name, int maxConcurrent, long maxWaitMillis, MeterRegistry registry) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("隔离舱" + name + "的最大并发数必须大于0");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.semaphore = new Semaphore(maxConcurrent, true);
+
+        Gauge.builder("db.bulkhead.limit", this, bulkhead -> bulkhead.maxConcurrent)
+                .description("隔离舱最大并发数").tag("name", name).register(registry);
+        Gauge.builder("db.bulkhead.active", this, Bulkhead::getActiveCount)
+                .description("隔离舱当前并发数").tag("name", name).register(registry);
+        Gauge.builder("db.bulkhead.waiting", waiting, AtomicInteger::get)
+                .description("等待隔离舱许可的请求数").tag("name", name).register(registry);
+        this.rejected = Counter.builder("db.bulkhead.rejected")
+                .description("等待超时被拒绝的请求数").tag("name", name).register(registry);
+        this.waitTimer = Timer.builder("db.bulkhead.wait")
+                .description("发生等待时获取许可的耗时").tag("name", name).register(registry);
+    }
+
+    /**
+     * 在隔离舱内执行有返回值的操作
+     *
+     * @param action 操作
+     * @return 操作结果
+     * @throws BulkheadFullException 等待超时
+     */
+    public <T> T call(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    /**
+     * 在隔离舱内执行无返回值的操作
+     *
+     * @param action 操作
+     * @throws BulkheadFullException 等待超时
+     */
+    public void run(Runnable action) {
+        acquire();
+        try {
+            action.run();
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private void acquire() {
+        if (semaphore.tryAcquire()) {
+            return;
+        }
+        boolean acquired = false;
+        long start = System.nanoTime();
+        waiting.incrementAndGet();
+        try {
+            acquired = maxWaitMillis > 0 && semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            waiting.decrementAndGet();
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            RequestTiming.markOverloaded();
+            throw new BulkheadFullException(name);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getActiveCount() {
+        return maxConcurrent - semaphore.availablePermits();
+    }
+}
@@ -0,0 +1,343 @@
+package com.haocai.management.common;
+
+import com.haocai.management.dto.DepartmentTreeVO;
+import com.haocai.management.entity.SysDepartment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 部门树快照
+ * <p>
+ * 功能说明：
+ * 1. 按先序遍历为每个部门分配区间[left, right)（嵌套集合编码），子树即先序序列中的连续区间
+ * 2. 为每个部门生成物化路径（如/1/3/7/），用于展示和前缀判断
+ * 3. 查询“部门及其下级部门”时直接截取先序ID序列，不做递归、不访问数据库
+ * <p>
+ * 设计说明：
+ * - 实例不可变，部门变化时整体重建后替换，读取方无需加锁
+ * - 同级部门按sort_order、id排序，保证各节点构建结果一致
+ * - 父部门不存在的部门按顶级部门处理；parent_id成环的部门从环上任一点断开，不会死循环
+ */
+public final class DepartmentTree {
+
+    private static final Comparator<SysDepartment> SIBLING_ORDER = Comparator
+            .comparing((SysDepartment department) -> department.getSortOrder() == null ? 0 : department.getSortOrder())
+            .thenComparing(SysDepartment::getId);
+
+    /**
+     * 空部门树
+     */
+    public static final DepartmentTree EMPTY = build(List.of());
+
+    /**
+     * 先序遍历的部门ID序列（不可变）
+     */
+    private final List<Long> preorderIds;
+
+    /**
+     * 部门ID -> 先序位置（嵌套集合左值）
+     */
+    private final Map<Long, Integer> positions;
+
+    /**
+     * 先序位置 -> 子树结束位置（嵌套集合右值，不含）
+     */
+    private final int[] subtreeEnds;
+
+    /**
+     * 先序位置 -> 物化路径
+     */
+    private final String[] paths;
+
+    /**
+     * 先序位置 -> 树中深度（顶级部门为1）
+     */
+    private final int[] depths;
+
+    /**
+     * 部门ID -> 部门
+     */
+    private final Map<Long, SysDepartment> departments;
+
+    /**
+     * 部门ID -> 直接下级部门ID（已排序）
+     */
+    private final Map<Long, List<Long>> children;
+
+    /**
+     * 顶级部门ID（已排序）
+     */
+    private final List<Long> rootIds;
+
+    private DepartmentTree(List<Long> preorderIds, Map<Long, Integer> positions, int[] subtreeEnds,
+                           String[] paths, int[] depths, Map<Long, SysDepartment> departments,
+                           Map<Long, List<Long>> children, List<Long> rootIds) {
+        this.preorderIds = preorderIds;
+        this.positions = positions;
+        this.subtreeEnds = subtreeEnds;
+        this.paths = paths;
+        this.depths = depths;
+        this.departments = departments;
+        this.children = children;
+        this.rootIds = rootIds;
+    }
+
+    /**
+     * 从部门列表构建部门树
+     *
+     * @param source 全部部门
+     * @return 部门树快照
+     */
+    public static DepartmentTree build(Collection<SysDepartment> source) {
+        Map<Long, SysDepartment> departments = new LinkedHashMap<>();
+        source.stream()
+                .filter(department -> department.getId() != null)
+                .sorted(SIBLING_ORDER)
+                .forEach(department -> departments.put(department.getId(), department));
+
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+        for (SysDepartment department : departments.values()) {
+            Long parentId = department.getParentId();
+            if (parentId == null || parentId.equals(department.getId()) || !departments.containsKey(parentId)) {
+                roots.add(department.getId());
+            } else {
+                children.computeIfAbsent(parentId, key -> new ArrayList<>()).add(department.getId());
+            }
+        }
+
+        int size = departments.size();
+        Traversal traversal = new Traversal(size);
+        for (Long rootId : roots) {
+            traversal.visit(rootId, children);
+        }
+        // parent_id成环的部门从任何顶级部门都不可达，从环上第一个部门断开后按顶级部门处理
+        for (Long id : departments.keySet()) {
+            if (!traversal.positions.containsKey(id)) {
+                roots.add(id);
+                traversal.visit(id, children);
+            }
+        }
+
+        Map<Long, List<Long>> treeChildren = new HashMap<>(traversal.treeChildren.size() * 2);
+        traversal.treeChildren.forEach((id, ids) -> treeChildren.put(id, List.copyOf(ids)));
+        return new DepartmentTree(List.copyOf(traversal.preorder), Map.copyOf(traversal.positions),
+                traversal.subtreeEnds, traversal.paths, traversal.depths,
+                Map.copyOf(departments), Map.copyOf(treeChildren), List.copyOf(roots));
+    }
+
+    /**
+     * 先序遍历的中间状态
+     * <p>
+     * 使用显式栈迭代遍历，部门层级再深也不会栈溢出；
+     * 只记录遍历实际经过的父子关系，成环的边被丢弃
+     */
+    private static final class Traversal {
+
+        private final List<Long> preorder;
+        private final Map<Long, Integer> positions;
+        private final int[] subtreeEnds;
+        private final String[] paths;
+        private final int[] depths;
+        private final Map<Long, List<Long>> treeChildren = new HashMap<>();
+
+        private Traversal(int size) {
+            this.preorder = new ArrayList<>(size);
+            this.positions = new HashMap<>(size * 2);
+            this.subtreeEnds = new int[size];
+            this.paths = new String[size];
+            this.depths = new int[size];
+        }
+
+        /**
+         * 栈帧：进入部门（id非null）或离开部门（id为null，记录子树结束位置）
+         */
+        private record Frame(Long id, Long parentId, int exitPosition) {
+        }
+
+        private void visit(Long rootId, Map<Long, List<Long>> children) {
+            Deque<Frame> stack = new ArrayDeque<>();
+            stack.push(new Frame(rootId, null, -1));
+            while (!stack.isEmpty()) {
+                Frame frame = stack.pop();
+                if (frame.id() == null) {
+                    subtreeEnds[frame.exitPosition()] = preorder.size();
+                    continue;
+                }
+                Long id = frame.id();
+                if (positions.containsKey(id)) {
+                    continue;
+                }
+                int position = preorder.size();
+                preorder.add(id);
+                positions.put(id, position);
+                if (frame.parentId() == null) {
+                    paths[position] = "/" + id + "/";
+                    depths[position] = 1;
+                } else {
+                    int parentPosition = positions.get(frame.parentId());
+                    paths[position] = paths[parentPosition] + id + "/";
+                    depths[position] = depths[parentPosition] + 1;
+                    treeChildren.computeIfAbsent(frame.parentId(), key -> new ArrayList<>()).add(id);
+                }
+
+                stack.push(new Frame(null, null, position));
+                List<Long> childIds = children.getOrDefault(id, List.of());
+                for (int i = childIds.size() - 1; i >= 0; i--) {
+                    stack.push(new Frame(childIds.get(i), id, -1));
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取部门及其全部下级部门的ID
+     * <p>
+     * 返回先序ID序列的只读视图，不复制数据
+     *
+     * @param departmentId 部门ID
+     * @param includeSelf 是否包含部门本身
+     * @return 部门ID列表，部门不存在时返回空列表
+     */
+    public List<Long> getDescendantIds(Long departmentId, boolean includeSelf) {
+        Integer position = departmentId == null ? null : positions.get(departmentId);
+        if (position == null) {
+            return List.of();
+        }
+        return preorderIds.subList(includeSelf ? position : position + 1, subtreeEnds[position]);
+    }
+
+    /**
+     * 判断部门是否为另一个部门的下级（含自身）
+     *
+     * @param ancestorId 上级部门ID
+     * @param departmentId 部门ID
+     * @return true-departmentId位于ancestorId的子树中
+     */
+    public boolean isDescendant(Long ancestorId, Long departmentId) {
+        Integer ancestor = ancestorId == null ? null : positions.get(ancestorId);
+        Integer position = departmentId == null ? null : positions.get(departmentId);
+        if (ancestor == null || position == null) {
+            return false;
+        }
+        return position >= ancestor && position < subtreeEnds[ancestor];
+    }
+
+    /**
+     * 获取部门的物化路径
+     *
+     * @param departmentId 部门ID
+     * @return 物化路径，如/1/3/7/，部门不存在时返回null
+     */
+    public String getPath(Long departmentId) {
+        Integer position = departmentId == null ? null : positions.get(departmentId);
+        return position == null ? null : paths[position];
+    }
+
+    /**
+     * 获取部门在树中的深度
+     *
+     * @param departmentId 部门ID
+     * @return 深度（顶级部门为1），部门不存在时返回0
+     */
+    public int getDepth(Long departmentId) {
+        Integer position = departmentId == null ? null : positions.get(departmentId);
+        return position == null ? 0 : depths[position];
+    }
+
+    /**
+     * 获取部门
+     *
+     * @param departmentId 部门ID
+     * @return 部门，不存在时返回null
+     */
+    public SysDepartment get(Long departmentId) {
+        return departmentId == null ? null : departments.get(departmentId);
+    }
+
+    /**
+     * 判断部门是否存在
+     */
+    public boolean contains(Long departmentId) {
+        return departmentId != null && departments.containsKey(departmentId);
+    }
+
+    /**
+     * 获取直接下级部门ID
+     *
+     * @param departmentId 部门ID
+     * @return 下级部门ID列表（已排序）
+     */
+    public List<Long> getChildIds(Long departmentId) {
+        List<Long> ids = departmentId == null ? null : children.get(departmentId);
+        return ids == null ? List.of() : ids;
+    }
+
+    /**
+     * 获取先序遍历的全部部门ID
+     * <p>
+     * 任一部门都排在其全部下级部门之前，逆序遍历即可自底向上汇总
+     *
+     * @return 部门ID列表（只读）
+     */
+    public List<Long> getPreorderIds() {
+        return preorderIds;
+    }
+
+    /**
+     * 获取顶级部门ID
+     */
+    public List<Long> getRootIds() {
+        return rootIds;
+    }
+
+    /**
+     * 部门数量
+     */
+    public int size() {
+        return preorderIds.size();
+    }
+
+    /**
+     * 转换为前端使用的树形结构
+     *
+     * @return 顶级部门节点列表
+     */
+    public List<DepartmentTreeVO> toTreeVO() {
+        return rootIds.stream().map(this::toTreeVO).toList();
+    }
+
+    /**
+     * 转换指定部门的子树
+     *
+     * @param departmentId 部门ID
+     * @return 部门节点，部门不存在时返回null
+     */
+    public DepartmentTreeVO toTreeVO(Long departmentId) {
+        SysDepartment department = get(departmentId);
+        if (department == null) {
+            return null;
+        }
+        DepartmentTreeVO node = new DepartmentTreeVO();
+        node.setId(department.getId());
+        node.setName(department.getName());
+        node.setCode(department.getCode());
+        node.setParentId(department.getParentId());
+        node.setLevel(department.getLevel());
+        node.setSortOrder(department.getSortOrder());
+        node.setStatus(department.getStatus());
+        node.setPath(getPath(departmentId));
+        for (Long childId : getChildIds(departmentId)) {
+            node.getChildren().add(toTreeVO(childId));
+        }
+        return node;
+    }
+}
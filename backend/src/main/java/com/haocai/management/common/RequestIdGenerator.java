@@ -0,0 +1,82 @@
+package com.haocai.management.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求ID生成器
+ * <p>
+ * 功能说明：
+ * 1. 请求ID格式为“节点ID-计数器”，计数器以36进制输出，如 k3f-lx2a9c0q5s
+ * 2. 同一节点内计数器单调递增，不同节点靠节点ID区分
+ * 3. 计数器以启动时间（毫秒）左移10位为初值，重启后每毫秒内少于1024个请求时不会与重启前的ID重复
+ * <p>
+ * 设计说明：
+ * - 生成一个ID只有一次原子自增、一个临时字节数组和一个String，不使用UUID和SecureRandom
+ * - 输出字符都是ASCII，按ISO-8859-1构造String，JDK紧凑字符串直接复用字节
+ */
+public final class RequestIdGenerator {
+
+    private static final byte[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * long按36进制输出的最大长度
+     */
+    private static final int MAX_COUNTER_DIGITS = 13;
+
+    /**
+     * “节点ID-”前缀
+     */
+    private final byte[] prefix;
+
+    private final AtomicLong counter;
+
+    /**
+     * @param nodeId 节点ID（ASCII字符）
+     * @param seed 计数器初值
+     */
+    public RequestIdGenerator(String nodeId, long seed) {
+        this.prefix = (nodeId + "-").getBytes(StandardCharsets.US_ASCII);
+        this.counter = new AtomicLong(seed);
+    }
+
+    /**
+     * 以启动时间为计数器初值创建生成器
+     *
+     * @param nodeId 节点ID
+     * @return 生成器
+     */
+    public static RequestIdGenerator startingNow(String nodeId) {
+        return new RequestIdGenerator(nodeId, System.currentTimeMillis() << 10);
+    }
+
+    /**
+     * 由任意字符串（主机名等）派生3位36进制节点ID
+     *
+     * @param source 字符串
+     * @return 节点ID
+     */
+    public static String deriveNodeId(String source) {
+        int value = Math.floorMod(source.hashCode(), 36 * 36 * 36);
+        byte[] digits = {DIGITS[value / (36 * 36)], DIGITS[value / 36 % 36], DIGITS[value % 36]};
+        return new String(digits, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 生成下一个请求ID
+     *
+     * @return 请求ID
+     */
+    public String next() {
+        long value = counter.getAndIncrement() & Long.MAX_VALUE;
+        byte[] buffer = new byte[prefix.length + MAX_COUNTER_DIGITS];
+        int position = buffer.length;
+        do {
+            buffer[--position] = DIGITS[(int) (value % 36)];
+            value /= 36;
+        } while (value != 0);
+        int start = position - prefix.length;
+        System.arraycopy(prefix, 0, buffer, start, prefix.length);
+        return new String(buffer, start, buffer.length - start, StandardCharsets.ISO_8859_1);
+    }
+}
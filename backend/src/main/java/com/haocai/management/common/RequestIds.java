@@ -0,0 +1,64 @@
+package com.haocai.management.common;
+
+import org.slf4j.MDC;
+
+/**
+ * 请求ID常量与读取
+ * <p>
+ * 请求ID由RequestIdFilter在请求进入时分配，保存在MDC中：
+ * - 日志格式中的%X{requestId}输出请求ID，异步日志在事件入队时复制MDC，不会错位
+ * - ApiResponse、认证失败和权限不足的响应体携带请求ID
+ * - 慢SQL记录所属请求ID，可从SQL统计反查到具体请求的日志
+ */
+public final class RequestIds {
+
+    /**
+     * MDC键
+     */
+    public static final String MDC_KEY = "requestId";
+
+    /**
+     * 请求头与响应头名称
+     */
+    public static final String HEADER = "X-Request-Id";
+
+    /**
+     * 允许沿用的上游请求ID最大长度
+     */
+    private static final int MAX_INBOUND_LENGTH = 64;
+
+    private RequestIds() {
+    }
+
+    /**
+     * 当前线程处理的请求ID
+     *
+     * @return 请求ID，非请求线程返回null
+     */
+    public static String current() {
+        return MDC.get(MDC_KEY);
+    }
+
+    /**
+     * 上游传入的请求ID是否可以沿用
+     * <p>
+     * 只接受不超过64个字符的字母、数字和.-_，避免日志注入和超长请求头
+     *
+     * @param requestId 上游请求ID
+     * @return true-可以沿用
+     */
+    public static boolean isValid(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_INBOUND_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            boolean allowed = (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_' || c == '.';
+            if (!allowed) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,101 @@
+package com.haocai.management.config;
+
+import com.haocai.management.exception.BulkheadFullException;
+import com.haocai.management.timing.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 认证任务线程池
+ * <p>
+ * 职责：
+ * 1. 执行异步认证接口（AsyncAuthController）的处理逻辑，主要开销是bcrypt密码校验
+ * 2. 线程数和队列长度都有上限，队列已满时抛出BulkheadFullException（503），登录风暴不会无限排队
+ * 3. 把请求ID（MDC）和请求计时传递到执行任务的线程，日志、ApiResponse和阶段指标与同步接口一致
+ * <p>
+ * 设计原则：
+ * - bcrypt是CPU密集计算，线程数默认等于CPU核数，更多线程只会增加上下文切换
+ * - 不注册为Executor类型的Bean，避免替换Spring Boot自动配置的applicationTaskExecutor
+ * - 指标以executor.*导出，标签name=auth
+ * <p>
+ * 注意：登录中的数据库查询仍是阻塞调用，在本线程池中执行，并发数同时受auth-read隔离舱限制
+ */
+@Slf4j
+@Component
+public class AuthExecutor implements DisposableBean {
+
+    /**
+     * 线程池名称（线程名前缀与指标标签）
+     */
+    public static final String NAME = "auth";
+
+    private final ThreadPoolExecutor executor;
+
+    public AuthExecutor(MeterRegistry registry,
+                        @Value("${auth.executor.pool-size:0}") int poolSize,
+                        @Value("${auth.executor.queue-capacity:256}") int queueCapacity) {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, NAME + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, NAME, Tags.empty()).bindTo(registry);
+        log.info("认证任务线程池初始化完成: threads={}, queueCapacity={}", threads, queueCapacity);
+    }
+
+    /**
+     * 在线程池中执行有返回值的操作
+     * <p>
+     * 调用方线程的MDC和请求计时在任务执行期间绑定到工作线程，执行结束后清理
+     *
+     * @param action 操作
+     * @return 操作结果，操作抛出的异常以异常完成的形式返回
+     * @throws BulkheadFullException 队列已满
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> action) {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        RequestTiming timing = RequestTiming.current();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                RequestTiming.attach(timing);
+                try {
+                    return action.get();
+                } finally {
+                    RequestTiming.unbind();
+                    MDC.clear();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            RequestTiming.markOverloaded();
+            throw new BulkheadFullException(NAME);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
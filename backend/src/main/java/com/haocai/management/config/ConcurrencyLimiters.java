@@ -0,0 +1,72 @@
+package com.haocai.management.config;
+
+import com.haocai.management.common.AdaptiveConcurrencyLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 按路由组划分的自适应并发限制器
+ * <p>
+ * 由ConcurrencyLimitFilter在认证之前使用，三组路由各自独立收缩和回升：
+ * - auth：登录、注册、token续期和唯一性检查（bcrypt与按用户名查询）
+ * - reads：其他/api/下的GET请求（每个请求都要在认证过滤器中加载用户）
+ * - admin-batch：管理员批量修改、批量删除用户
+ * <p>
+ * 各组的初始限制、上下限和耗时阈值按环境在request.limit.*中配置，
+ * 指标以http.concurrency.*导出，与db.bulkhead.*、hikaricp.connections.*一起判断过载发生在哪一层
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimiters {
+
+    private final AdaptiveConcurrencyLimiter auth;
+    private final AdaptiveConcurrencyLimiter reads;
+    private final AdaptiveConcurrencyLimiter adminBatch;
+
+    public ConcurrencyLimiters(MeterRegistry registry,
+                               @Value("${request.limit.backoff-ratio:0.9}") double backoffRatio,
+                               @Value("${request.limit.auth.initial-limit:20}") int authInitial,
+                               @Value("${request.limit.auth.min-limit:2}") int authMin,
+                               @Value("${request.limit.auth.max-limit:40}") int authMax,
+                               @Value("${request.limit.auth.timeout:1000}") long authTimeout,
+                               @Value("${request.limit.reads.initial-limit:50}") int readsInitial,
+                               @Value("${request.limit.reads.min-limit:5}") int readsMin,
+                               @Value("${request.limit.reads.max-limit:150}") int readsMax,
+                               @Value("${request.limit.reads.timeout:500}") long readsTimeout,
+                               @Value("${request.limit.admin-batch.initial-limit:2}") int adminBatchInitial,
+                               @Value("${request.limit.admin-batch.min-limit:1}") int adminBatchMin,
+                               @Value("${request.limit.admin-batch.max-limit:4}") int adminBatchMax,
+                               @Value("${request.limit.admin-batch.timeout:5000}") long adminBatchTimeout) {
+        this.auth = new AdaptiveConcurrencyLimiter("auth",
+                authInitial, authMin, authMax, authTimeout, backoffRatio, registry);
+        this.reads = new AdaptiveConcurrencyLimiter("reads",
+                readsInitial, readsMin, readsMax, readsTimeout, backoffRatio, registry);
+        this.adminBatch = new AdaptiveConcurrencyLimiter("admin-batch",
+                adminBatchInitial, adminBatchMin, adminBatchMax, adminBatchTimeout, backoffRatio, registry);
+        log.info("并发限制器初始化完成: auth={}, reads={}, admin-batch={}",
+                auth.getLimit(), reads.getLimit(), adminBatch.getLimit());
+    }
+
+    /**
+     * 认证路由组
+     */
+    public AdaptiveConcurrencyLimiter auth() {
+        return auth;
+    }
+
+    /**
+     * 读请求路由组
+     */
+    public AdaptiveConcurrencyLimiter reads() {
+        return reads;
+    }
+
+    /**
+     * 管理员批量操作路由组
+     */
+    public AdaptiveConcurrencyLimiter adminBatch() {
+        return adminBatch;
+    }
+}
@@ -0,0 +1,147 @@
+package com.haocai.management.config;
+
+import com.haocai.management.datasource.ReadOnly;
+import com.haocai.management.datasource.ReadYourWritesTracker;
+import com.haocai.management.datasource.ReplicaLagMonitor;
+import com.haocai.management.datasource.ReplicaRoutingDataSource;
+import com.haocai.management.datasource.RoutingContext;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 读写分离配置
+ * <p>
+ * 只在datasource.routing.enabled=true时生效，未启用时沿用Spring Boot自动配置的单一数据源。
+ * <p>
+ * 数据源结构：LazyConnectionDataSourceProxy -> ReplicaRoutingDataSource -> 主库 / 从库1..n
+ * - 主库沿用spring.datasource及spring.datasource.hikari的全部配置
+ * - 从库地址在datasource.routing.replica-urls中以逗号分隔，账号默认与主库相同
+ * - @Transactional(readOnly = true)和@ReadOnly标注的方法路由到从库
+ * - ReplicaLagMonitor定期检查从库延迟，超过阈值的从库暂停承接只读查询
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+@ConditionalOnProperty(name = "datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    /**
+     * 主库连接池
+     *
+     * @param properties spring.datasource配置
+     * @return 主库数据源
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    /**
+     * 读写分离路由数据源
+     */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+            DataSourceProperties properties,
+            ReadYourWritesTracker readYourWritesTracker,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.routing.replica-urls:}") String[] replicaUrls,
+            @Value("${datasource.routing.replica-username:${spring.datasource.username:}}") String username,
+            @Value("${datasource.routing.replica-password:${spring.datasource.password:}}") String password,
+            @Value("${datasource.routing.replica-pool-size:10}") int poolSize) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url == null || url.isBlank()) {
+                continue;
+            }
+            String replicaKey = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("haocai-hikari-" + replicaKey);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setMinimumIdle(poolSize);
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setMaxLifetime(primaryDataSource.getMaxLifetime());
+            replica.setReadOnly(true);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.put(replicaKey, replica);
+        }
+        log.info("读写分离已启用，从库数量: {}", replicas.size());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesTracker);
+    }
+
+    /**
+     * 应用使用的数据源
+     * <p>
+     * 延迟到第一条语句执行时才获取连接，此时只读事务标记已经设置，路由才能生效
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * 从库延迟监控
+     */
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               MeterRegistry meterRegistry,
+                                               @Value("${datasource.routing.max-lag:5}") long maxLagSeconds) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, maxLagSeconds, meterRegistry);
+    }
+
+    /**
+     * 注册@ReadOnly方法拦截器
+     * <p>
+     * 标注在Mapper接口方法上同样生效（拦截Mapper代理对象）
+     *
+     * @return 方法拦截Advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor readOnlyRoutingAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(
+                new AnnotationMatchingPointcut(null, ReadOnly.class, true))
+                .union(new AnnotationMatchingPointcut(ReadOnly.class, true));
+        MethodInterceptor interceptor = invocation -> {
+            RoutingContext.enterReadOnly();
+            try {
+                return invocation.proceed();
+            } finally {
+                RoutingContext.exitReadOnly();
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,63 @@
+package com.haocai.management.config;
+
+import com.haocai.management.common.Bulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据库访问隔离舱
+ * <p>
+ * 按流量类型划分连接池的使用份额，三类隔离舱的并发上限之和应小于连接池大小，
+ * 为未归类的普通查询保留连接：
+ * - auth-read：认证时按用户名加载用户（登录和每个携带token的请求）
+ * - log-write：登录日志写入，满载时放弃写日志，不阻塞登录
+ * - admin-batch：管理员批量修改、批量删除用户
+ * <p>
+ * 各隔离舱的并发上限和等待时间按环境在db.bulkhead.*中配置，
+ * 指标以db.bulkhead.*导出，与hikaricp.connections.*一起用于判断连接是否被某类流量占满
+ */
+@Slf4j
+@Component
+public class DbBulkheads {
+
+    private final Bulkhead authRead;
+    private final Bulkhead logWrite;
+    private final Bulkhead adminBatch;
+
+    public DbBulkheads(MeterRegistry registry,
+                       @Value("${db.bulkhead.auth-read.max-concurrent:6}") int authReadConcurrent,
+                       @Value("${db.bulkhead.auth-read.max-wait:500}") long authReadWait,
+                       @Value("${db.bulkhead.log-write.max-concurrent:2}") int logWriteConcurrent,
+                       @Value("${db.bulkhead.log-write.max-wait:50}") long logWriteWait,
+                       @Value("${db.bulkhead.admin-batch.max-concurrent:1}") int adminBatchConcurrent,
+                       @Value("${db.bulkhead.admin-batch.max-wait:1000}") long adminBatchWait) {
+        this.authRead = new Bulkhead("auth-read", authReadConcurrent, authReadWait, registry);
+        this.logWrite = new Bulkhead("log-write", logWriteConcurrent, logWriteWait, registry);
+        this.adminBatch = new Bulkhead("admin-batch", adminBatchConcurrent, adminBatchWait, registry);
+        log.info("数据库隔离舱初始化完成: auth-read={}, log-write={}, admin-batch={}",
+                authReadConcurrent, logWriteConcurrent, adminBatchConcurrent);
+    }
+
+    /**
+     * 认证读取隔离舱
+     */
+    public Bulkhead authRead() {
+        return authRead;
+    }
+
+    /**
+     * 日志写入隔离舱
+     */
+    public Bulkhead logWrite() {
+        return logWrite;
+    }
+
+    /**
+     * 管理员批量操作隔离舱
+     */
+    public Bulkhead adminBatch() {
+        return adminBatch;
+    }
+}
@@ -0,0 +1,91 @@
+package com.haocai.management.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * LocalDateTime序列化器
+ * <p>
+ * 输出与JavaTimeModule默认的ISO_LOCAL_DATE_TIME完全一致（如 2026-01-07T09:30:05.12），
+ * 但直接把各字段写入字符数组，不经过DateTimeFormatter，不产生中间对象。
+ * <p>
+ * 以下情况交给父类处理，行为与JavaTimeModule相同：
+ * - 字段上有@JsonFormat指定格式（父类createContextual会返回新的LocalDateTimeSerializer实例）
+ * - 开启了WRITE_DATES_AS_TIMESTAMPS
+ * - 年份不在0~9999之间（ISO格式需要符号位）
+ */
+public final class FastLocalDateTimeSerializer extends LocalDateTimeSerializer {
+
+    public static final FastLocalDateTimeSerializer INSTANCE = new FastLocalDateTimeSerializer();
+
+    /**
+     * yyyy-MM-ddTHH:mm:ss.SSSSSSSSS的最大长度
+     */
+    private static final int MAX_LENGTH = 29;
+
+    private FastLocalDateTimeSerializer() {
+        super();
+    }
+
+    @Override
+    public void serialize(LocalDateTime value, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        int year = value.getYear();
+        if (_formatter != null || year < 0 || year > 9999 || useTimestamp(provider)) {
+            super.serialize(value, generator, provider);
+            return;
+        }
+        char[] buffer = new char[MAX_LENGTH];
+        int length = format(value, buffer);
+        generator.writeString(buffer, 0, length);
+    }
+
+    /**
+     * 按ISO_LOCAL_DATE_TIME格式写入字符数组：秒总是输出，纳秒为0时省略，否则去掉末尾的0
+     *
+     * @param value 时间（年份0~9999）
+     * @param buffer 长度不小于29的字符数组
+     * @return 写入的字符数
+     */
+    static int format(LocalDateTime value, char[] buffer) {
+        int year = value.getYear();
+        buffer[0] = (char) ('0' + year / 1000);
+        buffer[1] = (char) ('0' + year / 100 % 10);
+        buffer[2] = (char) ('0' + year / 10 % 10);
+        buffer[3] = (char) ('0' + year % 10);
+        buffer[4] = '-';
+        writeTwoDigits(buffer, 5, value.getMonthValue());
+        buffer[7] = '-';
+        writeTwoDigits(buffer, 8, value.getDayOfMonth());
+        buffer[10] = 'T';
+        writeTwoDigits(buffer, 11, value.getHour());
+        buffer[13] = ':';
+        writeTwoDigits(buffer, 14, value.getMinute());
+        buffer[16] = ':';
+        writeTwoDigits(buffer, 17, value.getSecond());
+
+        int nano = value.getNano();
+        if (nano == 0) {
+            return 19;
+        }
+        buffer[19] = '.';
+        for (int i = 28; i >= 20; i--) {
+            buffer[i] = (char) ('0' + nano % 10);
+            nano /= 10;
+        }
+        int length = MAX_LENGTH;
+        while (buffer[length - 1] == '0') {
+            length--;
+        }
+        return length;
+    }
+
+    private static void writeTwoDigits(char[] buffer, int offset, int value) {
+        buffer[offset] = (char) ('0' + value / 10);
+        buffer[offset + 1] = (char) ('0' + value % 10);
+    }
+}
@@ -0,0 +1,116 @@
+package com.haocai.management.config;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.haocai.management.common.ApiResponse;
+import com.haocai.management.dto.CountResultVO;
+import com.haocai.management.dto.ExistsResultVO;
+import com.haocai.management.dto.LoginResultVO;
+import com.haocai.management.dto.PageResult;
+import com.haocai.management.dto.UserVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Jackson配置类
+ * <p>
+ * 所有JSON读写（控制器响应、JwtAuthenticationEntryPoint等直接注入ObjectMapper的地方）
+ * 都使用Spring Boot自动配置的同一个ObjectMapper，这里只对它做调整：
+ * 1. 注册Blackbird模块，属性读写使用LambdaMetafactory生成的访问器，不走反射
+ * 2. LocalDateTime使用FastLocalDateTimeSerializer，输出格式不变
+ * 3. 启动完成后预先构建常用响应类型的序列化器，首个请求不再承担序列化器构建和访问器生成的开销
+ * <p>
+ * 日期不序列化为时间戳、注册JavaTimeModule由Spring Boot默认完成
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Slf4j
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * 调整Spring Boot自动配置的ObjectMapper
+     * <p>
+     * 自定义序列化器在模块之后注册，优先于JavaTimeModule自带的LocalDateTime序列化器
+     *
+     * @return Jackson2ObjectMapperBuilderCustomizer
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer jacksonCustomizer() {
+        return builder -> builder
+                .modulesToInstall(new BlackbirdModule())
+                .serializerByType(LocalDateTime.class, FastLocalDateTimeSerializer.INSTANCE);
+    }
+
+    /**
+     * 预先构建常用响应的序列化器
+     * <p>
+     * 用示例对象完整序列化一次，覆盖用户接口返回的全部响应类型（单个用户、分页、登录、批量操作、唯一性检查）
+     *
+     * @param event 启动完成事件
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpSerializers(ApplicationReadyEvent event) {
+        ObjectMapper objectMapper = event.getApplicationContext().getBean(ObjectMapper.class);
+        TypeFactory typeFactory = objectMapper.getTypeFactory();
+        UserVO user = sampleUser();
+
+        try {
+            write(objectMapper, responseType(typeFactory, typeFactory.constructType(UserVO.class)),
+                    ApiResponse.success(user));
+            write(objectMapper, responseType(typeFactory,
+                    typeFactory.constructParametricType(PageResult.class, UserVO.class)),
+                    ApiResponse.success(new PageResult<>(List.of(user), 1, 1, 10, 1)));
+            write(objectMapper, responseType(typeFactory,
+                    typeFactory.constructCollectionType(List.class, UserVO.class)), ApiResponse.success(List.of(user)));
+            write(objectMapper, responseType(typeFactory, typeFactory.constructType(LoginResultVO.class)),
+                    ApiResponse.success(new LoginResultVO("warm-up", "warm-up", 1800, user)));
+            write(objectMapper, responseType(typeFactory, typeFactory.constructType(CountResultVO.class)),
+                    ApiResponse.success(new CountResultVO(1)));
+            write(objectMapper, responseType(typeFactory, typeFactory.constructType(ExistsResultVO.class)),
+                    ApiResponse.success(ExistsResultVO.of(true)));
+            write(objectMapper, typeFactory.constructType(ApiResponse.class), ApiResponse.error(500, "warm-up"));
+            log.info("JSON序列化器预热完成");
+        } catch (Exception e) {
+            // 预热失败不影响启动，首次请求时按需构建
+            log.warn("JSON序列化器预热失败: {}", e.getMessage());
+        }
+    }
+
+    private static JavaType responseType(TypeFactory typeFactory, JavaType dataType) {
+        return typeFactory.constructParametricType(ApiResponse.class, dataType);
+    }
+
+    private static void write(ObjectMapper objectMapper, JavaType type, Object value) throws Exception {
+        objectMapper.writerFor(type).writeValue(OutputStream.nullOutputStream(), value);
+    }
+
+    private static UserVO sampleUser() {
+        UserVO user = new UserVO();
+        user.setId(1L);
+        user.setUsername("warmup");
+        user.setName("warmup");
+        user.setEmail("warmup@example.com");
+        user.setPhone("13800000000");
+        user.setStatus(1);
+        user.setDepartmentId(1L);
+        user.setDepartmentName("warmup");
+        user.setRoles(new String[]{"USER"});
+        user.setPermissions(new String[]{"user:view"});
+        user.setCreateTime(LocalDateTime.now());
+        user.setUpdateTime(LocalDateTime.now());
+        user.setLastLoginTime(LocalDateTime.now());
+        return user;
+    }
+}
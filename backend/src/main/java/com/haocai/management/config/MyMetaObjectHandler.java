@@ -1,6 +1,7 @@
 package com.haocai.management.config;
 
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
+import com.haocai.management.security.AuthContext;
 import org.apache.ibatis.reflection.MetaObject;
 import org.springframework.stereotype.Component;
 
@@ -9,25 +10,42 @@ import java.time.LocalDateTime;
 /**
  * MyBatis-Plus字段自动填充处理器
  * 用于自动填充create_time、update_time、create_by、update_by等字段
+ * 操作人从请求级认证上下文读取，非请求线程或未登录时使用系统用户
  */
 @Component
 public class MyMetaObjectHandler implements MetaObjectHandler {
 
+    /**
+     * 无法确定操作人时使用的系统用户ID
+     */
+    private static final Long SYSTEM_USER_ID = 1L;
+
     @Override
     public void insertFill(MetaObject metaObject) {
         // 插入时自动填充创建时间和更新时间
         this.strictInsertFill(metaObject, "createTime", LocalDateTime.class, LocalDateTime.now());
         this.strictInsertFill(metaObject, "updateTime", LocalDateTime.class, LocalDateTime.now());
         
-        // 插入时自动填充创建人和更新人（这里暂时设置为1，实际应该从当前登录用户获取）
-        this.strictInsertFill(metaObject, "createBy", Long.class, 1L);
-        this.strictInsertFill(metaObject, "updateBy", Long.class, 1L);
+        // 插入时自动填充创建人和更新人（当前登录用户）
+        Long operatorId = currentOperatorId();
+        this.strictInsertFill(metaObject, "createBy", Long.class, operatorId);
+        this.strictInsertFill(metaObject, "updateBy", Long.class, operatorId);
     }
 
     @Override
     public void updateFill(MetaObject metaObject) {
         // 更新时自动填充更新时间和更新人
         this.strictUpdateFill(metaObject, "updateTime", LocalDateTime.class, LocalDateTime.now());
-        this.strictUpdateFill(metaObject, "updateBy", Long.class, 1L);
+        this.strictUpdateFill(metaObject, "updateBy", Long.class, currentOperatorId());
+    }
+
+    /**
+     * 获取当前操作人ID
+     *
+     * @return 当前登录用户ID，无法确定时返回系统用户ID
+     */
+    private Long currentOperatorId() {
+        Long userId = AuthContext.currentUserId();
+        return userId != null ? userId : SYSTEM_USER_ID;
     }
 }
@@ -1,13 +1,31 @@
 package com.haocai.management.config;
 
+import com.haocai.management.common.RequestIds;
+import com.haocai.management.filter.ConcurrencyLimitFilter;
 import com.haocai.management.filter.JwtAuthenticationFilter;
 import com.haocai.management.security.JwtAuthenticationEntryPoint;
 import com.haocai.management.security.JwtAccessDeniedHandler;
+import com.haocai.management.security.PermissionAuthorizationManager;
+import com.haocai.management.security.PublicEndpoints;
+import com.haocai.management.security.PublicRouteMatcher;
+import com.haocai.management.security.RequiresPermission;
+import jakarta.servlet.DispatcherType;
 import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Role;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.method.AuthorizationInterceptorsOrder;
+import org.springframework.security.authorization.method.AuthorizationManagerBeforeMethodInterceptor;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -20,6 +38,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
 import java.util.Arrays;
 
@@ -50,16 +69,22 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
     private final JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
     private final JwtAccessDeniedHandler jwtAccessDeniedHandler;
+    private final PublicRouteMatcher publicRouteMatcher;
 
     public SecurityConfig(
             @Lazy JwtAuthenticationFilter jwtAuthenticationFilter,
+            ConcurrencyLimitFilter concurrencyLimitFilter,
             JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint,
-            JwtAccessDeniedHandler jwtAccessDeniedHandler) {
+            JwtAccessDeniedHandler jwtAccessDeniedHandler,
+            PublicRouteMatcher publicRouteMatcher) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
         this.jwtAuthenticationEntryPoint = jwtAuthenticationEntryPoint;
         this.jwtAccessDeniedHandler = jwtAccessDeniedHandler;
+        this.publicRouteMatcher = publicRouteMatcher;
     }
 
     /**
@@ -142,39 +167,27 @@ public class SecurityConfig {
             // 4. 配置请求授权规则
             // 遵循：配置规范-合理的权限控制策略
             .authorizeHttpRequests(authz -> authz
-                // ===== 公开访问的接口（无需认证）=====
-                
-                // Swagger UI文档
-                .requestMatchers(
-                    "/swagger-ui/**",
-                    "/swagger-ui.html",
-                    "/v3/api-docs/**",
-                    "/swagger-resources/**",
-                    "/webjars/**"
-                ).permitAll()
-                
-                // 健康检查接口
-                .requestMatchers("/actuator/**", "/api/test/**").permitAll()
+                // ===== 异步请求的结果分发 =====
                 
-                // 调试接口（仅开发环境使用）
-                .requestMatchers("/api/debug/**").permitAll()
+                // 异步接口（AsyncAuthController）在首次分发时已完成认证和授权，
+                // 结果分发时JWT过滤器不再执行，不能再按未认证处理
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 
-                // 错误页面
-                .requestMatchers("/error").permitAll()
+                // ===== 公开访问的接口（无需认证）=====
                 
-                // 登录和注册接口
+                // Swagger文档、健康检查、测试/调试接口、错误页面、登录注册续期和JWT公钥接口
+                // 清单见PublicEndpoints；与JwtAuthenticationFilter共用同一个预编译匹配器
                 // 遵循：配置规范-路径与Controller保持一致
-                // 修正：使用复数形式/api/users，与SysUserController的@RequestMapping一致
-                .requestMatchers(
-                    "/api/users/register",
-                    "/api/users/login",
-                    "/api/users/check/**"
-                ).permitAll()
+                .requestMatchers(publicRouteMatcher).permitAll()
                 
                 // ===== 需要认证的接口 =====
                 
+                // health、info之外的actuator端点（metrics、prometheus等）需要system权限
+                .requestMatchers(PublicEndpoints.MANAGEMENT_PREFIX + "**")
+                    .hasAuthority(PublicEndpoints.MANAGEMENT_AUTHORITY)
+                
                 // 其他所有API接口都需要认证
-                .requestMatchers("/api/**").authenticated()
+                .requestMatchers(PublicEndpoints.PROTECTED_PREFIX + "**").authenticated()
                 
                 // 其他所有请求允许访问（静态资源等）
                 .anyRequest().permitAll()
@@ -191,12 +204,35 @@ public class SecurityConfig {
             .addFilterBefore(
                 jwtAuthenticationFilter,
                 UsernamePasswordAuthenticationFilter.class
+            )
+            
+            // 7. 添加并发限制过滤器
+            // 紧接在CORS之后、JWT认证之前执行：超出限制的请求不再查询用户，跨域请求也能读到503响应
+            .addFilterAfter(
+                concurrencyLimitFilter,
+                CorsFilter.class
             );
         
         log.info("Spring Security过滤链配置完成");
         return http.build();
     }
 
+    /**
+     * 并发限制过滤器只在Spring Security过滤链中执行，不由Spring Boot注册到Servlet容器
+     * <p>
+     * 注册到容器时它会先于CORS执行，被拒绝的跨域请求读不到503响应
+     *
+     * @param filter 并发限制过滤器
+     * @return 已禁用的过滤器注册
+     */
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     /**
      * 配置CORS（跨域资源共享）
      * 
@@ -243,7 +279,9 @@ public class SecurityConfig {
         // 暴露的响应头（允许前端访问的响应头）
         configuration.setExposedHeaders(Arrays.asList(
             "Authorization",
-            "Content-Type"
+            "Content-Type",
+            JwtAuthenticationFilter.TOKEN_EXPIRING_HEADER,
+            RequestIds.HEADER
         ));
         
         // 应用到所有路径
@@ -253,4 +291,29 @@ public class SecurityConfig {
         log.info("CORS配置完成，允许的源: {}", configuration.getAllowedOrigins());
         return source;
     }
+
+    /**
+     * 注册@RequiresPermission方法拦截器
+     * <p>
+     * 与@PreAuthorize处于同一拦截顺序，授权判断由PermissionAuthorizationManager完成：
+     * 按方法缓存编译后的规则，不解析SpEL表达式
+     * <p>
+     * 授权管理器通过ObjectProvider延迟获取，避免Advisor提前初始化数据访问层
+     *
+     * @param managerProvider 授权管理器
+     * @return 方法拦截Advisor
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor requiresPermissionAdvisor(ObjectProvider<PermissionAuthorizationManager> managerProvider) {
+        ComposablePointcut pointcut = new ComposablePointcut(
+                new AnnotationMatchingPointcut(null, RequiresPermission.class, true))
+                .union(new AnnotationMatchingPointcut(RequiresPermission.class, true));
+        AuthorizationManager<MethodInvocation> manager =
+                (authentication, invocation) -> managerProvider.getObject().check(authentication, invocation);
+        AuthorizationManagerBeforeMethodInterceptor interceptor =
+                new AuthorizationManagerBeforeMethodInterceptor(pointcut, manager);
+        interceptor.setOrder(AuthorizationInterceptorsOrder.PRE_AUTHORIZE.getOrder());
+        return interceptor;
+    }
 }
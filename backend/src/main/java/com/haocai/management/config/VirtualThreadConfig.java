@@ -0,0 +1,101 @@
+package com.haocai.management.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程配置（可选）
+ * <p>
+ * spring.threads.virtual.enabled=true时：
+ * 1. Tomcat每个请求在一个新的虚拟线程上处理，并发请求数不再受server.tomcat.threads.max限制
+ * 2. applicationTaskExecutor（@Async、Spring MVC异步请求）改为每个任务一个虚拟线程
+ * <p>
+ * 设计说明：
+ * - 属性名与Spring Boot 3.2+相同，升级后删除本类即可改用Boot自带的支持
+ * - 代码按Java 17编译，通过反射调用Java 21的虚拟线程API；在Java 17上启用时启动失败并提示原因
+ * - 数据库并发仍由连接池和数据库隔离舱（db.bulkhead.*）限制
+ * <p>
+ * 注意：MySQL Connector/J 8.0.x在synchronized块内做网络读写，查询期间虚拟线程会钉住（pin）载体线程。
+ * 载体线程数（jdk.virtualThreadScheduler.parallelism，默认CPU核数）小于连接池大小时，
+ * 同时执行的查询数会被限制在载体线程数以内，启动时检查并输出警告
+ *
+ * @author 系统开发团队
+ * @since 2026-01-08
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Tomcat请求处理使用虚拟线程
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        ExecutorService executor = newVirtualThreadExecutor("tomcat-handler-");
+        checkCarrierThreads(poolSize);
+        log.info("Tomcat请求处理已切换为虚拟线程");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * 替换默认的applicationTaskExecutor线程池
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadExecutor("task-"));
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     * <p>
+     * 等价于Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory())
+     *
+     * @param namePrefix 线程名前缀，后接从0开始的序号
+     * @return 执行器
+     * @throws IllegalStateException 运行时低于Java 21
+     */
+    static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newExecutor.invoke(null, factory);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            throw new IllegalStateException("启用虚拟线程需要Java 21及以上版本，当前版本: " + Runtime.version(), e);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("创建虚拟线程执行器失败", e);
+        }
+    }
+
+    /**
+     * 检查载体线程数是否足以让连接池中的连接同时执行查询
+     */
+    private static void checkCarrierThreads(int poolSize) {
+        int parallelism = Integer.getInteger("jdk.virtualThreadScheduler.parallelism",
+                Runtime.getRuntime().availableProcessors());
+        if (parallelism < poolSize) {
+            log.warn("虚拟线程载体线程数({})小于连接池大小({})，JDBC查询钉住载体线程时最多只有{}个查询同时执行，" +
+                    "建议启动参数加上 -Djdk.virtualThreadScheduler.parallelism={}",
+                    parallelism, poolSize, parallelism, poolSize + Runtime.getRuntime().availableProcessors());
+        }
+    }
+}
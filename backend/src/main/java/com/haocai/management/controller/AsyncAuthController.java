@@ -0,0 +1,187 @@
+package com.haocai.management.controller;
+
+import com.haocai.management.common.ApiResponse;
+import com.haocai.management.config.AuthExecutor;
+import com.haocai.management.converter.UserConverter;
+import com.haocai.management.dto.ExistsResultVO;
+import com.haocai.management.dto.LoginResultVO;
+import com.haocai.management.dto.UserLoginDTO;
+import com.haocai.management.dto.UserVO;
+import com.haocai.management.entity.SysUser;
+import com.haocai.management.exception.BulkheadFullException;
+import com.haocai.management.security.AuthContext;
+import com.haocai.management.security.RequiresPermission;
+import com.haocai.management.service.ISysUserService;
+import com.haocai.management.utils.JwtUtils;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * 异步认证接口控制器
+ * <p>
+ * 职责：
+ * 1. 在/api/async/users下提供login、current和check/*的异步版本，请求与响应格式与/api/users下的同步接口相同
+ * 2. 处理逻辑在认证任务线程池（AuthExecutor）中执行，Tomcat线程只负责接收请求和写出响应
+ * <p>
+ * 设计原则：
+ * - 复用同步接口的ISysUserService、JwtUtils和DTO，两套接口的认证结果一致，可以并排压测对比
+ * - bcrypt在有界线程池中执行，线程池排满时返回503，不会占满Tomcat线程导致其他接口不可用
+ * - 认证过滤器已加载当前用户时直接返回，不切换线程
+ * <p>
+ * 注意：数据访问仍是JDBC阻塞调用，异步只是把阻塞从Tomcat线程移到有界线程池，
+ * 压测方法见loadtest/README.md
+ *
+ * @author 系统开发团队
+ * @since 2026-01-08
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/async/users")
+public class AsyncAuthController {
+
+    @Autowired
+    private ISysUserService userService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private AuthExecutor authExecutor;
+
+    /**
+     * 用户登录接口（异步）
+     * POST /api/async/users/login
+     *
+     * @param loginDTO 登录信息
+     * @param request  HTTP请求
+     * @return 登录结果，包含access token和refresh token
+     */
+    @PostMapping("/login")
+    public CompletableFuture<ApiResponse<LoginResultVO>> login(@Valid @RequestBody UserLoginDTO loginDTO,
+                                                               HttpServletRequest request) {
+        log.info("用户登录请求（异步）: username={}", loginDTO.getUsername());
+        loginDTO.setIpAddress(SysUserController.getClientIpAddress(request));
+
+        return submit(() -> {
+            String token = userService.login(loginDTO);
+            SysUser user = userService.findByUsername(loginDTO.getUsername());
+            return ApiResponse.success(new LoginResultVO(
+                    token,
+                    userService.createRefreshToken(user),
+                    jwtUtils.getAccessExpiration() / 1000,
+                    UserConverter.toVO(user)));
+        }, 401, "用户登录失败: ");
+    }
+
+    /**
+     * 获取当前用户信息（异步）
+     * GET /api/async/users/current
+     *
+     * @param request HTTP请求
+     * @return 用户信息
+     */
+    @GetMapping("/current")
+    @RequiresPermission
+    public CompletableFuture<ApiResponse<UserVO>> getCurrentUser(HttpServletRequest request) {
+        AuthContext authContext = AuthContext.from(request);
+        if (authContext != null && authContext.getUser() != null) {
+            return CompletableFuture.completedFuture(ApiResponse.success(UserConverter.toVO(authContext.getUser())));
+        }
+
+        // SecurityContext不会传递到线程池，在请求线程中取出用户名
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return CompletableFuture.completedFuture(ApiResponse.error(401, "未认证"));
+        }
+        String username = authentication.getName();
+
+        return submit(() -> {
+            SysUser user = userService.findByUsername(username);
+            if (user == null) {
+                return ApiResponse.error(404, "用户不存在");
+            }
+            return ApiResponse.success(UserConverter.toVO(user));
+        }, 500, "获取用户信息失败: ");
+    }
+
+    /**
+     * 检查用户名是否存在（异步）
+     * GET /api/async/users/check/username
+     *
+     * @param username 用户名
+     * @return 检查结果
+     */
+    @GetMapping("/check/username")
+    public CompletableFuture<ApiResponse<ExistsResultVO>> checkUsername(@RequestParam String username) {
+        return submit(() -> ApiResponse.success(ExistsResultVO.of(userService.existsByUsername(username))),
+                500, "检查用户名失败: ");
+    }
+
+    /**
+     * 检查邮箱是否存在（异步）
+     * GET /api/async/users/check/email
+     *
+     * @param email         邮箱
+     * @param excludeUserId 排除的用户ID（可选）
+     * @return 检查结果
+     */
+    @GetMapping("/check/email")
+    public CompletableFuture<ApiResponse<ExistsResultVO>> checkEmail(
+            @RequestParam String email,
+            @RequestParam(required = false) Long excludeUserId) {
+        return submit(() -> ApiResponse.success(ExistsResultVO.of(userService.existsByEmail(email, excludeUserId))),
+                500, "检查邮箱失败: ");
+    }
+
+    /**
+     * 检查手机号是否存在（异步）
+     * GET /api/async/users/check/phone
+     *
+     * @param phone         手机号
+     * @param excludeUserId 排除的用户ID（可选）
+     * @return 检查结果
+     */
+    @GetMapping("/check/phone")
+    public CompletableFuture<ApiResponse<ExistsResultVO>> checkPhone(
+            @RequestParam String phone,
+            @RequestParam(required = false) Long excludeUserId) {
+        return submit(() -> ApiResponse.success(ExistsResultVO.of(userService.existsByPhone(phone, excludeUserId))),
+                500, "检查手机号失败: ");
+    }
+
+    /**
+     * 在认证任务线程池中执行，异常在工作线程中转换为错误响应（此时MDC仍携带请求ID）
+     *
+     * @param action      处理逻辑
+     * @param errorCode   处理失败时的错误码
+     * @param errorPrefix 处理失败时的错误信息前缀
+     * @return 响应
+     */
+    private <T> CompletableFuture<ApiResponse<T>> submit(Supplier<ApiResponse<T>> action,
+                                                         int errorCode, String errorPrefix) {
+        try {
+            return authExecutor.supply(() -> {
+                try {
+                    return action.get();
+                } catch (BulkheadFullException e) {
+                    log.warn("认证请求繁忙，隔离舱: {}", e.getBulkheadName());
+                    return ApiResponse.error(e.getCode(), e.getMessage());
+                } catch (Exception e) {
+                    log.error(errorPrefix + "{}", e.getMessage(), e);
+                    return ApiResponse.error(errorCode, errorPrefix + e.getMessage());
+                }
+            });
+        } catch (BulkheadFullException e) {
+            log.warn("认证任务线程池已满，拒绝请求");
+            return CompletableFuture.completedFuture(ApiResponse.error(e.getCode(), e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.haocai.management.controller;
+
+import com.haocai.management.utils.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWKS控制器
+ * 发布JWT验证公钥，供其他服务节点或外部验证方在本地验证token
+ *
+ * 遵循：JWKS标准格式（RFC 7517），直接返回{"keys":[...]}，不包装为ApiResponse
+ * HS256模式下共享密钥不可公开，返回空列表
+ *
+ * @author 开发团队
+ * @since 2026-01-05
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class JwksController {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    /**
+     * 获取验证公钥集合
+     * GET /api/auth/jwks
+     *
+     * @return JWK集合
+     */
+    @GetMapping("/jwks")
+    public ResponseEntity<Map<String, List<Map<String, Object>>>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+                .body(Map.of("keys", jwtUtils.getPublicJwks()));
+    }
+}
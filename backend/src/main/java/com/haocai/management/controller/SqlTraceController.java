@@ -0,0 +1,129 @@
+package com.haocai.management.controller;
+
+import com.haocai.management.common.ApiResponse;
+import com.haocai.management.dto.SqlStatementStatsVO;
+import com.haocai.management.mybatis.SqlStatementStats;
+import com.haocai.management.mybatis.SqlTraceInterceptor;
+import com.haocai.management.security.RequiresPermission;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SQL追踪控制器
+ * 查询SQL执行统计，运行时开启或关闭指定Mapper的全量追踪
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/system/sql-trace")
+@RequiresPermission("system")
+public class SqlTraceController {
+
+    @Autowired
+    private SqlTraceInterceptor sqlTraceInterceptor;
+
+    /**
+     * SQL执行统计
+     * GET /api/system/sql-trace/stats
+     *
+     * 遵循：安全规范-需要权限的接口配置
+     * 需要system权限
+     *
+     * @return 按总耗时降序排列的语句统计
+     */
+    @GetMapping("/stats")
+    public ApiResponse<List<SqlStatementStatsVO>> getStatistics() {
+        List<SqlStatementStatsVO> result = sqlTraceInterceptor.getStatistics().stream()
+                .map(this::toVO)
+                .sorted(Comparator.comparing(SqlStatementStatsVO::getTotalMicros).reversed())
+                .toList();
+        return ApiResponse.success(result);
+    }
+
+    /**
+     * 清空SQL执行统计
+     * DELETE /api/system/sql-trace/stats
+     *
+     * @return 操作结果
+     */
+    @DeleteMapping("/stats")
+    public ApiResponse<Void> resetStatistics() {
+        sqlTraceInterceptor.resetStatistics();
+        log.info("SQL执行统计已清空");
+        return ApiResponse.success();
+    }
+
+    /**
+     * 追踪配置
+     * GET /api/system/sql-trace/config
+     *
+     * @return 慢SQL阈值、采样率和开启全量追踪的Mapper
+     */
+    @GetMapping("/config")
+    public ApiResponse<Map<String, Object>> getConfig() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("slowThresholdMillis", sqlTraceInterceptor.getSlowThresholdMillis());
+        result.put("sampleRate", sqlTraceInterceptor.getSampleRate());
+        result.put("tracedMappers", sqlTraceInterceptor.getTracedMappers());
+        return ApiResponse.success(result);
+    }
+
+    /**
+     * 开启Mapper全量追踪
+     * PUT /api/system/sql-trace/mappers/{mapper}
+     *
+     * @param mapper Mapper接口全限定名，如com.haocai.management.mapper.SysUserMapper
+     * @return 开启全量追踪的Mapper
+     */
+    @PutMapping("/mappers/{mapper}")
+    public ApiResponse<Set<String>> enableTrace(@PathVariable String mapper) {
+        if (!StringUtils.hasText(mapper)) {
+            return ApiResponse.error(400, "Mapper名称不能为空");
+        }
+        sqlTraceInterceptor.setTraced(mapper.trim(), true);
+        return ApiResponse.success(sqlTraceInterceptor.getTracedMappers());
+    }
+
+    /**
+     * 关闭Mapper全量追踪
+     * DELETE /api/system/sql-trace/mappers/{mapper}
+     *
+     * @param mapper Mapper接口全限定名
+     * @return 开启全量追踪的Mapper
+     */
+    @DeleteMapping("/mappers/{mapper}")
+    public ApiResponse<Set<String>> disableTrace(@PathVariable String mapper) {
+        sqlTraceInterceptor.setTraced(mapper.trim(), false);
+        return ApiResponse.success(sqlTraceInterceptor.getTracedMappers());
+    }
+
+    private SqlStatementStatsVO toVO(SqlStatementStats stats) {
+        long count = stats.getCount();
+        SqlStatementStatsVO vo = new SqlStatementStatsVO();
+        vo.setStatementId(stats.getStatementId());
+        vo.setCount(count);
+        vo.setSlowCount(stats.getSlowCount());
+        vo.setLastSlowRequestId(stats.getLastSlowRequestId());
+        vo.setErrorCount(stats.getErrorCount());
+        vo.setLastErrorRequestId(stats.getLastErrorRequestId());
+        vo.setTotalMicros(stats.getTotalMicros());
+        vo.setAvgMicros(count == 0 ? 0 : stats.getTotalMicros() / count);
+        vo.setMaxMicros(stats.getMaxMicros());
+        vo.setP50Micros(stats.getDurationHistogram().percentile(0.50));
+        vo.setP95Micros(stats.getDurationHistogram().percentile(0.95));
+        vo.setP99Micros(stats.getDurationHistogram().percentile(0.99));
+        vo.setAvgRows(count == 0 ? 0 : stats.getTotalRows() / count);
+        vo.setP99Rows(stats.getRowsHistogram().percentile(0.99));
+        return vo;
+    }
+}
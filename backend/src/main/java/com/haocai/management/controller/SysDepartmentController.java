@@ -0,0 +1,177 @@
+package com.haocai.management.controller;
+
+import com.haocai.management.common.ApiResponse;
+import com.haocai.management.dto.DepartmentDTO;
+import com.haocai.management.dto.DepartmentTreeVO;
+import com.haocai.management.entity.SysDepartment;
+import com.haocai.management.exception.BusinessException;
+import com.haocai.management.security.RequiresPermission;
+import com.haocai.management.service.ISysDepartmentService;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 部门管理控制器
+ * 提供部门树查询及部门增删改的RESTful API接口
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/departments")
+public class SysDepartmentController {
+
+    @Autowired
+    private ISysDepartmentService departmentService;
+
+    /**
+     * 获取部门树
+     * GET /api/departments/tree
+     *
+     * 遵循：安全规范-需要认证的接口配置
+     * 部门树来自内存快照，不访问数据库
+     *
+     * @return 部门树
+     */
+    @GetMapping("/tree")
+    @RequiresPermission
+    public ApiResponse<List<DepartmentTreeVO>> getTree() {
+        try {
+            return ApiResponse.success(departmentService.getTree());
+        } catch (Exception e) {
+            log.error("获取部门树失败", e);
+            return ApiResponse.error(500, "获取部门树失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 根据ID获取部门信息
+     * GET /api/departments/{id}
+     *
+     * 遵循：安全规范-需要认证的接口配置
+     *
+     * @param id 部门ID
+     * @return 部门信息
+     */
+    @GetMapping("/{id}")
+    @RequiresPermission
+    public ApiResponse<SysDepartment> getDepartmentById(@PathVariable Long id) {
+        try {
+            SysDepartment department = departmentService.findById(id);
+            if (department == null) {
+                return ApiResponse.error(404, "部门不存在");
+            }
+            return ApiResponse.success(department);
+        } catch (Exception e) {
+            log.error("获取部门信息失败", e);
+            return ApiResponse.error(500, "获取部门信息失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取部门及其下级部门的ID
+     * GET /api/departments/{id}/descendants
+     *
+     * 遵循：安全规范-需要认证的接口配置
+     *
+     * @param id 部门ID
+     * @param includeSelf 是否包含部门本身（默认true）
+     * @return 部门ID列表
+     */
+    @GetMapping("/{id}/descendants")
+    @RequiresPermission
+    public ApiResponse<List<Long>> getDescendantIds(@PathVariable Long id,
+                                                    @RequestParam(defaultValue = "true") boolean includeSelf) {
+        try {
+            return ApiResponse.success(departmentService.getDescendantIds(id, includeSelf));
+        } catch (Exception e) {
+            log.error("获取下级部门失败", e);
+            return ApiResponse.error(500, "获取下级部门失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 新增部门
+     * POST /api/departments
+     *
+     * 遵循：安全规范-需要权限的接口配置
+     * 需要system:department权限
+     *
+     * @param departmentDTO 部门信息
+     * @return 新增的部门
+     */
+    @PostMapping
+    @RequiresPermission("system:department")
+    public ApiResponse<SysDepartment> createDepartment(@Valid @RequestBody DepartmentDTO departmentDTO) {
+        log.info("新增部门: name={}, parentId={}", departmentDTO.getName(), departmentDTO.getParentId());
+
+        try {
+            return ApiResponse.success(departmentService.createDepartment(departmentDTO));
+        } catch (BusinessException e) {
+            return ApiResponse.error(e.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("新增部门失败", e);
+            return ApiResponse.error(500, "新增部门失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 修改部门
+     * PUT /api/departments/{id}
+     *
+     * 遵循：安全规范-需要权限的接口配置
+     * 需要system:department权限
+     *
+     * @param id 部门ID
+     * @param departmentDTO 部门信息
+     * @return 修改后的部门
+     */
+    @PutMapping("/{id}")
+    @RequiresPermission("system:department")
+    public ApiResponse<SysDepartment> updateDepartment(@PathVariable Long id,
+                                                       @Valid @RequestBody DepartmentDTO departmentDTO) {
+        log.info("修改部门: departmentId={}", id);
+
+        try {
+            return ApiResponse.success(departmentService.updateDepartment(id, departmentDTO));
+        } catch (BusinessException e) {
+            return ApiResponse.error(e.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("修改部门失败", e);
+            return ApiResponse.error(500, "修改部门失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 删除部门
+     * DELETE /api/departments/{id}
+     *
+     * 遵循：安全规范-需要权限的接口配置
+     * 需要system:department权限，存在下级部门或用户时不允许删除
+     *
+     * @param id 部门ID
+     * @return 删除结果
+     */
+    @DeleteMapping("/{id}")
+    @RequiresPermission("system:department")
+    public ApiResponse<Void> deleteDepartment(@PathVariable Long id) {
+        log.info("删除部门: departmentId={}", id);
+
+        try {
+            if (departmentService.deleteDepartment(id)) {
+                return ApiResponse.success();
+            }
+            return ApiResponse.error(500, "删除部门失败");
+        } catch (BusinessException e) {
+            return ApiResponse.error(e.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("删除部门失败", e);
+            return ApiResponse.error(500, "删除部门失败: " + e.getMessage());
+        }
+    }
+}
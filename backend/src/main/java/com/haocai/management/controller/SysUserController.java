@@ -2,24 +2,39 @@ package com.haocai.management.controller;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.haocai.management.cache.TableVersionRegistry;
 import com.haocai.management.common.ApiResponse;
+import com.haocai.management.config.DbBulkheads;
+import com.haocai.management.converter.UserConverter;
+import com.haocai.management.dto.CountResultVO;
+import com.haocai.management.dto.DepartmentUserStatsVO;
+import com.haocai.management.dto.ExistsResultVO;
+import com.haocai.management.dto.LoginResultVO;
+import com.haocai.management.dto.PageResult;
+import com.haocai.management.dto.TokenPairVO;
+import com.haocai.management.dto.TokenRefreshDTO;
 import com.haocai.management.dto.UserLoginDTO;
 import com.haocai.management.dto.UserRegisterDTO;
 import com.haocai.management.dto.UserUpdateDTO;
 import com.haocai.management.dto.UserVO;
 import com.haocai.management.entity.SysUser;
 import com.haocai.management.entity.UserStatus;
+import com.haocai.management.exception.BulkheadFullException;
+import com.haocai.management.security.AuthContext;
+import com.haocai.management.security.RequiresPermission;
+import com.haocai.management.service.ISysDepartmentService;
 import com.haocai.management.service.ISysUserService;
+import com.haocai.management.utils.JwtUtils;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -39,6 +54,18 @@ public class SysUserController {
     @Autowired
     private ISysUserService userService;
 
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private DbBulkheads dbBulkheads;
+
+    @Autowired
+    private TableVersionRegistry tableVersions;
+
+    @Autowired
+    private ISysDepartmentService departmentService;
+
     /**
      * 用户注册接口
      * POST /api/users/register
@@ -60,7 +87,7 @@ public class SysUserController {
         
         try {
             SysUser user = userService.register(registerDTO);
-            UserVO userVO = convertToUserVO(user);
+            UserVO userVO = UserConverter.toVO(user);
             return ApiResponse.success(userVO);
         } catch (Exception e) {
             log.error("用户注册失败", e);
@@ -77,11 +104,11 @@ public class SysUserController {
      *
      * @param loginDTO 登录信息
      * @param request  HTTP请求
-     * @return 登录结果，包含JWT token
+     * @return 登录结果，包含access token和refresh token
      */
     @PostMapping("/login")
-    public ApiResponse<Map<String, Object>> login(@Valid @RequestBody UserLoginDTO loginDTO,
-                                                   HttpServletRequest request) {
+    public ApiResponse<LoginResultVO> login(@Valid @RequestBody UserLoginDTO loginDTO,
+                                            HttpServletRequest request) {
         log.info("用户登录请求: username={}", loginDTO.getUsername());
         
         // 获取客户端IP地址
@@ -93,58 +120,77 @@ public class SysUserController {
             
             // 获取用户信息
             SysUser user = userService.findByUsername(loginDTO.getUsername());
-            UserVO userVO = convertToUserVO(user);
+            UserVO userVO = UserConverter.toVO(user);
             
-            Map<String, Object> result = new HashMap<>();
-            result.put("token", token);
-            result.put("user", userVO);
-            
-            return ApiResponse.success(result);
+            return ApiResponse.success(new LoginResultVO(
+                    token,
+                    userService.createRefreshToken(user),
+                    jwtUtils.getAccessExpiration() / 1000,
+                    userVO));
+        } catch (BulkheadFullException e) {
+            log.warn("用户登录繁忙，隔离舱: {}", e.getBulkheadName());
+            return ApiResponse.error(e.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("用户登录失败", e);
             return ApiResponse.error(401, "用户登录失败: " + e.getMessage());
         }
     }
 
+    /**
+     * token续期接口
+     * POST /api/users/token/refresh
+     * 
+     * 遵循：安全规范-公开访问接口配置
+     * 使用refresh token换取新的token对，不需要密码校验
+     *
+     * @param refreshDTO 续期信息
+     * @return 新的access token和refresh token
+     */
+    @PostMapping("/token/refresh")
+    public ApiResponse<TokenPairVO> refreshToken(@Valid @RequestBody TokenRefreshDTO refreshDTO) {
+        try {
+            return ApiResponse.success(userService.refreshToken(refreshDTO.getRefreshToken()));
+        } catch (Exception e) {
+            log.warn("token续期失败: {}", e.getMessage());
+            return ApiResponse.error(401, "token续期失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 获取当前用户信息
      * GET /api/users/current
      * 需要 JWT token 认证
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
      *
      * @param request HTTP请求
      * @return 用户信息
      */
     @GetMapping("/current")
-    @PreAuthorize("isAuthenticated()")
+    @RequiresPermission
     public ApiResponse<UserVO> getCurrentUser(HttpServletRequest request) {
         try {
-            // 从JWT token中获取用户ID
-            String token = request.getHeader("Authorization");
-            if (token != null && token.startsWith("Bearer ")) {
-                token = token.substring(7);
-            }
-            
-            // 从SecurityContext中获取已认证的用户信息
-            org.springframework.security.core.Authentication authentication = 
-                org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
-            
-            if (authentication == null || !authentication.isAuthenticated()) {
-                return ApiResponse.error(401, "未认证");
-            }
-            
-            // 从认证信息中获取用户名
-            String username = authentication.getName();
-            
-            // 根据用户名查询用户信息
-            SysUser user = userService.findByUsername(username);
+            // 优先使用认证过滤器已加载的用户，避免再次解析token和查询数据库
+            AuthContext authContext = AuthContext.from(request);
+            SysUser user = authContext != null ? authContext.getUser() : null;
             if (user == null) {
-                return ApiResponse.error(404, "用户不存在");
+                // 从SecurityContext中获取已认证的用户信息
+                org.springframework.security.core.Authentication authentication =
+                    org.springframework.security.core.context.SecurityContextHolder.getContext().getAuthentication();
+
+                if (authentication == null || !authentication.isAuthenticated()) {
+                    return ApiResponse.error(401, "未认证");
+                }
+
+                // 根据用户名查询用户信息
+                user = userService.findByUsername(authentication.getName());
+                if (user == null) {
+                    return ApiResponse.error(404, "用户不存在");
+                }
             }
             
-            UserVO userVO = convertToUserVO(user);
+            UserVO userVO = UserConverter.toVO(user);
             return ApiResponse.success(userVO);
         } catch (Exception e) {
             log.error("获取用户信息失败", e);
@@ -157,7 +203,8 @@ public class SysUserController {
      * GET /api/users
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
+     * 支持If-None-Match条件请求，ETag由用户表（按部门查询时为相关部门）的版本号生成
      *
      * @param page         页码（默认1）
      * @param size         每页大小（默认10）
@@ -165,57 +212,114 @@ public class SysUserController {
      * @param realName     真实姓名关键词（可选）
      * @param status       用户状态（可选）
      * @param departmentId 部门ID（可选）
-     * @return 分页结果
+     * @param includeChildren 是否包含下级部门的用户（默认false）
+     * @param webRequest   当前请求，用于条件GET
+     * @param response     HTTP响应
+     * @return 分页结果，数据未变化时返回304
      */
     @GetMapping
-    @PreAuthorize("isAuthenticated()")
-    public ApiResponse<Map<String, Object>> findUserPage(
+    @RequiresPermission
+    public ApiResponse<PageResult<UserVO>> findUserPage(
             @RequestParam(defaultValue = "1") Integer page,
             @RequestParam(defaultValue = "10") Integer size,
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String name,
             @RequestParam(required = false) UserStatus status,
-            @RequestParam(required = false) Long departmentId) {
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(defaultValue = "false") boolean includeChildren,
+            WebRequest webRequest,
+            HttpServletResponse response) {
+        
+        // 先取ETag再查询，数据未变化时直接返回304，不查询数据库
+        String etag = userListETag(departmentId, includeChildren);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         
         try {
             Page<SysUser> pageParam = new Page<>(page, size);
-            IPage<SysUser> userPage = userService.findUserPage(
-                pageParam, username, name, status, departmentId);
-            
-            Map<String, Object> result = new HashMap<>();
-            result.put("records", userPage.getRecords().stream().map(this::convertToUserVO).toList());
-            result.put("total", userPage.getTotal());
-            result.put("current", userPage.getCurrent());
-            result.put("size", userPage.getSize());
-            result.put("pages", userPage.getPages());
+            IPage<SysUser> userPage = includeChildren
+                ? userService.findUserPage(pageParam, username, name, status, departmentId, true)
+                : userService.findUserPage(pageParam, username, name, status, departmentId);
             
-            return ApiResponse.success(result);
+            requireRevalidation(response, etag);
+            return ApiResponse.success(PageResult.of(userPage, UserConverter::toVO));
         } catch (Exception e) {
             log.error("查询用户列表失败", e);
             return ApiResponse.error(500, "查询用户列表失败: " + e.getMessage());
         }
     }
 
+    /**
+     * 各部门用户统计
+     * GET /api/users/stats/departments
+     * 
+     * 遵循：安全规范-需要认证的接口配置
+     * 统计来自内存计数，耗时只与部门数量有关，不扫描用户表
+     *
+     * @return 各部门用户数及含下级部门的用户总数
+     */
+    @GetMapping("/stats/departments")
+    @RequiresPermission
+    public ApiResponse<List<DepartmentUserStatsVO>> getDepartmentUserStats() {
+        try {
+            return ApiResponse.success(userService.getDepartmentUserStats());
+        } catch (Exception e) {
+            log.error("查询部门用户统计失败", e);
+            return ApiResponse.error(500, "查询部门用户统计失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 用户状态统计
+     * GET /api/users/stats/status
+     * 
+     * 遵循：安全规范-需要认证的接口配置
+     * 统计来自内存计数，不扫描用户表
+     *
+     * @return 用户状态 -> 用户数
+     */
+    @GetMapping("/stats/status")
+    @RequiresPermission
+    public ApiResponse<Map<UserStatus, Long>> getStatusUserStats() {
+        try {
+            return ApiResponse.success(userService.getStatusUserStats());
+        } catch (Exception e) {
+            log.error("查询用户状态统计失败", e);
+            return ApiResponse.error(500, "查询用户状态统计失败: " + e.getMessage());
+        }
+    }
+
     /**
      * 根据ID获取用户信息
      * GET /api/users/{id}
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
+     * 支持If-None-Match条件请求，ETag由用户表的版本号生成
      *
-     * @param id 用户ID
-     * @return 用户信息
+     * @param id         用户ID
+     * @param webRequest 当前请求，用于条件GET
+     * @param response   HTTP响应
+     * @return 用户信息，数据未变化时返回304
      */
     @GetMapping("/{id}")
-    @PreAuthorize("isAuthenticated()")
-    public ApiResponse<UserVO> getUserById(@PathVariable Long id) {
+    @RequiresPermission
+    public ApiResponse<UserVO> getUserById(@PathVariable Long id, WebRequest webRequest,
+                                           HttpServletResponse response) {
+        String etag = tableVersions.weakETag(TableVersionRegistry.SYS_USER);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
         try {
             SysUser user = userService.findById(id);
             if (user == null) {
                 return ApiResponse.error(404, "用户不存在");
             }
             
-            UserVO userVO = convertToUserVO(user);
+            UserVO userVO = UserConverter.toVO(user);
+            requireRevalidation(response, etag);
             return ApiResponse.success(userVO);
         } catch (Exception e) {
             log.error("获取用户信息失败", e);
@@ -228,21 +332,21 @@ public class SysUserController {
      * PUT /api/users/{id}
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
      *
      * @param id        用户ID
      * @param updateDTO 更新信息
      * @return 更新结果
      */
     @PutMapping("/{id}")
-    @PreAuthorize("isAuthenticated()")
+    @RequiresPermission
     public ApiResponse<UserVO> updateUser(@PathVariable Long id,
                                           @Valid @RequestBody UserUpdateDTO updateDTO) {
         log.info("更新用户信息: userId={}", id);
         
         try {
             SysUser user = userService.updateUser(id, updateDTO);
-            UserVO userVO = convertToUserVO(user);
+            UserVO userVO = UserConverter.toVO(user);
             return ApiResponse.success(userVO);
         } catch (Exception e) {
             log.error("更新用户信息失败", e);
@@ -255,14 +359,14 @@ public class SysUserController {
      * PATCH /api/users/{id}/status
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
      *
      * @param id     用户ID
      * @param status 新状态
      * @return 更新结果
      */
     @PatchMapping("/{id}/status")
-    @PreAuthorize("isAuthenticated()")
+    @RequiresPermission
     public ApiResponse<Void> updateUserStatus(
             @PathVariable Long id,
             @RequestParam UserStatus status,
@@ -270,8 +374,8 @@ public class SysUserController {
         log.info("更新用户状态: userId={}, status={}", id, status);
         
         try {
-            // TODO: 从JWT token中获取操作人ID
-            Long updateBy = 1L;
+            // 操作人ID从认证上下文获取
+            Long updateBy = getOperatorId(request);
             
             boolean success = userService.updateUserStatus(id, status, updateBy);
             if (success) {
@@ -290,30 +394,32 @@ public class SysUserController {
      * PATCH /api/users/batch/status
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
      *
      * @param userIds 用户ID列表
      * @param status  新状态
      * @return 更新结果
      */
     @PatchMapping("/batch/status")
-    @PreAuthorize("isAuthenticated()")
-    public ApiResponse<Map<String, Integer>> batchUpdateStatus(
+    @RequiresPermission
+    public ApiResponse<CountResultVO> batchUpdateStatus(
             @RequestBody List<Long> userIds,
             @RequestParam UserStatus status,
             HttpServletRequest request) {
         log.info("批量更新用户状态: userIds={}, status={}", userIds, status);
         
         try {
-            // TODO: 从JWT token中获取操作人ID
-            Long updateBy = 1L;
-            
-            int count = userService.batchUpdateStatus(userIds, status, updateBy);
+            // 操作人ID从认证上下文获取
+            Long updateBy = getOperatorId(request);
             
-            Map<String, Integer> result = new HashMap<>();
-            result.put("count", count);
+            // 批量操作在隔离舱内执行，限制同时占用的数据库连接
+            int count = dbBulkheads.adminBatch().call(
+                () -> userService.batchUpdateStatus(userIds, status, updateBy));
             
-            return ApiResponse.success(result);
+            return ApiResponse.success(new CountResultVO(count));
+        } catch (BulkheadFullException e) {
+            log.warn("批量更新用户状态繁忙，隔离舱: {}", e.getBulkheadName());
+            return ApiResponse.error(e.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("批量更新用户状态失败", e);
             return ApiResponse.error(500, "批量更新用户状态失败: " + e.getMessage());
@@ -325,19 +431,19 @@ public class SysUserController {
      * DELETE /api/users/{id}
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
      *
      * @param id 用户ID
      * @return 删除结果
      */
     @DeleteMapping("/{id}")
-    @PreAuthorize("isAuthenticated()")
+    @RequiresPermission
     public ApiResponse<Void> deleteUser(@PathVariable Long id, HttpServletRequest request) {
         log.info("删除用户: userId={}", id);
         
         try {
-            // TODO: 从JWT token中获取操作人ID
-            Long deleteBy = 1L;
+            // 操作人ID从认证上下文获取
+            Long deleteBy = getOperatorId(request);
             
             boolean success = userService.deleteUser(id, deleteBy);
             if (success) {
@@ -356,28 +462,29 @@ public class SysUserController {
      * DELETE /api/users/batch
      * 
      * 遵循：安全规范-需要认证的接口配置
-     * 使用@PreAuthorize("isAuthenticated()")确保用户已认证
+     * 使用@RequiresPermission确保用户已认证（按方法预编译，不执行SpEL）
      *
      * @param userIds 用户ID列表
      * @return 删除结果
      */
     @DeleteMapping("/batch")
-    @PreAuthorize("isAuthenticated()")
-    public ApiResponse<Map<String, Integer>> batchDeleteUsers(
+    @RequiresPermission
+    public ApiResponse<CountResultVO> batchDeleteUsers(
             @RequestBody List<Long> userIds,
             HttpServletRequest request) {
         log.info("批量删除用户: userIds={}", userIds);
         
         try {
-            // TODO: 从JWT token中获取操作人ID
-            Long deleteBy = 1L;
+            // 操作人ID从认证上下文获取
+            Long deleteBy = getOperatorId(request);
             
-            int count = userService.batchDeleteUsers(userIds, deleteBy);
+            int count = dbBulkheads.adminBatch().call(
+                () -> userService.batchDeleteUsers(userIds, deleteBy));
             
-            Map<String, Integer> result = new HashMap<>();
-            result.put("count", count);
-            
-            return ApiResponse.success(result);
+            return ApiResponse.success(new CountResultVO(count));
+        } catch (BulkheadFullException e) {
+            log.warn("批量删除用户繁忙，隔离舱: {}", e.getBulkheadName());
+            return ApiResponse.error(e.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("批量删除用户失败", e);
             return ApiResponse.error(500, "批量删除用户失败: " + e.getMessage());
@@ -395,15 +502,12 @@ public class SysUserController {
      * @return 检查结果
      */
     @GetMapping("/check/username")
-    public ApiResponse<Map<String, Boolean>> checkUsername(
+    public ApiResponse<ExistsResultVO> checkUsername(
             @RequestParam String username) {
         
         boolean exists = userService.existsByUsername(username);
         
-        Map<String, Boolean> result = new HashMap<>();
-        result.put("exists", exists);
-        
-        return ApiResponse.success(result);
+        return ApiResponse.success(ExistsResultVO.of(exists));
     }
 
     /**
@@ -418,16 +522,13 @@ public class SysUserController {
      * @return 检查结果
      */
     @GetMapping("/check/email")
-    public ApiResponse<Map<String, Boolean>> checkEmail(
+    public ApiResponse<ExistsResultVO> checkEmail(
             @RequestParam String email,
             @RequestParam(required = false) Long excludeUserId) {
         
         boolean exists = userService.existsByEmail(email, excludeUserId);
         
-        Map<String, Boolean> result = new HashMap<>();
-        result.put("exists", exists);
-        
-        return ApiResponse.success(result);
+        return ApiResponse.success(ExistsResultVO.of(exists));
     }
 
     /**
@@ -442,39 +543,59 @@ public class SysUserController {
      * @return 检查结果
      */
     @GetMapping("/check/phone")
-    public ApiResponse<Map<String, Boolean>> checkPhone(
+    public ApiResponse<ExistsResultVO> checkPhone(
             @RequestParam String phone,
             @RequestParam(required = false) Long excludeUserId) {
         
         boolean exists = userService.existsByPhone(phone, excludeUserId);
         
-        Map<String, Boolean> result = new HashMap<>();
-        result.put("exists", exists);
-        
-        return ApiResponse.success(result);
+        return ApiResponse.success(ExistsResultVO.of(exists));
     }
 
     /**
-     * 将SysUser实体转换为UserVO
-     * 隐藏敏感信息，转换状态枚举
+     * 获取当前操作人ID
+     * <p>
+     * 从认证过滤器填充的AuthContext读取，未经过JWT认证（如测试中的模拟用户）时使用系统用户
      *
-     * @param user 用户实体
-     * @return 用户VO
+     * @param request HTTP请求
+     * @return 操作人ID
      */
-    private UserVO convertToUserVO(SysUser user) {
-        if (user == null) {
-            return null;
+    private Long getOperatorId(HttpServletRequest request) {
+        AuthContext authContext = AuthContext.from(request);
+        if (authContext != null && authContext.getUser() != null) {
+            return authContext.getUser().getId();
         }
-        
-        UserVO userVO = new UserVO();
-        BeanUtils.copyProperties(user, userVO);
-        
-        // 转换状态枚举
-        if (user.getStatus() != null) {
-            userVO.setStatus(user.getStatus().ordinal());
+        return 1L;
+    }
+
+    /**
+     * 用户列表的ETag
+     * <p>
+     * 按部门查询时只依赖相关部门的版本号，其他部门的用户修改不会使其失效；
+     * 包含下级部门时还依赖部门表的版本号（部门树变化会改变查询范围）
+     */
+    private String userListETag(Long departmentId, boolean includeChildren) {
+        if (departmentId == null) {
+            return includeChildren
+                ? tableVersions.weakETag(TableVersionRegistry.SYS_USER, TableVersionRegistry.SYS_DEPARTMENT)
+                : tableVersions.weakETag(TableVersionRegistry.SYS_USER);
+        }
+        if (!includeChildren) {
+            return tableVersions.weakDepartmentETag(TableVersionRegistry.SYS_USER, List.of(departmentId));
+        }
+        return tableVersions.weakDepartmentETag(TableVersionRegistry.SYS_USER,
+            departmentService.getDescendantIds(departmentId, true), TableVersionRegistry.SYS_DEPARTMENT);
+    }
+
+    /**
+     * 允许浏览器保存响应，但每次使用前必须用ETag重新验证
+     * <p>
+     * 只在成功响应上设置；出错或未生成ETag的响应保持默认的no-store，不会被缓存
+     */
+    private static void requireRevalidation(HttpServletResponse response, String etag) {
+        if (etag != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
         }
-        
-        return userVO;
     }
 
     /**
@@ -483,7 +604,7 @@ public class SysUserController {
      * @param request HTTP请求
      * @return IP地址
      */
-    private String getClientIpAddress(HttpServletRequest request) {
+    static String getClientIpAddress(HttpServletRequest request) {
         String ip = request.getHeader("X-Forwarded-For");
         if (ip == null || ip.isEmpty() || "unknown".equalsIgnoreCase(ip)) {
             ip = request.getHeader("Proxy-Client-IP");
@@ -0,0 +1,26 @@
+package com.haocai.management.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 只读数据访问标记
+ * <p>
+ * 标注在Mapper方法或接口上，启用读写分离（datasource.routing.enabled=true）时，
+ * 不在读写事务中的调用路由到从库；未启用读写分离时没有任何效果。
+ * <p>
+ * 以下情况仍然访问主库：
+ * - 已处于读写事务中（复用事务绑定的主库连接）
+ * - 当前用户刚修改过数据（读己之写粘滞窗口内）
+ * - 没有延迟在阈值内的从库
+ * <p>
+ * 业务方法使用@Transactional(readOnly = true)可达到同样效果。
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
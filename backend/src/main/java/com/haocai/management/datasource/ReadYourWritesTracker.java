@@ -0,0 +1,75 @@
+package com.haocai.management.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 读己之写粘滞跟踪
+ * <p>
+ * 用户修改数据后的一段时间内（粘滞窗口），其只读查询仍访问主库，
+ * 避免从库复制延迟导致用户看不到自己刚做的修改（如修改后立即刷新用户列表）。
+ * <p>
+ * 粘滞窗口应不小于从库允许的最大延迟；未启用读写分离时只登记，不影响路由。
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    /**
+     * 用户ID -> 粘滞截止时间（System.nanoTime）
+     */
+    private final Map<Long, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    /**
+     * 粘滞窗口（纳秒）
+     */
+    private final long windowNanos;
+
+    public ReadYourWritesTracker(@Value("${datasource.routing.sticky-window:5000}") long windowMillis) {
+        this.windowNanos = windowMillis * 1_000_000L;
+    }
+
+    /**
+     * 登记用户刚刚修改了数据
+     *
+     * @param userId 用户ID，为null时忽略
+     */
+    public void markWrite(Long userId) {
+        if (userId != null && windowNanos > 0) {
+            stickyUntil.put(userId, System.nanoTime() + windowNanos);
+        }
+    }
+
+    /**
+     * 用户是否处于粘滞窗口内
+     *
+     * @param userId 用户ID
+     * @return true-只读查询也应访问主库
+     */
+    public boolean isSticky(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(userId);
+        if (until == null) {
+            return false;
+        }
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+        stickyUntil.remove(userId, until);
+        return false;
+    }
+
+    /**
+     * 定期清理已过期的粘滞记录
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+}
@@ -0,0 +1,96 @@
+package com.haocai.management.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 从库延迟监控
+ * <p>
+ * 定期查询每个从库的复制延迟：
+ * - 延迟超过阈值、复制中断（延迟为NULL）或连接失败时，把从库移出只读路由
+ * - 恢复正常后自动加回
+ * - 未配置复制的实例（本地多实例替身等）按延迟0处理
+ * <p>
+ * 延迟以db.replica.lag指标导出（秒，未知时为-1），标签replica为从库查找键
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    /**
+     * 允许的最大延迟（秒）
+     */
+    private final long maxLagSeconds;
+
+    /**
+     * 从库查找键 -> 最近一次检查的延迟（秒，-1表示未知）
+     */
+    private final Map<String, Long> lastLag = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagSeconds, MeterRegistry registry) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+        for (String replicaKey : routingDataSource.getReplicas().keySet()) {
+            lastLag.put(replicaKey, -1L);
+            Gauge.builder("db.replica.lag", lastLag, lags -> lags.getOrDefault(replicaKey, -1L))
+                    .description("从库复制延迟（秒），未知时为-1")
+                    .baseUnit("seconds")
+                    .tag("replica", replicaKey)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * 检查全部从库的延迟并更新可用状态
+     */
+    @Scheduled(fixedDelayString = "${datasource.routing.lag-check-interval:5000}")
+    public void checkReplicaLag() {
+        routingDataSource.getReplicas().forEach((replicaKey, dataSource) -> {
+            long lag = queryLagSeconds(replicaKey, dataSource);
+            lastLag.put(replicaKey, lag);
+            routingDataSource.setReplicaAvailable(replicaKey, lag >= 0 && lag <= maxLagSeconds);
+        });
+    }
+
+    /**
+     * 查询从库复制延迟
+     *
+     * @return 延迟秒数，复制中断或查询失败时返回-1
+     */
+    long queryLagSeconds(String replicaKey, DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try {
+                return readLag(statement, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+            } catch (SQLException e) {
+                // MySQL 8.0.22之前的版本只支持旧语法
+                return readLag(statement, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+            }
+        } catch (SQLException e) {
+            log.warn("从库{}延迟查询失败: {}", replicaKey, e.getMessage());
+            return -1;
+        }
+    }
+
+    private static long readLag(Statement statement, String sql, String column) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery(sql)) {
+            if (!resultSet.next()) {
+                // 未配置复制的实例
+                return 0;
+            }
+            long lag = resultSet.getLong(column);
+            return resultSet.wasNull() ? -1 : lag;
+        }
+    }
+}
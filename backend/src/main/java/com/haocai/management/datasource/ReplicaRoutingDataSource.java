@@ -0,0 +1,111 @@
+package com.haocai.management.datasource;
+
+import com.haocai.management.security.AuthContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 读写分离路由数据源
+ * <p>
+ * 路由规则（每次获取连接时判断）：
+ * 1. 非只读操作访问主库，读写事务中的@ReadOnly查询也访问主库（见RoutingContext）
+ * 2. 当前用户处于读己之写粘滞窗口内，访问主库
+ * 3. 在延迟正常的从库之间轮询；没有可用从库时回退到主库
+ * <p>
+ * 注意：必须包装在LazyConnectionDataSourceProxy中使用，
+ * 事务管理器在开启事务时就获取连接，此时事务的只读标记尚未设置，
+ * 延迟到第一条语句执行时再获取连接才能看到只读标记
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * 主库的查找键
+     */
+    public static final String PRIMARY = "primary";
+
+    /**
+     * 从库（查找键 -> 数据源），保持配置顺序
+     */
+    private final Map<String, DataSource> replicas;
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * 当前可用（延迟在阈值内）的从库查找键
+     */
+    private volatile List<String> availableReplicas;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.availableReplicas = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!RoutingContext.isReadOnly() || readYourWritesTracker.isSticky(AuthContext.currentUserId())) {
+            return PRIMARY;
+        }
+        List<String> available = availableReplicas;
+        if (available.isEmpty()) {
+            return PRIMARY;
+        }
+        return available.get(Math.floorMod(nextReplica.getAndIncrement(), available.size()));
+    }
+
+    /**
+     * 更新从库可用状态
+     *
+     * @param replicaKey 从库查找键
+     * @param available true-延迟在阈值内，可以承接只读查询
+     */
+    public synchronized void setReplicaAvailable(String replicaKey, boolean available) {
+        if (!replicas.containsKey(replicaKey) || available == availableReplicas.contains(replicaKey)) {
+            return;
+        }
+        List<String> updated = new ArrayList<>();
+        for (String key : replicas.keySet()) {
+            boolean keep = key.equals(replicaKey) ? available : availableReplicas.contains(key);
+            if (keep) {
+                updated.add(key);
+            }
+        }
+        availableReplicas = List.copyOf(updated);
+        log.warn("从库{}已{}只读路由，当前可用从库: {}", replicaKey, available ? "恢复" : "移出", updated);
+    }
+
+    /**
+     * 获取全部从库
+     *
+     * @return 从库查找键 -> 数据源（只读）
+     */
+    public Map<String, DataSource> getReplicas() {
+        return Map.copyOf(replicas);
+    }
+
+    /**
+     * 获取当前可用的从库查找键
+     */
+    public List<String> getAvailableReplicas() {
+        return availableReplicas;
+    }
+}
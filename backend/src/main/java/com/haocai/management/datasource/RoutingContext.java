@@ -0,0 +1,57 @@
+package com.haocai.management.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 数据源路由上下文
+ * <p>
+ * 以线程为单位记录当前是否处于@ReadOnly方法中，支持嵌套调用；
+ * 与事务的只读标记一起决定本次获取连接是否可以使用从库：
+ * - 读写事务中一律不使用从库，@ReadOnly查询也不例外。事务的连接在第一条语句执行时获取，
+ *   写入前的检查查询（如注册时的用户名查重）如果走从库，整个事务都会绑定到从库
+ * - 只读事务中使用从库
+ * - 事务之外由@ReadOnly决定
+ */
+public final class RoutingContext {
+
+    /**
+     * 当前线程所处的@ReadOnly方法嵌套层数
+     */
+    private static final ThreadLocal<int[]> READ_ONLY_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private RoutingContext() {
+    }
+
+    /**
+     * 进入只读方法
+     */
+    public static void enterReadOnly() {
+        READ_ONLY_DEPTH.get()[0]++;
+    }
+
+    /**
+     * 离开只读方法
+     */
+    public static void exitReadOnly() {
+        int[] depth = READ_ONLY_DEPTH.get();
+        if (--depth[0] <= 0) {
+            READ_ONLY_DEPTH.remove();
+        }
+    }
+
+    /**
+     * 当前获取连接的操作是否只读
+     *
+     * @return true-处于只读事务中，或在事务之外处于@ReadOnly方法中
+     */
+    public static boolean isReadOnly() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return true;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 读写事务中的语句共用事务的主库连接
+            return false;
+        }
+        return READ_ONLY_DEPTH.get()[0] > 0;
+    }
+}
@@ -0,0 +1,11 @@
+package com.haocai.management.dto;
+
+/**
+ * 批量操作响应
+ *
+ * @param count 受影响的记录数
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+public record CountResultVO(int count) {
+}
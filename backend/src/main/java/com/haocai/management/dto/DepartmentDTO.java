@@ -0,0 +1,43 @@
+package com.haocai.management.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+/**
+ * 部门新增/修改请求DTO
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+public class DepartmentDTO {
+
+    /**
+     * 部门名称
+     */
+    @NotBlank(message = "部门名称不能为空")
+    @Size(max = 100, message = "部门名称长度不能超过100个字符")
+    private String name;
+
+    /**
+     * 部门编码（唯一，可选）
+     */
+    @Size(max = 50, message = "部门编码长度不能超过50个字符")
+    private String code;
+
+    /**
+     * 父部门ID，为空表示顶级部门
+     */
+    private Long parentId;
+
+    /**
+     * 排序（默认0）
+     */
+    private Integer sortOrder;
+
+    /**
+     * 状态：1正常 0禁用（默认1）
+     */
+    private Integer status;
+}
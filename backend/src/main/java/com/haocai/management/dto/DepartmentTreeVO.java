@@ -0,0 +1,61 @@
+package com.haocai.management.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 部门树节点响应VO
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+public class DepartmentTreeVO {
+
+    /**
+     * 部门ID
+     */
+    private Long id;
+
+    /**
+     * 部门名称
+     */
+    private String name;
+
+    /**
+     * 部门编码
+     */
+    private String code;
+
+    /**
+     * 父部门ID
+     */
+    private Long parentId;
+
+    /**
+     * 部门层级
+     */
+    private Integer level;
+
+    /**
+     * 排序
+     */
+    private Integer sortOrder;
+
+    /**
+     * 状态：1正常 0禁用
+     */
+    private Integer status;
+
+    /**
+     * 物化路径，如/1/3/7/
+     */
+    private String path;
+
+    /**
+     * 子部门
+     */
+    private List<DepartmentTreeVO> children = new ArrayList<>();
+}
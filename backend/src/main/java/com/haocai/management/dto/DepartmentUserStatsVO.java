@@ -0,0 +1,38 @@
+package com.haocai.management.dto;
+
+import lombok.Data;
+
+/**
+ * 部门用户统计响应VO
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+public class DepartmentUserStatsVO {
+
+    /**
+     * 部门ID
+     */
+    private Long departmentId;
+
+    /**
+     * 部门名称（部门不在部门树中时为null）
+     */
+    private String departmentName;
+
+    /**
+     * 上级部门ID
+     */
+    private Long parentId;
+
+    /**
+     * 部门本身的用户数
+     */
+    private Long userCount;
+
+    /**
+     * 部门及其全部下级部门的用户数
+     */
+    private Long totalUserCount;
+}
@@ -0,0 +1,25 @@
+package com.haocai.management.dto;
+
+/**
+ * 唯一性检查响应
+ *
+ * @param exists 是否已存在
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+public record ExistsResultVO(boolean exists) {
+
+    private static final ExistsResultVO EXISTS = new ExistsResultVO(true);
+
+    private static final ExistsResultVO NOT_EXISTS = new ExistsResultVO(false);
+
+    /**
+     * 获取共享实例，不为每次检查分配对象
+     *
+     * @param exists 是否已存在
+     * @return 检查结果
+     */
+    public static ExistsResultVO of(boolean exists) {
+        return exists ? EXISTS : NOT_EXISTS;
+    }
+}
@@ -0,0 +1,14 @@
+package com.haocai.management.dto;
+
+/**
+ * 登录成功响应
+ *
+ * @param token        access token，短期有效，用于访问需要认证的接口
+ * @param refreshToken refresh token，用于续期
+ * @param expiresIn    access token有效期（秒）
+ * @param user         当前用户信息
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+public record LoginResultVO(String token, String refreshToken, long expiresIn, UserVO user) {
+}
@@ -0,0 +1,36 @@
+package com.haocai.management.dto;
+
+import com.baomidou.mybatisplus.core.metadata.IPage;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 分页查询响应
+ * JSON字段与原先的分页Map一致：records、total、current、size、pages
+ *
+ * @param records 当前页数据
+ * @param total   总记录数
+ * @param current 当前页码
+ * @param size    每页大小
+ * @param pages   总页数
+ * @param <T>     记录类型
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+public record PageResult<T>(List<T> records, long total, long current, long size, long pages) {
+
+    /**
+     * 由MyBatis-Plus分页结果转换
+     *
+     * @param page      分页结果
+     * @param converter 记录转换函数
+     * @param <S>       实体类型
+     * @param <T>       记录类型
+     * @return 分页响应
+     */
+    public static <S, T> PageResult<T> of(IPage<S> page, Function<? super S, ? extends T> converter) {
+        List<T> records = page.getRecords().stream().<T>map(converter).toList();
+        return new PageResult<>(records, page.getTotal(), page.getCurrent(), page.getSize(), page.getPages());
+    }
+}
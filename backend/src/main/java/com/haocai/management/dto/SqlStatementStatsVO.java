@@ -0,0 +1,84 @@
+package com.haocai.management.dto;
+
+import lombok.Data;
+
+/**
+ * SQL语句统计响应VO
+ * 耗时单位为微秒，分位数按对数分桶估算（返回所在桶的上界）
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+public class SqlStatementStatsVO {
+
+    /**
+     * 语句ID（Mapper全限定名.方法名）
+     */
+    private String statementId;
+
+    /**
+     * 执行成功次数
+     */
+    private Long count;
+
+    /**
+     * 慢SQL次数
+     */
+    private Long slowCount;
+
+    /**
+     * 最近一次慢SQL所属的请求ID
+     */
+    private String lastSlowRequestId;
+
+    /**
+     * 执行失败次数（不计入执行次数和耗时统计）
+     */
+    private Long errorCount;
+
+    /**
+     * 最近一次执行失败所属的请求ID
+     */
+    private String lastErrorRequestId;
+
+    /**
+     * 总耗时（微秒）
+     */
+    private Long totalMicros;
+
+    /**
+     * 平均耗时（微秒）
+     */
+    private Long avgMicros;
+
+    /**
+     * 最大耗时（微秒）
+     */
+    private Long maxMicros;
+
+    /**
+     * 耗时中位数（微秒）
+     */
+    private Long p50Micros;
+
+    /**
+     * 耗时95分位（微秒）
+     */
+    private Long p95Micros;
+
+    /**
+     * 耗时99分位（微秒）
+     */
+    private Long p99Micros;
+
+    /**
+     * 平均行数（查询返回行数或更新影响行数）
+     */
+    private Long avgRows;
+
+    /**
+     * 行数99分位
+     */
+    private Long p99Rows;
+}
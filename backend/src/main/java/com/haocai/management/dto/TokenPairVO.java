@@ -0,0 +1,35 @@
+package com.haocai.management.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * token对响应VO
+ * 续期成功后返回新的access token和refresh token
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenPairVO {
+
+    /**
+     * access token
+     * 短期有效，用于访问需要认证的接口
+     */
+    private String token;
+
+    /**
+     * refresh token
+     * 用于下一次续期，旧的refresh token已失效
+     */
+    private String refreshToken;
+
+    /**
+     * access token有效期（秒）
+     */
+    private Long expiresIn;
+}
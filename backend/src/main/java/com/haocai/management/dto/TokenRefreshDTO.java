@@ -0,0 +1,22 @@
+package com.haocai.management.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+
+/**
+ * token续期请求DTO
+ * 用于接收客户端提交的refresh token
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+public class TokenRefreshDTO {
+
+    /**
+     * refresh token
+     * 登录或上一次续期时获得，只能使用一次
+     */
+    @NotBlank(message = "refresh token不能为空")
+    private String refreshToken;
+}
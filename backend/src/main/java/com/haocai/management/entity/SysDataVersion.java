@@ -0,0 +1,39 @@
+package com.haocai.management.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableField;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 数据版本实体类
+ * 用于映射数据库中的sys_data_version表，各节点通过该表互相通知数据表版本号的变化
+ *
+ * @author 系统开发团队
+ * @since 2026-01-08
+ */
+@Data
+@TableName("sys_data_version")
+public class SysDataVersion {
+
+    /**
+     * 版本键：表名、“表名:部门ID”或“表名:”（未分配部门的数据）
+     */
+    @TableId(value = "version_key", type = IdType.INPUT)
+    private String versionKey;
+
+    /**
+     * 版本号，每次发布递增
+     */
+    @TableField("version")
+    private Long version;
+
+    /**
+     * 更新时间
+     */
+    @TableField("update_time")
+    private LocalDateTime updateTime;
+}
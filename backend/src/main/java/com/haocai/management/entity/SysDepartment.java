@@ -0,0 +1,77 @@
+package com.haocai.management.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 部门实体类
+ * 用于映射数据库中的sys_department表，部门之间通过parent_id构成树形结构
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+@TableName("sys_department")
+public class SysDepartment {
+
+    /**
+     * 正常状态
+     */
+    public static final int STATUS_NORMAL = 1;
+
+    /**
+     * 部门ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 部门名称
+     */
+    @TableField("name")
+    private String name;
+
+    /**
+     * 部门编码（唯一）
+     */
+    @TableField("code")
+    private String code;
+
+    /**
+     * 父部门ID，顶级部门为null
+     */
+    @TableField("parent_id")
+    private Long parentId;
+
+    /**
+     * 部门层级，顶级部门为1
+     */
+    @TableField("level")
+    private Integer level;
+
+    /**
+     * 排序
+     */
+    @TableField("sort_order")
+    private Integer sortOrder;
+
+    /**
+     * 状态：1正常 0禁用
+     */
+    @TableField("status")
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
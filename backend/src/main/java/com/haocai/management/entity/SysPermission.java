@@ -0,0 +1,95 @@
+package com.haocai.management.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 权限实体类
+ * 用于映射数据库中的sys_permission表，包含菜单、按钮和接口权限
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+@TableName("sys_permission")
+public class SysPermission {
+
+    /**
+     * 正常状态
+     */
+    public static final int STATUS_NORMAL = 1;
+
+    /**
+     * 权限ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 权限名称
+     */
+    @TableField("name")
+    private String name;
+
+    /**
+     * 权限编码（唯一），如system:user
+     */
+    @TableField("code")
+    private String code;
+
+    /**
+     * 权限类型：menu/button/api
+     */
+    @TableField("type")
+    private String type;
+
+    /**
+     * 父权限ID
+     */
+    @TableField("parent_id")
+    private Long parentId;
+
+    /**
+     * 路由路径
+     */
+    @TableField("path")
+    private String path;
+
+    /**
+     * 组件路径
+     */
+    @TableField("component")
+    private String component;
+
+    /**
+     * 图标
+     */
+    @TableField("icon")
+    private String icon;
+
+    /**
+     * 排序
+     */
+    @TableField("sort_order")
+    private Integer sortOrder;
+
+    /**
+     * 状态：1正常 0禁用
+     */
+    @TableField("status")
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
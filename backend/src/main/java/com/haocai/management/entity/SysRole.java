@@ -0,0 +1,65 @@
+package com.haocai.management.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 角色实体类
+ * 用于映射数据库中的sys_role表
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+@TableName("sys_role")
+public class SysRole {
+
+    /**
+     * 正常状态
+     */
+    public static final int STATUS_NORMAL = 1;
+
+    /**
+     * 角色ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 角色名称
+     */
+    @TableField("name")
+    private String name;
+
+    /**
+     * 角色编码（唯一），授权时映射为ROLE_编码
+     */
+    @TableField("code")
+    private String code;
+
+    /**
+     * 角色描述
+     */
+    @TableField("description")
+    private String description;
+
+    /**
+     * 状态：1正常 0禁用
+     */
+    @TableField("status")
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    @TableField(value = "update_time", fill = FieldFill.INSERT_UPDATE)
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,42 @@
+package com.haocai.management.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 角色权限关联实体类
+ * 用于映射数据库中的sys_role_permission表
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+@Data
+@TableName("sys_role_permission")
+public class SysRolePermission {
+
+    /**
+     * 关联ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 角色ID
+     */
+    @TableField("role_id")
+    private Long roleId;
+
+    /**
+     * 权限ID
+     */
+    @TableField("permission_id")
+    private Long permissionId;
+
+    /**
+     * 创建时间
+     */
+    @TableField(value = "create_time", fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
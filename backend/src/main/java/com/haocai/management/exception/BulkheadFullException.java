@@ -0,0 +1,30 @@
+package com.haocai.management.exception;
+
+/**
+ * 隔离舱已满异常
+ * 在限定时间内未获得数据库访问许可时抛出，调用方应返回503提示客户端稍后重试
+ *
+ * @author 系统开发团队
+ * @since 2026-01-07
+ */
+public class BulkheadFullException extends BusinessException {
+
+    /**
+     * 错误码（与HTTP 503一致）
+     */
+    public static final int CODE = 503;
+
+    /**
+     * 隔离舱名称
+     */
+    private final String bulkheadName;
+
+    public BulkheadFullException(String bulkheadName) {
+        super(CODE, "系统繁忙，请稍后重试");
+        this.bulkheadName = bulkheadName;
+    }
+
+    public String getBulkheadName() {
+        return bulkheadName;
+    }
+}
@@ -0,0 +1,206 @@
+package com.haocai.management.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haocai.management.common.AdaptiveConcurrencyLimiter;
+import com.haocai.management.common.ApiResponse;
+import com.haocai.management.config.ConcurrencyLimiters;
+import com.haocai.management.security.PublicEndpoints;
+import com.haocai.management.security.PublicRouteMatcher;
+import com.haocai.management.timing.RequestTiming;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * 并发限制过滤器（过载保护）
+ * <p>
+ * 功能说明：
+ * 1. 按路由组（auth、reads、admin-batch）占用ConcurrencyLimiters中的并发名额，其他请求不受限制
+ * 2. 超出限制的请求直接返回503和统一的ApiResponse，并带Retry-After头，不进入认证和业务处理
+ * 3. 请求结束后按耗时和是否失败调整该组的限制；异步请求在异步处理完成后才释放名额。
+ *    失败包括抛出异常、HTTP状态码≥500，以及处理中出现过载信号（RequestTiming.isOverloaded）：
+ *    控制器把数据库连接失败和隔离舱已满转换成HTTP 200的ApiResponse，只看状态码会把它们算作成功
+ * <p>
+ * 设计说明：
+ * - 注册在Spring Security过滤链中CORS之后、JwtAuthenticationFilter之前：
+ *   被拒绝的请求不会在认证时查询用户，跨域请求也能读到503响应
+ * - 路由分组只做字符串比较，不匹配路径模式；比较的是与安全配置相同的应用内解码路径，
+ *   编码或带分号参数的路径（如/api/users/%6cogin）与原路径归入同一组
+ * - request.limit.enabled=false时跳过全部请求
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * 认证路由组中按完整路径匹配的接口
+     */
+    private static final Set<String> AUTH_PATHS = Set.of(
+            "/api/users/login",
+            "/api/users/register",
+            "/api/users/token/refresh",
+            "/api/async/users/login"
+    );
+
+    /**
+     * 认证路由组中按前缀匹配的接口（唯一性检查）
+     */
+    private static final String[] AUTH_PREFIXES = {"/api/users/check/", "/api/async/users/check/"};
+
+    /**
+     * 管理员批量操作路由前缀
+     */
+    private static final String ADMIN_BATCH_PATH = "/api/users/batch";
+
+    /**
+     * 被拒绝的请求建议的重试间隔（秒）
+     */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    @Autowired
+    private ConcurrencyLimiters limiters;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${request.limit.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = select(request);
+        if (limiter == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire()) {
+            reject(request, response, limiter);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseListener(limiter, start, request, response));
+            } else {
+                limiter.release(System.nanoTime() - start, failed || isFailed(request, response));
+            }
+        }
+    }
+
+    /**
+     * 已正常返回的请求是否计为失败：服务端错误状态码，或处理中出现过载信号
+     */
+    private static boolean isFailed(HttpServletRequest request, HttpServletResponse response) {
+        if (response.getStatus() >= HttpServletResponse.SC_INTERNAL_SERVER_ERROR) {
+            return true;
+        }
+        RequestTiming timing = RequestTiming.of(request);
+        return timing != null && timing.isOverloaded();
+    }
+
+    /**
+     * 确定请求所属的路由组
+     *
+     * @return 并发限制器，不属于任何路由组时返回null
+     */
+    private AdaptiveConcurrencyLimiter select(HttpServletRequest request) {
+        String path = PublicRouteMatcher.pathWithinApplication(request);
+        if (!path.startsWith(PublicEndpoints.PROTECTED_PREFIX)) {
+            return null;
+        }
+        if (AUTH_PATHS.contains(path)) {
+            return limiters.auth();
+        }
+        for (String prefix : AUTH_PREFIXES) {
+            if (path.startsWith(prefix)) {
+                return limiters.auth();
+            }
+        }
+        if (path.startsWith(ADMIN_BATCH_PATH)
+                && (path.length() == ADMIN_BATCH_PATH.length() || path.charAt(ADMIN_BATCH_PATH.length()) == '/')) {
+            return limiters.adminBatch();
+        }
+        if ("GET".equals(request.getMethod())) {
+            return limiters.reads();
+        }
+        return null;
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        AdaptiveConcurrencyLimiter limiter) throws IOException {
+        log.debug("超出并发限制，拒绝请求 - 路由组: {}, 限制: {}, 路径: {}",
+                limiter.getName(), limiter.getLimit(), request.getRequestURI());
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ApiResponse<Object> apiResponse = ApiResponse.error(HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+                "系统繁忙，请稍后重试");
+        response.getWriter().write(objectMapper.writeValueAsString(apiResponse));
+    }
+
+    /**
+     * 异步请求结束时释放名额（超时和出错后仍会收到完成事件，在完成事件中统一释放）
+     */
+    private static final class ReleaseListener implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final long start;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private volatile boolean failed;
+
+        ReleaseListener(AdaptiveConcurrencyLimiter limiter, long start,
+                        HttpServletRequest request, HttpServletResponse response) {
+            this.limiter = limiter;
+            this.start = start;
+            this.request = request;
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            limiter.release(System.nanoTime() - start, failed || isFailed(request, response));
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
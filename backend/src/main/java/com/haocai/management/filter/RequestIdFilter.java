@@ -0,0 +1,72 @@
+package com.haocai.management.filter;
+
+import com.haocai.management.common.RequestIdGenerator;
+import com.haocai.management.common.RequestIds;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * 请求ID过滤器
+ * <p>
+ * 功能说明：
+ * 1. 作为第一个过滤器为请求分配ID：上游（网关、前端）通过X-Request-Id传入合法ID时沿用，否则生成新ID
+ * 2. 请求ID写入MDC、请求属性和X-Request-Id响应头
+ * 3. 请求结束后清理MDC，避免线程复用时串到下一个请求
+ * <p>
+ * 节点ID优先使用request.id.node-id配置，未配置时由HOSTNAME环境变量派生，都没有时随机生成
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestIdFilter extends OncePerRequestFilter {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = RequestIds.MDC_KEY;
+
+    private final RequestIdGenerator generator;
+
+    public RequestIdFilter(@Value("${request.id.node-id:}") String nodeId) {
+        if (!StringUtils.hasText(nodeId)) {
+            String hostname = System.getenv("HOSTNAME");
+            nodeId = RequestIdGenerator.deriveNodeId(
+                    StringUtils.hasText(hostname) ? hostname : UUID.randomUUID().toString());
+        } else if (!RequestIds.isValid(nodeId)) {
+            throw new IllegalArgumentException("request.id.node-id无效（只能包含字母、数字和.-_）: " + nodeId);
+        }
+        this.generator = RequestIdGenerator.startingNow(nodeId);
+        log.info("请求ID节点标识: {}", nodeId);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String requestId = request.getHeader(RequestIds.HEADER);
+        if (!RequestIds.isValid(requestId)) {
+            requestId = generator.next();
+        }
+        MDC.put(RequestIds.MDC_KEY, requestId);
+        request.setAttribute(REQUEST_ATTRIBUTE, requestId);
+        response.setHeader(RequestIds.HEADER, requestId);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            MDC.remove(RequestIds.MDC_KEY);
+        }
+    }
+}
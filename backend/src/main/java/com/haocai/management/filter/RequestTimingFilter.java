@@ -0,0 +1,119 @@
+package com.haocai.management.filter;
+
+import com.haocai.management.timing.RequestPhase;
+import com.haocai.management.timing.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求分阶段计时过滤器
+ * <p>
+ * 功能说明：
+ * 1. 在所有过滤器（包括Spring Security）之前为请求绑定RequestTiming
+ * 2. 请求结束后把执行过的阶段记录到计时器http.server.phase，标签为method、uri、phase
+ * 3. 请求总耗时由Spring Boot自带的http.server.requests记录，二者的uri标签一致，可在同一面板中对照
+ * <p>
+ * 设计说明：
+ * - uri标签取Spring MVC匹配到的路由模板（如/api/users/{id}），未匹配到路由时为UNKNOWN，避免标签数量随路径增长
+ * - 计时器按“方法 路由”缓存，每个请求只做一次哈希查找
+ * - 百分位直方图通过management.metrics.distribution.percentiles-histogram.http.server.phase开启
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    /**
+     * 计时器名称
+     */
+    public static final String METRIC_NAME = "http.server.phase";
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * “方法 路由” -> 各阶段计时器（按ordinal，首次执行该阶段时注册）
+     */
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestTiming timing = RequestTiming.bind(request);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming.unbind();
+            if (request.isAsyncStarted()) {
+                // 异步请求在异步处理完成后记录
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        record(request, timing);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                record(request, timing);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, RequestTiming timing) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String method = request.getMethod();
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Timer[] phaseTimers = timers.computeIfAbsent(method + " " + uri, key -> new Timer[PHASES.length]);
+        for (RequestPhase phase : PHASES) {
+            if (!timing.isExecuted(phase)) {
+                continue;
+            }
+            Timer timer = phaseTimers[phase.ordinal()];
+            if (timer == null) {
+                // 首次执行该阶段时才注册，并发注册时注册表返回同一个计时器
+                timer = register(method, uri, phase);
+                phaseTimers[phase.ordinal()] = timer;
+            }
+            timer.record(timing.getElapsed(phase), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer register(String method, String uri, RequestPhase phase) {
+        return Timer.builder(METRIC_NAME)
+                .description("请求各处理阶段耗时")
+                .tag("method", method)
+                .tag("uri", uri)
+                .tag("phase", phase.getTagValue())
+                .register(meterRegistry);
+    }
+}
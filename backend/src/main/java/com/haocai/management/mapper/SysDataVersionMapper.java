@@ -0,0 +1,24 @@
+package com.haocai.management.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.haocai.management.entity.SysDataVersion;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 数据版本数据访问层接口
+ */
+@Mapper
+public interface SysDataVersionMapper extends BaseMapper<SysDataVersion> {
+
+    /**
+     * 递增版本号，版本键不存在时插入
+     *
+     * @param versionKey 版本键
+     * @return 影响行数
+     */
+    @Insert("INSERT INTO sys_data_version (version_key, version, update_time) VALUES (#{versionKey}, 1, NOW())" +
+            " ON DUPLICATE KEY UPDATE version = version + 1, update_time = NOW()")
+    int increment(@Param("versionKey") String versionKey);
+}
@@ -0,0 +1,35 @@
+package com.haocai.management.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.haocai.management.entity.SysDepartment;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 部门数据访问层接口
+ */
+@Mapper
+public interface SysDepartmentMapper extends BaseMapper<SysDepartment> {
+
+    /**
+     * 统计部门下的用户数量（未删除）
+     * 删除部门前检查使用
+     *
+     * @param departmentId 部门ID
+     * @return 用户数量
+     */
+    @Select("SELECT COUNT(*) FROM sys_user WHERE department_id = #{departmentId} AND deleted = 0")
+    long countUsersByDepartmentId(@Param("departmentId") Long departmentId);
+
+    /**
+     * 查询部门表的变更指纹
+     * <p>
+     * 由行数、最大ID、ID之和和最大更新时间拼接而成，用于定期判断部门树快照是否需要重建
+     *
+     * @return 变更指纹
+     */
+    @Select("SELECT CONCAT(COUNT(*), ',', IFNULL(MAX(id), 0), ',', IFNULL(SUM(id), 0), ',', IFNULL(MAX(update_time), ''))" +
+            " FROM sys_department")
+    String selectFingerprint();
+}
@@ -0,0 +1,12 @@
+package com.haocai.management.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.haocai.management.entity.SysPermission;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 权限数据访问层接口
+ */
+@Mapper
+public interface SysPermissionMapper extends BaseMapper<SysPermission> {
+}
@@ -0,0 +1,28 @@
+package com.haocai.management.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.haocai.management.entity.SysRole;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 角色数据访问层接口
+ */
+@Mapper
+public interface SysRoleMapper extends BaseMapper<SysRole> {
+
+    /**
+     * 查询权限相关四张表的变更指纹
+     * <p>
+     * 由各表的行数、最大ID和最大更新时间拼接而成，任一表的行增删改都会改变指纹，
+     * 用于定期判断权限快照是否需要重建，只做一次轻量查询
+     *
+     * @return 变更指纹
+     */
+    @Select("SELECT CONCAT_WS('|'," +
+            " (SELECT CONCAT(COUNT(*), ',', IFNULL(MAX(id), 0), ',', IFNULL(MAX(update_time), '')) FROM sys_role)," +
+            " (SELECT CONCAT(COUNT(*), ',', IFNULL(MAX(id), 0), ',', IFNULL(MAX(update_time), '')) FROM sys_permission)," +
+            " (SELECT CONCAT(COUNT(*), ',', IFNULL(MAX(id), 0), ',', IFNULL(SUM(id), 0)) FROM sys_role_permission)," +
+            " (SELECT CONCAT(COUNT(*), ',', IFNULL(MAX(id), 0), ',', IFNULL(SUM(id), 0)) FROM sys_user_role))")
+    String selectAuthorityFingerprint();
+}
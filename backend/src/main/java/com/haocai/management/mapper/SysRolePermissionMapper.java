@@ -0,0 +1,12 @@
+package com.haocai.management.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.haocai.management.entity.SysRolePermission;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 角色权限关联数据访问层接口
+ */
+@Mapper
+public interface SysRolePermissionMapper extends BaseMapper<SysRolePermission> {
+}
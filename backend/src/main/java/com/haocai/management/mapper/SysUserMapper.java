@@ -3,18 +3,21 @@ package com.haocai.management.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.haocai.management.datasource.ReadOnly;
 import com.haocai.management.entity.SysUser;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * 用户数据访问层接口
  * 基于MyBatis-Plus的BaseMapper，提供基础CRUD操作
  * 并扩展自定义的用户查询方法
+ * 标注@ReadOnly的查询在启用读写分离时路由到从库；统计查询用于校准内存计数，始终读主库
  *
  * @author 系统开发团队
  * @since 2026-01-07
@@ -29,6 +32,7 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param username 用户名
      * @return 用户对象，不存在则返回null
      */
+    @ReadOnly
     @Select("SELECT * FROM sys_user WHERE username = #{username} AND deleted = 0")
     SysUser selectByUsername(@Param("username") String username);
 
@@ -39,6 +43,7 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param email 邮箱地址
      * @return 用户对象，不存在则返回null
      */
+    @ReadOnly
     @Select("SELECT * FROM sys_user WHERE email = #{email} AND deleted = 0")
     SysUser selectByEmail(@Param("email") String email);
 
@@ -49,6 +54,7 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param phone 手机号
      * @return 用户对象，不存在则返回null
      */
+    @ReadOnly
     @Select("SELECT * FROM sys_user WHERE phone = #{phone} AND deleted = 0")
     SysUser selectByPhone(@Param("phone") String phone);
 
@@ -59,6 +65,7 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param departmentId 部门ID
      * @return 用户列表
      */
+    @ReadOnly
     @Select("SELECT * FROM sys_user WHERE department_id = #{departmentId} AND deleted = 0 ORDER BY create_time DESC")
     List<SysUser> selectByDepartmentId(@Param("departmentId") Long departmentId);
 
@@ -71,40 +78,60 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param name 真实姓名关键词（可选）
      * @param status 用户状态（可选）
      * @param departmentId 部门ID（可选）
+     * @param departmentIds 部门ID集合（可选，部门及其下级部门；非空时忽略departmentId）
      * @return 分页结果
      */
+    @ReadOnly
     @Select("<script>" +
             "SELECT * FROM sys_user WHERE deleted = 0" +
             "<if test='username != null and username != \"\"'> AND username LIKE CONCAT('%', #{username}, '%')</if>" +
             "<if test='name != null and name != \"\"'> AND name LIKE CONCAT('%', #{name}, '%')</if>" +
             "<if test='status != null'> AND status = #{status}</if>" +
-            "<if test='departmentId != null'> AND department_id = #{departmentId}</if>" +
+            "<choose>" +
+            "<when test='departmentIds != null and departmentIds.size() > 0'> AND department_id IN" +
+            "<foreach collection='departmentIds' item='id' open='(' separator=',' close=')'>#{id}</foreach>" +
+            "</when>" +
+            "<when test='departmentId != null'> AND department_id = #{departmentId}</when>" +
+            "</choose>" +
             " ORDER BY create_time DESC" +
             "</script>")
     IPage<SysUser> selectUserPage(Page<SysUser> page,
                                   @Param("username") String username,
                                   @Param("name") String name,
                                   @Param("status") Integer status,
-                                  @Param("departmentId") Long departmentId);
+                                  @Param("departmentId") Long departmentId,
+                                  @Param("departmentIds") Collection<Long> departmentIds);
 
     /**
      * 统计各部门用户数量
-     * 用于部门用户统计报表
+     * 全表分组统计，只用于启动加载和定期校准内存中的用户统计计数
      *
      * @return 部门用户统计列表
      */
-    @Select("SELECT department_id, COUNT(*) as user_count FROM sys_user WHERE deleted = 0 AND department_id IS NOT NULL GROUP BY department_id")
+    @Select("SELECT department_id AS departmentId, COUNT(*) AS userCount FROM sys_user WHERE deleted = 0 AND department_id IS NOT NULL GROUP BY department_id")
     List<UserDepartmentStats> selectUserCountByDepartment();
 
     /**
      * 统计用户状态分布
-     * 用于用户状态统计
+     * 全表分组统计，只用于启动加载和定期校准内存中的用户统计计数
      *
      * @return 用户状态统计列表
      */
-    @Select("SELECT status, COUNT(*) as count FROM sys_user WHERE deleted = 0 GROUP BY status")
+    @Select("SELECT status, COUNT(*) AS count FROM sys_user WHERE deleted = 0 GROUP BY status")
     List<UserStatusStats> selectUserCountByStatus();
 
+    /**
+     * 查询用户表的变更指纹
+     * <p>
+     * 由行数、已删除行数、最大ID、最大更新时间和最大登录时间拼接而成，
+     * 用于定期发现其他节点或直接在数据库中的修改
+     *
+     * @return 变更指纹
+     */
+    @Select("SELECT CONCAT(COUNT(*), ',', IFNULL(SUM(deleted), 0), ',', IFNULL(MAX(id), 0), ','," +
+            " IFNULL(MAX(update_time), ''), ',', IFNULL(MAX(last_login_time), '')) FROM sys_user")
+    String selectFingerprint();
+
     /**
      * 更新用户最后登录时间
      * 在用户成功登录后调用
@@ -123,6 +150,7 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param excludeUserId 排除的用户ID（更新时使用）
      * @return 存在数量
      */
+    @ReadOnly
     @Select("SELECT COUNT(*) FROM sys_user WHERE username = #{username} AND id != #{excludeUserId} AND deleted = 0")
     int countByUsernameExcludeId(@Param("username") String username, @Param("excludeUserId") Long excludeUserId);
 
@@ -134,6 +162,7 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param excludeUserId 排除的用户ID
      * @return 存在数量
      */
+    @ReadOnly
     @Select("SELECT COUNT(*) FROM sys_user WHERE email = #{email} AND id != #{excludeUserId} AND deleted = 0")
     int countByEmailExcludeId(@Param("email") String email, @Param("excludeUserId") Long excludeUserId);
 
@@ -145,6 +174,7 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      * @param excludeUserId 排除的用户ID
      * @return 存在数量
      */
+    @ReadOnly
     @Select("SELECT COUNT(*) FROM sys_user WHERE phone = #{phone} AND id != #{excludeUserId} AND deleted = 0")
     int countByPhoneExcludeId(@Param("phone") String phone, @Param("excludeUserId") Long excludeUserId);
 
@@ -0,0 +1,12 @@
+package com.haocai.management.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.haocai.management.entity.SysUserRole;
+import org.apache.ibatis.annotations.Mapper;
+
+/**
+ * 用户角色关联数据访问层接口
+ */
+@Mapper
+public interface SysUserRoleMapper extends BaseMapper<SysUserRole> {
+}
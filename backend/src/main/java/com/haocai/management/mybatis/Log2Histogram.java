@@ -0,0 +1,83 @@
+package com.haocai.management.mybatis;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 以2为底的对数分桶直方图
+ * <p>
+ * 功能说明：
+ * 1. 第i个桶统计[2^(i-1), 2^i)范围内的值，第0个桶只统计0，共64个桶覆盖全部非负long
+ * 2. 记录一个值只需一次前导零计算和一次原子自增，不加锁、不分配对象
+ * 3. 分位数按桶上界估算，误差不超过一倍，足以区分毫秒级和秒级的差异
+ */
+public final class Log2Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * 记录一个值（负数按0处理）
+     *
+     * @param value 值
+     */
+    public void record(long value) {
+        counts.incrementAndGet(bucketOf(value));
+    }
+
+    /**
+     * 值所在的桶
+     */
+    static int bucketOf(long value) {
+        return value <= 0 ? 0 : Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * 桶的上界（不含），第0个桶返回0
+     */
+    static long upperBound(int bucket) {
+        if (bucket == 0) {
+            return 0;
+        }
+        return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+
+    /**
+     * 估算分位数
+     *
+     * @param quantile 分位（0~1）
+     * @return 分位数所在桶的上界，没有数据时返回0
+     */
+    public long percentile(double quantile) {
+        long[] snapshot = snapshot();
+        long total = 0;
+        for (long count : snapshot) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return upperBound(i);
+            }
+        }
+        return upperBound(BUCKETS - 1);
+    }
+
+    /**
+     * 各桶计数的快照
+     *
+     * @return 长度为64的数组
+     */
+    public long[] snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+}
@@ -0,0 +1,105 @@
+package com.haocai.management.mybatis;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单条SQL语句（MappedStatement）的累计统计
+ * <p>
+ * 耗时以微秒记录，行数为查询返回行数或更新影响行数；
+ * 执行抛出异常的语句只计入失败次数，不进入耗时、行数和慢SQL统计
+ */
+public final class SqlStatementStats {
+
+    private final String statementId;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalMicros = new LongAdder();
+    private final LongAccumulator maxMicros = new LongAccumulator(Math::max, 0);
+    private final LongAdder totalRows = new LongAdder();
+    private final LongAdder slowCount = new LongAdder();
+    private final LongAdder errorCount = new LongAdder();
+    private final Log2Histogram durationHistogram = new Log2Histogram();
+    private final Log2Histogram rowsHistogram = new Log2Histogram();
+
+    /**
+     * 最近一次慢SQL所属的请求ID，用于从统计反查请求日志
+     */
+    private volatile String lastSlowRequestId;
+
+    /**
+     * 最近一次执行失败所属的请求ID
+     */
+    private volatile String lastErrorRequestId;
+
+    SqlStatementStats(String statementId) {
+        this.statementId = statementId;
+    }
+
+    void record(long micros, long rows, boolean slow, String requestId) {
+        count.increment();
+        totalMicros.add(micros);
+        maxMicros.accumulate(micros);
+        durationHistogram.record(micros);
+        if (rows >= 0) {
+            totalRows.add(rows);
+            rowsHistogram.record(rows);
+        }
+        if (slow) {
+            slowCount.increment();
+            if (requestId != null) {
+                lastSlowRequestId = requestId;
+            }
+        }
+    }
+
+    void recordError(String requestId) {
+        errorCount.increment();
+        if (requestId != null) {
+            lastErrorRequestId = requestId;
+        }
+    }
+
+    public String getStatementId() {
+        return statementId;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    public long getMaxMicros() {
+        return maxMicros.get();
+    }
+
+    public long getTotalRows() {
+        return totalRows.sum();
+    }
+
+    public long getSlowCount() {
+        return slowCount.sum();
+    }
+
+    public String getLastSlowRequestId() {
+        return lastSlowRequestId;
+    }
+
+    public long getErrorCount() {
+        return errorCount.sum();
+    }
+
+    public String getLastErrorRequestId() {
+        return lastErrorRequestId;
+    }
+
+    public Log2Histogram getDurationHistogram() {
+        return durationHistogram;
+    }
+
+    public Log2Histogram getRowsHistogram() {
+        return rowsHistogram;
+    }
+}
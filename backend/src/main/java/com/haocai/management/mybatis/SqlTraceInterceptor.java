@@ -0,0 +1,293 @@
+package com.haocai.management.mybatis;
+
+import com.haocai.management.common.RequestIds;
+import com.haocai.management.timing.RequestPhase;
+import com.haocai.management.timing.RequestTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL追踪拦截器
+ * <p>
+ * 替代StdOutImpl逐条打印SQL的方式：
+ * 1. 每条语句的耗时和行数按语句ID累计到对数直方图，供/api/system/sql-trace查询
+ * 2. 耗时超过阈值的语句以WARN级别记录慢SQL日志
+ * 3. 按采样率抽样记录语句日志
+ * 4. 可在运行时对指定Mapper开启全量追踪，逐条记录该Mapper的语句日志
+ * 5. 日志通过MDC携带请求ID，统计中保留最近一次慢SQL的请求ID
+ * 6. 执行抛出异常的语句以ERROR级别记录并单独计数，不计入耗时分布和慢SQL
+ * 7. 按语句ID记录Micrometer计时器mybatis.statement（标签statement、command、outcome），
+ *    可选导出百分位直方图；耗时同时累加到当前请求的DB阶段（RequestTiming）
+ * 8. 取不到连接、连接中断或超时的失败标记为当前请求的过载信号，供并发限制器收缩限制；
+ *    约束冲突等数据错误与负载无关，不标记
+ * <p>
+ * 设计原则：
+ * - 每条语句只计时一次，统计、指标和请求分阶段耗时共用同一个耗时
+ * - 未命中慢SQL、采样和追踪时只有两次nanoTime、两次哈希查找和几次原子累加
+ * - 计时器按语句ID和outcome缓存，只有出过错的语句才会产生error序列；
+ *   直方图范围限定在100微秒到10秒，控制每条语句导出的桶数量
+ * - 日志只记录SQL文本，不记录参数值，避免密码等敏感数据进入日志
+ */
+@Slf4j
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+                        CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+public class SqlTraceInterceptor implements Interceptor {
+
+    /**
+     * 计时器名称
+     */
+    public static final String METRIC_NAME = "mybatis.statement";
+
+    /**
+     * 语句ID -> 累计统计
+     */
+    private final Map<String, SqlStatementStats> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * 开启全量追踪的Mapper（接口全限定名），写时复制
+     */
+    private volatile Set<String> tracedMappers = Set.of();
+
+    /**
+     * 慢SQL阈值（微秒）
+     */
+    private final long slowThresholdMicros;
+
+    /**
+     * 采样率（0~1）
+     */
+    private final double sampleRate;
+
+    private final MeterRegistry registry;
+
+    private final boolean percentileHistogram;
+
+    /**
+     * 语句ID -> 执行成功的计时器
+     */
+    private final Map<String, Timer> successTimers = new ConcurrentHashMap<>();
+
+    /**
+     * 语句ID -> 执行失败的计时器
+     */
+    private final Map<String, Timer> errorTimers = new ConcurrentHashMap<>();
+
+    public SqlTraceInterceptor(@Value("${mybatis.trace.slow-threshold:500}") long slowThresholdMillis,
+                               @Value("${mybatis.trace.sample-rate:0}") double sampleRate,
+                               @Value("${mybatis.trace.traced-mappers:}") String[] tracedMappers,
+                               MeterRegistry registry,
+                               @Value("${mybatis.metrics.percentile-histogram:true}") boolean percentileHistogram) {
+        this.registry = registry;
+        this.percentileHistogram = percentileHistogram;
+        this.slowThresholdMicros = slowThresholdMillis * 1000;
+        this.sampleRate = sampleRate;
+        Set<String> mappers = new HashSet<>();
+        for (String mapper : tracedMappers) {
+            if (!mapper.isBlank()) {
+                mappers.add(mapper.trim());
+            }
+        }
+        this.tracedMappers = Set.copyOf(mappers);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            errorTimers.computeIfAbsent(statement.getId(), id -> register(statement, "error"))
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            RequestTiming.record(RequestPhase.DB, elapsed);
+            if (isOverload(e)) {
+                RequestTiming.markOverloaded();
+            }
+            recordFailure(statement, invocation, elapsed / 1000, e);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        successTimers.computeIfAbsent(statement.getId(), id -> register(statement, "success"))
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        RequestTiming.record(RequestPhase.DB, elapsed);
+        record(statement, invocation, elapsed / 1000, rowCount(result));
+        return result;
+    }
+
+    private Timer register(MappedStatement statement, String outcome) {
+        return Timer.builder(METRIC_NAME)
+                .description("MyBatis语句执行耗时")
+                .tag("statement", statement.getId())
+                .tag("command", statement.getSqlCommandType().name())
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(percentileHistogram)
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+
+    /**
+     * 记录执行失败的语句，异常由调用方继续处理，这里不打印堆栈
+     */
+    private void recordFailure(MappedStatement statement, Invocation invocation, long micros, Throwable e) {
+        String statementId = statement.getId();
+        statistics.computeIfAbsent(statementId, SqlStatementStats::new).recordError(RequestIds.current());
+        log.error("SQL执行失败: {} 耗时{}ms 异常: {} SQL: {}",
+                statementId, micros / 1000, ExceptionUtil.unwrapThrowable(e).toString(), sqlOf(statement, invocation));
+    }
+
+    /**
+     * 异常链中是否有表示数据库过载或不可用的异常：连接失败、连接中断、语句或锁等待超时
+     */
+    static boolean isOverload(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(MappedStatement statement, Invocation invocation, long micros, long rows) {
+        String statementId = statement.getId();
+        boolean slow = micros >= slowThresholdMicros;
+        statistics.computeIfAbsent(statementId, SqlStatementStats::new)
+                .record(micros, rows, slow, slow ? RequestIds.current() : null);
+
+        if (slow) {
+            log.warn("慢SQL: {} 耗时{}ms 行数{} SQL: {}", statementId, micros / 1000, rows, sqlOf(statement, invocation));
+        } else if (isTraced(statementId)) {
+            log.info("SQL追踪: {} 耗时{}us 行数{} SQL: {}", statementId, micros, rows, sqlOf(statement, invocation));
+        } else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("SQL采样: {} 耗时{}us 行数{} SQL: {}", statementId, micros, rows, sqlOf(statement, invocation));
+        }
+    }
+
+    private boolean isTraced(String statementId) {
+        Set<String> mappers = tracedMappers;
+        if (mappers.isEmpty()) {
+            return false;
+        }
+        int separator = statementId.lastIndexOf('.');
+        return separator > 0 && mappers.contains(statementId.substring(0, separator));
+    }
+
+    /**
+     * 查询返回行数或更新影响行数，无法判断时返回-1
+     */
+    private static long rowCount(Object result) {
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        return -1;
+    }
+
+    /**
+     * 语句的SQL文本（压缩空白），只在需要写日志时计算
+     */
+    private static String sqlOf(MappedStatement statement, Invocation invocation) {
+        try {
+            Object[] args = invocation.getArgs();
+            BoundSql boundSql = args.length == 6
+                    ? (BoundSql) args[5]
+                    : statement.getBoundSql(args[1]);
+            return boundSql.getSql().replaceAll("\\s+", " ").trim();
+        } catch (Exception e) {
+            return "(SQL不可用: " + e.getMessage() + ")";
+        }
+    }
+
+    /**
+     * 获取全部语句的累计统计
+     *
+     * @return 统计列表
+     */
+    public List<SqlStatementStats> getStatistics() {
+        return List.copyOf(statistics.values());
+    }
+
+    /**
+     * 清空累计统计
+     */
+    public void resetStatistics() {
+        statistics.clear();
+    }
+
+    /**
+     * 获取开启全量追踪的Mapper
+     */
+    public Set<String> getTracedMappers() {
+        return tracedMappers;
+    }
+
+    /**
+     * 开启或关闭指定Mapper的全量追踪
+     *
+     * @param mapper Mapper接口全限定名
+     * @param traced true-开启
+     */
+    public synchronized void setTraced(String mapper, boolean traced) {
+        Set<String> mappers = new HashSet<>(tracedMappers);
+        boolean changed = traced ? mappers.add(mapper) : mappers.remove(mapper);
+        if (changed) {
+            tracedMappers = Set.copyOf(mappers);
+            log.info("SQL全量追踪已{}: {}", traced ? "开启" : "关闭", mapper);
+        }
+    }
+
+    /**
+     * 慢SQL阈值（毫秒）
+     */
+    public long getSlowThresholdMillis() {
+        return slowThresholdMicros / 1000;
+    }
+
+    /**
+     * 采样率
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+}
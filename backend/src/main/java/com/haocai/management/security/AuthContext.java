@@ -0,0 +1,190 @@
+package com.haocai.management.security;
+
+import com.haocai.management.entity.SysUser;
+import com.haocai.management.utils.PermissionBitmapCodec;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 请求级认证上下文
+ * <p>
+ * 职责：
+ * 1. 保存本次请求的原始token、解析后的Claims、已加载的用户和权限位图
+ * 2. 由JwtAuthenticationFilter在认证时填充一次，控制器、MyMetaObjectHandler等下游代码直接读取
+ * <p>
+ * 设计原则：
+ * - 以请求属性保存，随请求结束释放，异步分派时仍可读取
+ * - Authorization头只读取一次；token在第一次使用时才截取，前缀匹配不分配新字符串
+ * - 非请求线程（定时任务等）中current()返回null，调用方需提供默认值
+ */
+public final class AuthContext {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = AuthContext.class.getName();
+
+    /**
+     * JWT token在请求头中的字段名
+     */
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+
+    /**
+     * JWT token的前缀
+     */
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * 原始Authorization请求头
+     */
+    private final String authorizationHeader;
+
+    /**
+     * 截取后的token（懒加载）
+     */
+    private String token;
+
+    /**
+     * 是否已经截取过token
+     */
+    private boolean tokenExtracted;
+
+    /**
+     * 解析后的Claims
+     */
+    private Claims claims;
+
+    /**
+     * 已认证的用户
+     */
+    private SysUser user;
+
+    /**
+     * 权限位图（位编号由当前权限索引确定）
+     */
+    private long[] permissionBits;
+
+    private AuthContext(String authorizationHeader) {
+        this.authorizationHeader = authorizationHeader;
+    }
+
+    /**
+     * 创建认证上下文并绑定到请求
+     *
+     * @param request HTTP请求
+     * @return 认证上下文
+     */
+    public static AuthContext bind(HttpServletRequest request) {
+        AuthContext context = new AuthContext(request.getHeader(AUTHORIZATION_HEADER));
+        request.setAttribute(REQUEST_ATTRIBUTE, context);
+        return context;
+    }
+
+    /**
+     * 获取请求绑定的认证上下文
+     *
+     * @param request HTTP请求
+     * @return 认证上下文，未经过认证过滤器时返回null
+     */
+    public static AuthContext from(HttpServletRequest request) {
+        Object context = request.getAttribute(REQUEST_ATTRIBUTE);
+        return context instanceof AuthContext authContext ? authContext : null;
+    }
+
+    /**
+     * 获取当前请求的认证上下文
+     *
+     * @return 认证上下文，非请求线程或未经过认证过滤器时返回null
+     */
+    public static AuthContext current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object context = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return context instanceof AuthContext authContext ? authContext : null;
+    }
+
+    /**
+     * 获取当前已认证用户的ID
+     *
+     * @return 用户ID，未认证时返回null
+     */
+    public static Long currentUserId() {
+        AuthContext context = current();
+        return context != null && context.user != null ? context.user.getId() : null;
+    }
+
+    /**
+     * 请求是否携带Bearer token
+     * <p>
+     * 只做前缀比较，不截取字符串
+     *
+     * @return true-携带Bearer token
+     */
+    public boolean hasBearerToken() {
+        return authorizationHeader != null
+                && authorizationHeader.length() > BEARER_PREFIX.length()
+                && authorizationHeader.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length());
+    }
+
+    /**
+     * 获取token（不含"Bearer "前缀）
+     * <p>
+     * 第一次调用时截取并缓存
+     *
+     * @return token，未携带时返回null
+     */
+    public String getToken() {
+        if (!tokenExtracted) {
+            token = hasBearerToken() ? authorizationHeader.substring(BEARER_PREFIX.length()).trim() : null;
+            tokenExtracted = true;
+        }
+        return token;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public void setClaims(Claims claims) {
+        this.claims = claims;
+    }
+
+    public SysUser getUser() {
+        return user;
+    }
+
+    public void setUser(SysUser user) {
+        this.user = user;
+    }
+
+    public long[] getPermissionBits() {
+        return permissionBits;
+    }
+
+    public void setPermissionBits(long[] permissionBits) {
+        this.permissionBits = permissionBits;
+    }
+
+    /**
+     * 判断当前用户是否拥有指定位编号的权限（一次位运算）
+     *
+     * @param permissionIndex 权限位编号，见AuthoritySnapshot.indexOf
+     * @return true-拥有
+     */
+    public boolean hasPermission(int permissionIndex) {
+        return PermissionBitmapCodec.contains(permissionBits, permissionIndex);
+    }
+
+    /**
+     * 当前请求是否已认证
+     *
+     * @return true-已认证
+     */
+    public boolean isAuthenticated() {
+        return user != null;
+    }
+}
@@ -0,0 +1,228 @@
+package com.haocai.management.security;
+
+import com.haocai.management.entity.SysPermission;
+import com.haocai.management.entity.SysRole;
+import com.haocai.management.entity.SysRolePermission;
+import com.haocai.management.entity.SysUserRole;
+import com.haocai.management.mapper.SysPermissionMapper;
+import com.haocai.management.mapper.SysRoleMapper;
+import com.haocai.management.mapper.SysRolePermissionMapper;
+import com.haocai.management.mapper.SysUserRoleMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 权限解析器
+ * <p>
+ * 职责：
+ * 1. 启动时把角色、权限及其关联关系整体加载为不可变的权限快照
+ * 2. 认证时按用户ID返回预先计算的GrantedAuthority列表，供@PreAuthorize使用
+ * 3. 定期比对角色、权限及关联表的变更指纹，有变化时整体重建快照
+ * 4. 发现token中的权限索引版本与本地不一致时，异步触发一次刷新
+ * <p>
+ * 目前没有修改角色和权限的接口，角色权限数据由数据库脚本维护，快照只通过指纹检查整体重建，
+ * 修改在一个检查间隔（security.authority.refresh-interval）内生效
+ * <p>
+ * 设计原则：
+ * - 读取只做一次volatile读和一次哈希查找，不访问数据库
+ * - 写操作串行执行（ReentrantLock，虚拟线程在锁内等待数据库时不会额外钉住载体线程），生成新快照后整体替换
+ * - 数据库不可用时保留当前快照（启动时为空快照），不影响应用启动，定期刷新时自动重试
+ */
+@Slf4j
+@Component
+public class AuthorityResolver {
+
+    @Autowired
+    private SysRoleMapper roleMapper;
+
+    @Autowired
+    private SysPermissionMapper permissionMapper;
+
+    @Autowired
+    private SysRolePermissionMapper rolePermissionMapper;
+
+    @Autowired
+    private SysUserRoleMapper userRoleMapper;
+
+    /**
+     * 当前权限快照
+     */
+    private volatile AuthoritySnapshot snapshot = AuthoritySnapshot.EMPTY;
+
+    /**
+     * 构建当前快照时的权限表变更指纹，为null表示尚未成功加载
+     */
+    private volatile String fingerprint;
+
+    /**
+     * 两次版本不一致触发刷新之间的最小间隔（毫秒），避免大量旧token同时到达时反复刷新
+     */
+    private static final long MISMATCH_REFRESH_INTERVAL = 5000L;
+
+    /**
+     * 上次因版本不一致触发刷新的时间戳（毫秒）
+     */
+    private final AtomicLong lastMismatchRefresh = new AtomicLong();
+
+    /**
+     * 串行化快照的重建（定期检查与版本不一致触发的刷新可能同时发生）
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /**
+     * 应用启动完成后加载权限快照
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            reloadAll();
+        } catch (Exception e) {
+            log.warn("权限快照加载失败，暂按无权限处理，稍后自动重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取用户的权限列表（角色ROLE_编码 + 权限编码）
+     *
+     * @param userId 用户ID
+     * @return 不可变的权限列表
+     */
+    public List<GrantedAuthority> getAuthorities(Long userId) {
+        return snapshot.forUser(userId).authorities();
+    }
+
+    /**
+     * 判断用户是否拥有指定权限
+     *
+     * @param userId 用户ID
+     * @param permissionCode 权限编码
+     * @return true-拥有
+     */
+    public boolean hasPermission(Long userId, String permissionCode) {
+        return snapshot.hasPermission(userId, permissionCode);
+    }
+
+    /**
+     * 获取用户的权限位图
+     *
+     * @param userId 用户ID
+     * @return 权限位图（只读，不要修改）
+     */
+    public long[] getPermissionBits(Long userId) {
+        return snapshot.forUser(userId).permissionBits();
+    }
+
+    /**
+     * 获取当前权限索引版本
+     *
+     * @return 权限索引版本
+     */
+    public String getIndexVersion() {
+        return snapshot.getIndexVersion();
+    }
+
+    /**
+     * token中的权限索引版本与本地不一致
+     * <p>
+     * 可能是其他节点已加载了新的权限数据，异步检查并刷新本地快照；
+     * 限制触发频率，同一时间段内只刷新一次
+     *
+     * @param tokenVersion token中的权限索引版本
+     */
+    public void onIndexVersionMismatch(String tokenVersion) {
+        long now = System.currentTimeMillis();
+        long last = lastMismatchRefresh.get();
+        if (now - last < MISMATCH_REFRESH_INTERVAL || !lastMismatchRefresh.compareAndSet(last, now)) {
+            return;
+        }
+        log.info("token权限索引版本不一致，触发权限快照刷新: token={}, 本地={}", tokenVersion, getIndexVersion());
+        CompletableFuture.runAsync(this::refreshIfChanged);
+    }
+
+    /**
+     * 获取当前权限快照
+     *
+     * @return 权限快照
+     */
+    public AuthoritySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 重新加载全部角色、权限和关联关系
+     */
+    public void reloadAll() {
+        writeLock.lock();
+        try {
+            String currentFingerprint = roleMapper.selectAuthorityFingerprint();
+
+            // 权限按ID排序，保证各节点的位编号一致
+            LinkedHashMap<Long, String> permissions = new LinkedHashMap<>();
+            permissionMapper.selectList(null).stream()
+                    .filter(permission -> Objects.equals(permission.getStatus(), SysPermission.STATUS_NORMAL))
+                    .sorted(Comparator.comparing(SysPermission::getId))
+                    .forEach(permission -> permissions.put(permission.getId(), permission.getCode()));
+
+            Map<Long, String> roleCodes = new HashMap<>();
+            for (SysRole role : roleMapper.selectList(null)) {
+                if (Objects.equals(role.getStatus(), SysRole.STATUS_NORMAL)) {
+                    roleCodes.put(role.getId(), role.getCode());
+                }
+            }
+
+            Map<Long, List<Long>> rolePermissions = new HashMap<>();
+            for (SysRolePermission relation : rolePermissionMapper.selectList(null)) {
+                rolePermissions.computeIfAbsent(relation.getRoleId(), key -> new ArrayList<>())
+                        .add(relation.getPermissionId());
+            }
+
+            Map<Long, List<Long>> userRoles = new HashMap<>();
+            for (SysUserRole relation : userRoleMapper.selectList(null)) {
+                userRoles.computeIfAbsent(relation.getUserId(), key -> new ArrayList<>())
+                        .add(relation.getRoleId());
+            }
+
+            AuthoritySnapshot rebuilt = AuthoritySnapshot.build(permissions, roleCodes, rolePermissions, userRoles);
+            snapshot = rebuilt;
+            fingerprint = currentFingerprint;
+            log.info("权限快照加载完成: 权限{}个, 角色{}个, 用户{}个",
+                    rebuilt.getPermissionCount(), rebuilt.getRoleCount(), rebuilt.getUserCount());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 定期检查权限表是否被修改，有变化时重建快照
+     * <p>
+     * 每次检查只执行一条指纹查询；上次加载失败时也在这里重试
+     */
+    @Scheduled(fixedDelayString = "${security.authority.refresh-interval:60000}")
+    public void refreshIfChanged() {
+        try {
+            String current = roleMapper.selectAuthorityFingerprint();
+            if (fingerprint == null || !fingerprint.equals(current)) {
+                log.info("检测到权限数据变化，重建权限快照");
+                reloadAll();
+            }
+        } catch (Exception e) {
+            log.warn("权限快照刷新失败，继续使用当前快照: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.haocai.management.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限快照
+ * <p>
+ * 职责：
+ * 1. 保存角色-权限关系图：权限编码按位编号，每个角色的权限是一个位图
+ * 2. 保存用户-角色关系，并为每个用户预先计算权限位图和GrantedAuthority列表
+ * <p>
+ * 设计原则：
+ * - 实例不可变，整体替换，读取方无需加锁
+ * - 每次请求只需按用户ID做一次哈希查找，权限判断为一次位运算，不涉及数据库和联表查询
+ * - 权限编码的位编号在快照内固定；任何角色、权限或关联关系变化时都重建整个快照
+ * - 位编号对应的权限索引有版本号（有序权限编码列表的哈希），只反映权限编码的集合，
+ *   不反映用户-角色和角色-权限关系，因此鉴权始终使用快照中的用户位图，不使用token中签发时的位图
+ */
+public final class AuthoritySnapshot {
+
+    /**
+     * 角色权限前缀，与hasRole()约定一致
+     */
+    public static final String ROLE_PREFIX = "ROLE_";
+
+    /**
+     * 空快照（数据库不可用或尚未加载时使用）
+     */
+    public static final AuthoritySnapshot EMPTY = new AuthoritySnapshot(
+            new String[0], Map.of(), Map.of(), Map.of(), Map.of());
+
+    /**
+     * 位编号 -> 权限编码
+     */
+    private final String[] permissionCodes;
+
+    /**
+     * 权限索引版本（有序权限编码列表的SHA-256前4字节），各节点相同数据得到相同版本
+     */
+    private final String indexVersion;
+
+    /**
+     * 位编号 -> 权限对象（所有用户共享同一实例）
+     */
+    private final GrantedAuthority[] permissionAuthorities;
+
+    /**
+     * 权限编码 -> 位编号
+     */
+    private final Map<String, Integer> permissionIndex;
+
+    /**
+     * 权限ID -> 位编号
+     */
+    private final Map<Long, Integer> permissionIdIndex;
+
+    /**
+     * 角色ID -> 角色授权信息
+     */
+    private final Map<Long, RoleAuthorities> roles;
+
+    /**
+     * 用户ID -> 用户授权信息
+     */
+    private final Map<Long, UserAuthorities> users;
+
+    private AuthoritySnapshot(String[] permissionCodes, Map<Long, Integer> permissionIdIndex,
+                              Map<String, Integer> permissionIndex, Map<Long, RoleAuthorities> roles,
+                              Map<Long, UserAuthorities> users) {
+        this.permissionCodes = permissionCodes;
+        this.indexVersion = indexVersion(permissionCodes);
+        this.permissionIdIndex = permissionIdIndex;
+        this.permissionIndex = permissionIndex;
+        this.roles = roles;
+        this.users = users;
+        this.permissionAuthorities = new GrantedAuthority[permissionCodes.length];
+        for (int i = 0; i < permissionCodes.length; i++) {
+            permissionAuthorities[i] = new SimpleGrantedAuthority(permissionCodes[i]);
+        }
+    }
+
+    private AuthoritySnapshot(AuthoritySnapshot base, Map<Long, RoleAuthorities> roles,
+                              Map<Long, UserAuthorities> users) {
+        this.permissionCodes = base.permissionCodes;
+        this.indexVersion = base.indexVersion;
+        this.permissionAuthorities = base.permissionAuthorities;
+        this.permissionIdIndex = base.permissionIdIndex;
+        this.permissionIndex = base.permissionIndex;
+        this.roles = roles;
+        this.users = users;
+    }
+
+    /**
+     * 构建完整快照
+     *
+     * @param permissions     启用的权限（权限ID -> 权限编码），按位编号顺序排列
+     * @param roleCodes       启用的角色（角色ID -> 角色编码）
+     * @param rolePermissions 角色ID -> 权限ID列表
+     * @param userRoles       用户ID -> 角色ID列表
+     * @return 快照
+     */
+    public static AuthoritySnapshot build(LinkedHashMap<Long, String> permissions, Map<Long, String> roleCodes,
+                                          Map<Long, ? extends Collection<Long>> rolePermissions,
+                                          Map<Long, ? extends Collection<Long>> userRoles) {
+        String[] codes = new String[permissions.size()];
+        Map<Long, Integer> idIndex = new HashMap<>();
+        Map<String, Integer> codeIndex = new HashMap<>();
+        int index = 0;
+        for (Map.Entry<Long, String> entry : permissions.entrySet()) {
+            codes[index] = entry.getValue();
+            idIndex.put(entry.getKey(), index);
+            codeIndex.put(entry.getValue(), index);
+            index++;
+        }
+        AuthoritySnapshot base = new AuthoritySnapshot(codes, Map.copyOf(idIndex), Map.copyOf(codeIndex),
+                Map.of(), Map.of());
+
+        Map<Long, RoleAuthorities> roles = new HashMap<>();
+        roleCodes.forEach((roleId, code) -> {
+            Collection<Long> permissionIds = rolePermissions.get(roleId);
+            roles.put(roleId, base.toRole(code, permissionIds != null ? permissionIds : List.of()));
+        });
+
+        Map<Long, UserAuthorities> users = new HashMap<>();
+        userRoles.forEach((userId, roleIds) -> users.put(userId, base.toUser(roles, roleIds)));
+        return new AuthoritySnapshot(base, Map.copyOf(roles), Map.copyOf(users));
+    }
+
+    /**
+     * 获取用户授权信息
+     *
+     * @param userId 用户ID
+     * @return 用户授权信息，无角色时返回UserAuthorities.NONE
+     */
+    public UserAuthorities forUser(Long userId) {
+        if (userId == null) {
+            return UserAuthorities.NONE;
+        }
+        return users.getOrDefault(userId, UserAuthorities.NONE);
+    }
+
+    /**
+     * 获取权限编码的位编号
+     *
+     * @param code 权限编码
+     * @return 位编号，未知权限返回-1
+     */
+    public int indexOf(String code) {
+        Integer index = permissionIndex.get(code);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 判断用户是否拥有指定权限
+     *
+     * @param userId 用户ID
+     * @param code   权限编码
+     * @return true-拥有
+     */
+    public boolean hasPermission(Long userId, String code) {
+        return forUser(userId).hasPermission(indexOf(code));
+    }
+
+    public String getIndexVersion() {
+        return indexVersion;
+    }
+
+    public int getPermissionCount() {
+        return permissionCodes.length;
+    }
+
+    public int getRoleCount() {
+        return roles.size();
+    }
+
+    public int getUserCount() {
+        return users.size();
+    }
+
+    /**
+     * 构建角色授权信息
+     */
+    private RoleAuthorities toRole(String code, Collection<Long> permissionIds) {
+        long[] bits = new long[wordCount()];
+        for (Long permissionId : permissionIds) {
+            Integer index = permissionIdIndex.get(permissionId);
+            if (index != null) {
+                bits[index >>> 6] |= 1L << index;
+            }
+        }
+        return new RoleAuthorities(code, new SimpleGrantedAuthority(ROLE_PREFIX + code), bits);
+    }
+
+    /**
+     * 构建用户授权信息：合并各角色的权限位图，并生成GrantedAuthority列表
+     */
+    private UserAuthorities toUser(Map<Long, RoleAuthorities> roleMap, Collection<Long> roleIds) {
+        long[] bits = new long[wordCount()];
+        long[] userRoleIds = new long[roleIds.size()];
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        int count = 0;
+        for (Long roleId : roleIds) {
+            userRoleIds[count++] = roleId;
+            RoleAuthorities role = roleMap.get(roleId);
+            if (role == null) {
+                continue;
+            }
+            authorities.add(role.authority());
+            for (int i = 0; i < bits.length; i++) {
+                bits[i] |= role.permissionBits()[i];
+            }
+        }
+        for (int i = 0; i < permissionCodes.length; i++) {
+            if ((bits[i >>> 6] & (1L << i)) != 0) {
+                authorities.add(permissionAuthorities[i]);
+            }
+        }
+        Arrays.sort(userRoleIds);
+        return new UserAuthorities(userRoleIds, bits, Collections.unmodifiableList(authorities));
+    }
+
+    /**
+     * 计算权限索引版本
+     */
+    private static String indexVersion(String[] codes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String code : codes) {
+                digest.update(code.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 4);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("权限索引版本计算失败", e);
+        }
+    }
+
+    private int wordCount() {
+        return (permissionCodes.length + 63) >>> 6;
+    }
+
+    /**
+     * 角色授权信息
+     *
+     * @param code           角色编码
+     * @param authority      角色对应的GrantedAuthority（ROLE_编码）
+     * @param permissionBits 权限位图
+     */
+    record RoleAuthorities(String code, GrantedAuthority authority, long[] permissionBits) {
+    }
+
+    /**
+     * 用户授权信息
+     *
+     * @param roleIds        角色ID（升序）
+     * @param permissionBits 权限位图
+     * @param authorities    预先计算的GrantedAuthority列表（不可变）
+     */
+    public record UserAuthorities(long[] roleIds, long[] permissionBits, List<GrantedAuthority> authorities) {
+
+        /**
+         * 没有任何角色的用户
+         */
+        public static final UserAuthorities NONE = new UserAuthorities(new long[0], new long[0], List.of());
+
+        /**
+         * 判断是否拥有指定位编号的权限
+         *
+         * @param index 位编号
+         * @return true-拥有
+         */
+        public boolean hasPermission(int index) {
+            int word = index >>> 6;
+            return index >= 0 && word < permissionBits.length && (permissionBits[word] & (1L << index)) != 0;
+        }
+
+        /**
+         * 判断是否拥有指定角色
+         *
+         * @param roleId 角色ID
+         * @return true-拥有
+         */
+        public boolean hasRole(Long roleId) {
+            return roleId != null && Arrays.binarySearch(roleIds, roleId) >= 0;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.haocai.management.security;
+
+import com.haocai.management.entity.SysUser;
+import com.haocai.management.entity.UserStatus;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * 已认证用户
+ * <p>
+ * 职责：
+ * 1. 作为Spring Security的UserDetails，参与登录认证和JWT认证
+ * 2. 携带从数据库加载的SysUser，认证完成后下游代码可直接使用，无需再次查询
+ * <p>
+ * 设计原则：
+ * - 只包装SysUser，不复制字段
+ * - 权限列表由AuthorityResolver预先计算，直接复用不复制
+ * - 登录认证完成后擦除密码，避免密码哈希随认证信息传播
+ */
+public class LoginUser implements UserDetails, CredentialsContainer {
+
+    private final SysUser user;
+
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public LoginUser(SysUser user) {
+        this(user, Collections.emptyList());
+    }
+
+    public LoginUser(SysUser user, Collection<? extends GrantedAuthority> authorities) {
+        this.user = user;
+        this.authorities = authorities;
+    }
+
+    /**
+     * 获取用户实体
+     *
+     * @return 用户实体
+     */
+    public SysUser getUser() {
+        return user;
+    }
+
+    /**
+     * 获取用户ID
+     *
+     * @return 用户ID
+     */
+    public Long getUserId() {
+        return user.getId();
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return user.getPassword();
+    }
+
+    @Override
+    public String getUsername() {
+        return user.getUsername();
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return user.getStatus() != UserStatus.DISABLED;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        user.setPassword(null);
+    }
+}
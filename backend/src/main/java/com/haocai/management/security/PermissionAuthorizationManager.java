@@ -0,0 +1,198 @@
+package com.haocai.management.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @RequiresPermission方法授权管理器
+ * <p>
+ * 职责：
+ * 1. 第一次调用某个方法时解析其@RequiresPermission注解，编译为授权规则并按Method缓存
+ * 2. 校验登录状态，并通过权限位图判断是否拥有所需权限
+ * <p>
+ * 设计原则：
+ * - 不解析也不执行SpEL，授权判断只有一次缓存查找和若干次位运算
+ * - 权限编码的位编号随权限快照版本缓存在规则中，快照变化时重新解析
+ * - 权限位图优先取请求认证上下文（认证过滤器已从权限快照取得），其次取权限快照中的用户位图，
+ *   都不可用时（如测试中的模拟用户）退回比较GrantedAuthority
+ * - 授权结果为共享的不可变对象，不在每次调用时创建
+ */
+@Component
+public class PermissionAuthorizationManager implements AuthorizationManager<MethodInvocation> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final AuthorityResolver authorityResolver;
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    /**
+     * 方法 -> 编译后的授权规则
+     */
+    private final Map<Method, PermissionRule> rules = new ConcurrentHashMap<>();
+
+    public PermissionAuthorizationManager(AuthorityResolver authorityResolver) {
+        this.authorityResolver = authorityResolver;
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, MethodInvocation invocation) {
+        PermissionRule rule = getRule(invocation);
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated() || trustResolver.isAnonymous(auth)) {
+            return DENIED;
+        }
+        if (rule.codes.length == 0) {
+            return GRANTED;
+        }
+        return hasAll(rule, auth) ? GRANTED : DENIED;
+    }
+
+    /**
+     * 获取方法的授权规则（按Method缓存）
+     *
+     * @param invocation 方法调用
+     * @return 授权规则
+     */
+    PermissionRule getRule(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        PermissionRule rule = rules.get(method);
+        if (rule == null) {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+            rule = rules.computeIfAbsent(method, key -> compile(key, targetClass));
+        }
+        return rule;
+    }
+
+    /**
+     * 判断是否拥有规则要求的全部权限
+     */
+    private boolean hasAll(PermissionRule rule, Authentication authentication) {
+        AuthoritySnapshot snapshot = authorityResolver.getSnapshot();
+        long[] bits = currentPermissionBits(authentication, snapshot);
+        if (bits == null) {
+            return hasAllAuthorities(rule.codes, authentication);
+        }
+        int[] indexes = rule.indexesFor(snapshot);
+        for (int index : indexes) {
+            int word = index >>> 6;
+            if (index < 0 || word >= bits.length || (bits[word] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 获取当前用户的权限位图
+     *
+     * @return 权限位图，无法确定时返回null
+     */
+    private long[] currentPermissionBits(Authentication authentication, AuthoritySnapshot snapshot) {
+        AuthContext context = AuthContext.current();
+        if (context != null && context.getPermissionBits() != null) {
+            return context.getPermissionBits();
+        }
+        if (authentication.getPrincipal() instanceof LoginUser loginUser) {
+            return snapshot.forUser(loginUser.getUserId()).permissionBits();
+        }
+        return null;
+    }
+
+    /**
+     * 按GrantedAuthority逐个比较（没有权限位图时使用）
+     */
+    private boolean hasAllAuthorities(String[] codes, Authentication authentication) {
+        for (String code : codes) {
+            boolean found = false;
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                if (code.equals(authority.getAuthority())) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 编译方法的授权规则：方法上的注解优先，其次是类上的注解
+     */
+    private static PermissionRule compile(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        RequiresPermission annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, RequiresPermission.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(targetClass, RequiresPermission.class);
+        }
+        String[] codes = annotation != null ? annotation.value() : new String[0];
+        return new PermissionRule(codes.clone());
+    }
+
+    /**
+     * 编译后的授权规则
+     */
+    static final class PermissionRule {
+
+        /**
+         * 需要的权限编码
+         */
+        private final String[] codes;
+
+        /**
+         * 按快照解析后的位编号（不可变，快照变化时整体替换）
+         */
+        private volatile ResolvedIndexes resolved;
+
+        PermissionRule(String[] codes) {
+            this.codes = codes;
+        }
+
+        String[] getCodes() {
+            return codes;
+        }
+
+        /**
+         * 获取权限编码在指定快照中的位编号
+         */
+        int[] indexesFor(AuthoritySnapshot snapshot) {
+            ResolvedIndexes current = resolved;
+            if (current == null || !current.version().equals(snapshot.getIndexVersion())) {
+                int[] indexes = new int[codes.length];
+                for (int i = 0; i < codes.length; i++) {
+                    indexes[i] = snapshot.indexOf(codes[i]);
+                }
+                current = new ResolvedIndexes(snapshot.getIndexVersion(), indexes);
+                resolved = current;
+            }
+            return current.indexes();
+        }
+    }
+
+    /**
+     * 某个权限索引版本下的位编号
+     *
+     * @param version 权限索引版本
+     * @param indexes 位编号（未知权限为-1）
+     */
+    record ResolvedIndexes(String version, int[] indexes) {
+    }
+}
@@ -0,0 +1,79 @@
+package com.haocai.management.security;
+
+/**
+ * 公开访问的接口路径
+ * <p>
+ * 清单由PublicRouteMatcher预编译，SecurityConfig的permitAll规则和JwtAuthenticationFilter的
+ * 跳过判断共用同一个匹配器，保证两处配置一致：公开接口不需要认证，过滤器也不再为其读取和解析token
+ */
+public final class PublicEndpoints {
+
+    /**
+     * Swagger文档路径
+     */
+    public static final String[] SWAGGER = {
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/v3/api-docs/**",
+            "/swagger-resources/**",
+            "/webjars/**"
+    };
+
+    /**
+     * 健康检查、应用信息、测试和调试接口
+     * <p>
+     * 只公开actuator的health和info，metrics、prometheus等端点包含SQL语句ID、路由和连接池状态，
+     * 需要system权限，见MANAGEMENT_PREFIX
+     */
+    public static final String[] OPERATIONS = {
+            "/actuator/health/**",
+            "/actuator/info",
+            "/api/test/**",
+            "/api/debug/**",
+            "/error"
+    };
+
+    /**
+     * 认证相关的公开接口（登录、注册、续期、JWKS等）
+     */
+    public static final String[] AUTH = {
+            "/api/users/register",
+            "/api/users/login",
+            "/api/users/token/refresh",
+            "/api/users/check/**",
+            "/api/async/users/login",
+            "/api/async/users/check/**",
+            "/api/auth/jwks"
+    };
+
+    /**
+     * 需要认证的接口前缀，前缀之外的请求（静态资源等）均允许匿名访问
+     */
+    public static final String PROTECTED_PREFIX = "/api/";
+
+    /**
+     * actuator管理端点前缀，OPERATIONS之外的端点需要认证并拥有system权限
+     */
+    public static final String MANAGEMENT_PREFIX = "/actuator/";
+
+    /**
+     * 访问actuator管理端点所需的权限，与SQL追踪接口一致
+     */
+    public static final String MANAGEMENT_AUTHORITY = "system";
+
+    private PublicEndpoints() {
+    }
+
+    /**
+     * 全部公开路径
+     *
+     * @return 路径模式数组
+     */
+    public static String[] all() {
+        String[] all = new String[SWAGGER.length + OPERATIONS.length + AUTH.length];
+        System.arraycopy(AUTH, 0, all, 0, AUTH.length);
+        System.arraycopy(OPERATIONS, 0, all, AUTH.length, OPERATIONS.length);
+        System.arraycopy(SWAGGER, 0, all, AUTH.length + OPERATIONS.length, SWAGGER.length);
+        return all;
+    }
+}
@@ -0,0 +1,142 @@
+package com.haocai.management.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 公开路由匹配器
+ * <p>
+ * 职责：
+ * 1. 判断请求是否属于PublicEndpoints清单中的公开路径，作为SecurityConfig的permitAll规则
+ * 2. 判断请求是否可以跳过JWT认证（公开路径，以及/api/之外的静态资源等），作为JwtAuthenticationFilter的跳过条件
+ * <p>
+ * 设计原则：
+ * - 按解码、去掉分号参数和context path后的应用内路径匹配，与Spring MVC选择控制器使用的路径一致，
+ *   /%61pi/...这类编码路径不会被当作/api/之外的请求放行
+ * - 启动时一次性预编译路径模式，匹配时不再解析模式字符串
+ * - 按模式形态分三级匹配：
+ *   1) 不含通配符的路径放入哈希集合，一次查找完成
+ *   2) 形如"/a/b/**"的模式转换为前缀比较
+ *   3) 其余模式使用PathPattern匹配（只有这一级需要构造PathContainer）
+ * - 健康检查、用户名探测等高频公开请求只走前两级，不分配对象
+ */
+@Component
+public class PublicRouteMatcher implements RequestMatcher {
+
+    private static final String MULTI_SEGMENT_SUFFIX = "/**";
+
+    /**
+     * 精确匹配的路径
+     */
+    private final Set<String> exactPaths = new HashSet<>();
+
+    /**
+     * 前缀匹配的路径（以"/"结尾）
+     */
+    private final String[] prefixes;
+
+    /**
+     * 需要完整匹配的路径模式
+     */
+    private final PathPattern[] patterns;
+
+    public PublicRouteMatcher() {
+        this(PublicEndpoints.all());
+    }
+
+    PublicRouteMatcher(String... publicPatterns) {
+        PathPatternParser parser = new PathPatternParser();
+        List<String> prefixList = new ArrayList<>();
+        List<PathPattern> patternList = new ArrayList<>();
+        for (String pattern : publicPatterns) {
+            if (!hasWildcard(pattern)) {
+                exactPaths.add(pattern);
+                continue;
+            }
+            if (pattern.endsWith(MULTI_SEGMENT_SUFFIX)) {
+                String base = pattern.substring(0, pattern.length() - MULTI_SEGMENT_SUFFIX.length());
+                if (!hasWildcard(base)) {
+                    // "/a/b/**"同时匹配"/a/b"本身
+                    exactPaths.add(base);
+                    prefixList.add(base + "/");
+                    continue;
+                }
+            }
+            patternList.add(parser.parse(pattern));
+        }
+        this.prefixes = prefixList.toArray(new String[0]);
+        this.patterns = patternList.toArray(new PathPattern[0]);
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        return matches(pathWithinApplication(request));
+    }
+
+    /**
+     * 判断请求是否可以跳过JWT认证：公开路径，以及/api/和/actuator/之外的请求（静态资源、前端路由等）
+     *
+     * @param request HTTP请求
+     * @return true-不需要读取和解析token
+     */
+    public boolean skipsAuthentication(HttpServletRequest request) {
+        String path = pathWithinApplication(request);
+        if (!path.startsWith(PublicEndpoints.PROTECTED_PREFIX) && !path.startsWith(PublicEndpoints.MANAGEMENT_PREFIX)) {
+            return true;
+        }
+        return matches(path);
+    }
+
+    /**
+     * 获取请求的应用内路径（已解码、去掉分号参数和context path）
+     * <p>
+     * 与Spring MVC路由使用的路径一致，按路径判断请求类别的过滤器都应使用本方法，不能直接使用getRequestURI()
+     *
+     * @param request HTTP请求
+     * @return 应用内路径
+     */
+    public static String pathWithinApplication(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
+    /**
+     * 判断应用内路径是否属于公开路径清单
+     *
+     * @param path 应用内路径（已解码，不含context path）
+     * @return true-公开访问
+     */
+    public boolean matches(String path) {
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+        for (String prefix : prefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        if (patterns.length == 0) {
+            return false;
+        }
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(pathContainer)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasWildcard(String pattern) {
+        return pattern.indexOf('*') >= 0 || pattern.indexOf('?') >= 0 || pattern.indexOf('{') >= 0;
+    }
+}
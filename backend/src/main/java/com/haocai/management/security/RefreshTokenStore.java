@@ -0,0 +1,116 @@
+package com.haocai.management.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * refresh token登记表
+ * <p>
+ * 职责：
+ * 1. 登记已签发的refresh token（以jti为键）
+ * 2. 续期时原子地消费refresh token，保证每个refresh token只能使用一次（轮换）
+ * 3. 用户被禁用、删除时吊销其全部refresh token
+ * 4. 定期清理已过期的登记记录
+ * <p>
+ * 设计原则：
+ * - 内存存储，续期只涉及一次哈希表操作，课前集中续期时开销可忽略
+ * - 消费使用ConcurrentHashMap.remove，天然原子，同一refresh token并发续期只有一个成功
+ * <p>
+ * 注意：登记表保存在单个节点内存中，节点重启后已签发的refresh token失效，用户需重新登录
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    /**
+     * 已签发且未使用的refresh token：jti -> 会话信息
+     */
+    private final Map<String, RefreshSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 登记新的refresh token
+     *
+     * @param userId 用户ID
+     * @param ttlMillis 有效期（毫秒）
+     * @return 新登记的jti
+     */
+    public String register(Long userId, long ttlMillis) {
+        String tokenId = UUID.randomUUID().toString();
+        sessions.put(tokenId, new RefreshSession(userId, System.currentTimeMillis() + ttlMillis));
+        return tokenId;
+    }
+
+    /**
+     * 消费refresh token
+     * <p>
+     * 成功消费后该jti立即失效，重复使用会返回null
+     *
+     * @param tokenId refresh token的jti
+     * @return 会话信息，不存在、已使用或已过期时返回null
+     */
+    public RefreshSession consume(String tokenId) {
+        if (tokenId == null) {
+            return null;
+        }
+        RefreshSession session = sessions.remove(tokenId);
+        if (session == null || session.expiresAt() < System.currentTimeMillis()) {
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * 吊销指定用户的全部refresh token
+     *
+     * @param userId 用户ID
+     */
+    public void revokeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        sessions.values().removeIf(session -> userId.equals(session.userId()));
+    }
+
+    /**
+     * 批量吊销多个用户的refresh token
+     * <p>
+     * 只遍历一次登记表，避免批量操作时按用户逐个遍历
+     *
+     * @param userIds 用户ID集合
+     */
+    public void revokeUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        Set<Long> revoked = new HashSet<>(userIds);
+        sessions.values().removeIf(session -> revoked.contains(session.userId()));
+    }
+
+    /**
+     * 定期清理已过期的refresh token登记
+     */
+    @Scheduled(fixedDelay = 600000)
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.expiresAt() < now);
+        log.debug("清理过期refresh token完成，清理数量: {}", before - sessions.size());
+    }
+
+    /**
+     * refresh token会话信息
+     *
+     * @param userId 用户ID
+     * @param expiresAt 过期时间戳（毫秒）
+     */
+    public record RefreshSession(Long userId, long expiresAt) {
+    }
+}
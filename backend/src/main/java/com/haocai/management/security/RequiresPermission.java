@@ -0,0 +1,33 @@
+package com.haocai.management.security;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 接口权限注解
+ * <p>
+ * 替代@PreAuthorize的SpEL表达式，由PermissionAuthorizationManager按方法预编译后校验：
+ * - 不指定权限编码：只要求已登录，等价于@PreAuthorize("isAuthenticated()")
+ * - 指定权限编码：要求已登录且拥有全部权限，等价于hasAuthority('a') and hasAuthority('b')
+ * <p>
+ * 可标注在类上，方法上的注解优先
+ *
+ * 使用示例：
+ * <pre>
+ * &#64;RequiresPermission
+ * &#64;RequiresPermission("system:user")
+ * </pre>
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequiresPermission {
+
+    /**
+     * 需要的权限编码（sys_permission.code），为空表示只要求已登录
+     */
+    String[] value() default {};
+}
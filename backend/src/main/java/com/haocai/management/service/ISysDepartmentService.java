@@ -0,0 +1,67 @@
+package com.haocai.management.service;
+
+import com.haocai.management.common.DepartmentTree;
+import com.haocai.management.dto.DepartmentDTO;
+import com.haocai.management.dto.DepartmentTreeVO;
+import com.haocai.management.entity.SysDepartment;
+
+import java.util.List;
+
+/**
+ * 部门业务逻辑接口
+ * 定义部门管理及部门树查询相关的业务方法
+ */
+public interface ISysDepartmentService {
+
+    /**
+     * 获取完整部门树
+     * @return 顶级部门节点列表
+     */
+    List<DepartmentTreeVO> getTree();
+
+    /**
+     * 根据ID查找部门
+     * @param departmentId 部门ID
+     * @return 部门信息
+     */
+    SysDepartment findById(Long departmentId);
+
+    /**
+     * 新增部门
+     * @param departmentDTO 部门信息
+     * @return 新增的部门
+     */
+    SysDepartment createDepartment(DepartmentDTO departmentDTO);
+
+    /**
+     * 修改部门
+     * 修改上级部门时不允许移动到自身或自身的下级部门之下
+     * @param departmentId 部门ID
+     * @param departmentDTO 部门信息
+     * @return 修改后的部门
+     */
+    SysDepartment updateDepartment(Long departmentId, DepartmentDTO departmentDTO);
+
+    /**
+     * 删除部门
+     * 存在下级部门或部门下仍有用户时不允许删除
+     * @param departmentId 部门ID
+     * @return 是否成功
+     */
+    boolean deleteDepartment(Long departmentId);
+
+    /**
+     * 获取部门及其全部下级部门的ID
+     * 基于内存中的部门树快照，不访问数据库
+     * @param departmentId 部门ID
+     * @param includeSelf 是否包含部门本身
+     * @return 部门ID列表（只读），部门不存在时返回空列表
+     */
+    List<Long> getDescendantIds(Long departmentId, boolean includeSelf);
+
+    /**
+     * 获取当前部门树快照
+     * @return 部门树快照
+     */
+    DepartmentTree getSnapshot();
+}
@@ -2,6 +2,8 @@ package com.haocai.management.service;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.haocai.management.dto.DepartmentUserStatsVO;
+import com.haocai.management.dto.TokenPairVO;
 import com.haocai.management.dto.UserLoginDTO;
 import com.haocai.management.dto.UserRegisterDTO;
 import com.haocai.management.dto.UserUpdateDTO;
@@ -9,6 +11,7 @@ import com.haocai.management.entity.SysUser;
 import com.haocai.management.entity.UserStatus;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户业务逻辑接口
@@ -30,6 +33,21 @@ public interface ISysUserService {
      */
     String login(UserLoginDTO loginDTO);
 
+    /**
+     * 为用户签发refresh token
+     * @param user 已登录的用户
+     * @return refresh token
+     */
+    String createRefreshToken(SysUser user);
+
+    /**
+     * 使用refresh token续期
+     * 校验并消费旧的refresh token，签发新的access token和refresh token，不需要密码校验
+     * @param refreshToken 旧的refresh token
+     * @return 新的token对
+     */
+    TokenPairVO refreshToken(String refreshToken);
+
     /**
      * 根据用户名查找用户
      * @param username 用户名
@@ -73,6 +91,33 @@ public interface ISysUserService {
     IPage<SysUser> findUserPage(Page<SysUser> page, String username, String name,
                                UserStatus status, Long departmentId);
 
+    /**
+     * 分页查询用户列表，可按部门及其下级部门过滤
+     * @param page 分页参数
+     * @param username 用户名（模糊查询）
+     * @param name 真实姓名（模糊查询）
+     * @param status 用户状态
+     * @param departmentId 部门ID
+     * @param includeChildren 是否包含下级部门的用户
+     * @return 分页结果
+     */
+    IPage<SysUser> findUserPage(Page<SysUser> page, String username, String name,
+                               UserStatus status, Long departmentId, boolean includeChildren);
+
+    /**
+     * 统计各部门的用户数
+     * 基于内存中的用户统计计数和部门树，不扫描用户表
+     * @return 各部门用户统计（按部门树先序排列）
+     */
+    List<DepartmentUserStatsVO> getDepartmentUserStats();
+
+    /**
+     * 统计各状态的用户数
+     * 基于内存中的用户统计计数，不扫描用户表
+     * @return 用户状态 -> 用户数
+     */
+    Map<UserStatus, Long> getStatusUserStats();
+
     /**
      * 批量更新用户状态
      * @param userIds 用户ID列表
@@ -0,0 +1,266 @@
+package com.haocai.management.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.haocai.management.cache.TableVersionRegistry;
+import com.haocai.management.common.DepartmentTree;
+import com.haocai.management.dto.DepartmentDTO;
+import com.haocai.management.dto.DepartmentTreeVO;
+import com.haocai.management.entity.SysDepartment;
+import com.haocai.management.exception.BusinessException;
+import com.haocai.management.mapper.SysDepartmentMapper;
+import com.haocai.management.service.ISysDepartmentService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 部门业务逻辑实现类
+ * <p>
+ * 部门树以不可变快照的形式常驻内存：
+ * - 启动时整体加载，加载失败不影响应用启动，定期刷新时自动重试
+ * - 本节点修改部门后在事务提交后重建，避免读到未提交的数据
+ * - 定期比对部门表的变更指纹，捕获其他节点或直接在数据库中的修改
+ * - 每次替换快照后递增部门表版本号，依赖部门树的响应据此重新生成ETag
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SysDepartmentServiceImpl implements ISysDepartmentService {
+
+    private final SysDepartmentMapper departmentMapper;
+    private final TableVersionRegistry tableVersions;
+
+    /**
+     * 当前部门树快照
+     */
+    private volatile DepartmentTree snapshot = DepartmentTree.EMPTY;
+
+    /**
+     * 构建当前快照时的部门表变更指纹，为null表示尚未成功加载
+     */
+    private volatile String fingerprint;
+
+    /**
+     * 串行化部门树重建
+     */
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    /**
+     * 应用启动完成后加载部门树
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("部门树加载失败，稍后自动重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定期检查部门表是否变化，变化时重建部门树
+     */
+    @Scheduled(fixedDelayString = "${department.tree.refresh-interval:60000}")
+    public void refreshIfChanged() {
+        try {
+            String current = departmentMapper.selectFingerprint();
+            if (!Objects.equals(current, fingerprint)) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("部门树刷新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 重新加载全部部门
+     * <p>
+     * 修改部门的请求在事务提交后于请求线程上调用，使用ReentrantLock而不是synchronized，
+     * 虚拟线程在锁内等待数据库时不会额外钉住载体线程
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            String currentFingerprint = departmentMapper.selectFingerprint();
+            DepartmentTree rebuilt = DepartmentTree.build(departmentMapper.selectList(null));
+            snapshot = rebuilt;
+            fingerprint = currentFingerprint;
+            tableVersions.bumpLocal(TableVersionRegistry.SYS_DEPARTMENT);
+            log.info("部门树加载完成，部门数量: {}", rebuilt.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Override
+    public List<DepartmentTreeVO> getTree() {
+        return snapshot.toTreeVO();
+    }
+
+    @Override
+    public SysDepartment findById(Long departmentId) {
+        return departmentMapper.selectById(departmentId);
+    }
+
+    @Override
+    @Transactional
+    public SysDepartment createDepartment(DepartmentDTO departmentDTO) {
+        log.info("开始新增部门，名称: {}, 上级部门: {}", departmentDTO.getName(), departmentDTO.getParentId());
+
+        checkCodeUnique(departmentDTO.getCode(), null);
+
+        SysDepartment department = new SysDepartment();
+        department.setName(departmentDTO.getName());
+        department.setCode(StringUtils.hasText(departmentDTO.getCode()) ? departmentDTO.getCode() : null);
+        department.setParentId(departmentDTO.getParentId());
+        department.setLevel(resolveLevel(departmentDTO.getParentId()));
+        department.setSortOrder(departmentDTO.getSortOrder() != null ? departmentDTO.getSortOrder() : 0);
+        department.setStatus(departmentDTO.getStatus() != null ? departmentDTO.getStatus() : SysDepartment.STATUS_NORMAL);
+        departmentMapper.insert(department);
+
+        reloadAfterCommit();
+        log.info("部门新增成功，部门ID: {}", department.getId());
+        return department;
+    }
+
+    @Override
+    @Transactional
+    public SysDepartment updateDepartment(Long departmentId, DepartmentDTO departmentDTO) {
+        log.info("开始修改部门，部门ID: {}", departmentId);
+
+        SysDepartment department = departmentMapper.selectById(departmentId);
+        if (department == null) {
+            throw BusinessException.dataNotFound("部门不存在");
+        }
+        checkCodeUnique(departmentDTO.getCode(), departmentId);
+
+        Long parentId = departmentDTO.getParentId();
+        if (parentId != null && snapshot.isDescendant(departmentId, parentId)) {
+            throw BusinessException.paramError("上级部门不能是部门本身或其下级部门");
+        }
+        boolean parentChanged = !Objects.equals(parentId, department.getParentId());
+
+        department.setName(departmentDTO.getName());
+        department.setCode(StringUtils.hasText(departmentDTO.getCode()) ? departmentDTO.getCode() : null);
+        department.setParentId(parentId);
+        if (departmentDTO.getSortOrder() != null) {
+            department.setSortOrder(departmentDTO.getSortOrder());
+        }
+        if (departmentDTO.getStatus() != null) {
+            department.setStatus(departmentDTO.getStatus());
+        }
+        int level = resolveLevel(parentId);
+        int levelDelta = level - (department.getLevel() != null ? department.getLevel() : 1);
+        department.setLevel(level);
+        departmentMapper.updateById(department);
+
+        // 移动部门时同步调整所有下级部门的层级
+        if (parentChanged && levelDelta != 0) {
+            for (Long descendantId : snapshot.getDescendantIds(departmentId, false)) {
+                SysDepartment descendant = snapshot.get(descendantId);
+                SysDepartment update = new SysDepartment();
+                update.setId(descendantId);
+                update.setLevel((descendant.getLevel() != null ? descendant.getLevel() : 1) + levelDelta);
+                departmentMapper.updateById(update);
+            }
+        }
+
+        reloadAfterCommit();
+        log.info("部门修改成功，部门ID: {}", departmentId);
+        return department;
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteDepartment(Long departmentId) {
+        log.info("开始删除部门，部门ID: {}", departmentId);
+
+        SysDepartment department = departmentMapper.selectById(departmentId);
+        if (department == null) {
+            throw BusinessException.dataNotFound("部门不存在");
+        }
+        Long childCount = departmentMapper.selectCount(new LambdaQueryWrapper<SysDepartment>()
+                .eq(SysDepartment::getParentId, departmentId));
+        if (childCount != null && childCount > 0) {
+            throw BusinessException.operationFailed("存在下级部门，不能删除");
+        }
+        if (departmentMapper.countUsersByDepartmentId(departmentId) > 0) {
+            throw BusinessException.operationFailed("部门下仍有用户，不能删除");
+        }
+
+        boolean deleted = departmentMapper.deleteById(departmentId) > 0;
+        reloadAfterCommit();
+        log.info("部门删除完成，部门ID: {}, 结果: {}", departmentId, deleted);
+        return deleted;
+    }
+
+    @Override
+    public List<Long> getDescendantIds(Long departmentId, boolean includeSelf) {
+        return snapshot.getDescendantIds(departmentId, includeSelf);
+    }
+
+    @Override
+    public DepartmentTree getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 校验部门编码唯一
+     */
+    private void checkCodeUnique(String code, Long excludeId) {
+        if (!StringUtils.hasText(code)) {
+            return;
+        }
+        LambdaQueryWrapper<SysDepartment> wrapper = new LambdaQueryWrapper<SysDepartment>()
+                .eq(SysDepartment::getCode, code)
+                .ne(excludeId != null, SysDepartment::getId, excludeId);
+        if (departmentMapper.selectCount(wrapper) > 0) {
+            throw BusinessException.paramError("部门编码已存在");
+        }
+    }
+
+    /**
+     * 根据上级部门计算层级
+     */
+    private int resolveLevel(Long parentId) {
+        if (parentId == null) {
+            return 1;
+        }
+        SysDepartment parent = departmentMapper.selectById(parentId);
+        if (parent == null) {
+            throw BusinessException.paramError("上级部门不存在");
+        }
+        return (parent.getLevel() != null ? parent.getLevel() : 1) + 1;
+    }
+
+    /**
+     * 事务提交后重建部门树；不在事务中时立即重建
+     */
+    private void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    reload();
+                } catch (Exception e) {
+                    log.warn("部门树重建失败，等待定期刷新: {}", e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -2,18 +2,33 @@ package com.haocai.management.service.impl;
 
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.haocai.management.cache.TableVersionRegistry;
+import com.haocai.management.common.DepartmentTree;
+import com.haocai.management.config.DbBulkheads;
+import com.haocai.management.converter.UserConverter;
+import com.haocai.management.datasource.ReadYourWritesTracker;
+import com.haocai.management.dto.DepartmentUserStatsVO;
+import com.haocai.management.dto.TokenPairVO;
 import com.haocai.management.dto.UserLoginDTO;
 import com.haocai.management.dto.UserRegisterDTO;
 import com.haocai.management.dto.UserUpdateDTO;
+import com.haocai.management.entity.SysDepartment;
 import com.haocai.management.entity.SysUser;
 import com.haocai.management.entity.SysUserLoginLog;
 import com.haocai.management.entity.UserStatus;
+import com.haocai.management.exception.BulkheadFullException;
 import com.haocai.management.exception.BusinessException;
 import com.haocai.management.mapper.SysUserLoginLogMapper;
 import com.haocai.management.mapper.SysUserMapper;
-import com.haocai.management.mapper.SysUserMapper;
+import com.haocai.management.security.AuthContext;
+import com.haocai.management.security.AuthoritySnapshot;
+import com.haocai.management.security.AuthorityResolver;
+import com.haocai.management.security.LoginUser;
+import com.haocai.management.security.RefreshTokenStore;
+import com.haocai.management.service.ISysDepartmentService;
 import com.haocai.management.service.ISysUserService;
 import com.haocai.management.utils.JwtUtils;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
@@ -21,15 +36,22 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * 用户业务逻辑实现类
@@ -46,11 +68,28 @@ public class SysUserServiceImpl implements ISysUserService {
     @Lazy
     private final AuthenticationManager authenticationManager;
     private final JwtUtils jwtUtils;
+    private final RefreshTokenStore refreshTokenStore;
+    private final AuthorityResolver authorityResolver;
+    private final ISysDepartmentService departmentService;
+    private final UserStatsCounter userStatsCounter;
+    private final DbBulkheads dbBulkheads;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final TableVersionRegistry tableVersions;
+
+    /**
+     * 最近一次检查时的用户表变更指纹
+     */
+    private volatile String tableFingerprint;
+
+    /**
+     * 最近一次检查时本节点的用户表版本号
+     */
+    private volatile long checkedTableVersion;
 
     @Override
     @Transactional
     public SysUser register(UserRegisterDTO registerDTO) {
-        log.info("开始用户注册，用户名: {}", registerDTO.getUsername());
+        log.debug("开始用户注册，用户名: {}", registerDTO.getUsername());
 
         // 1. 检查用户名是否已存在
         if (existsByUsername(registerDTO.getUsername())) {
@@ -68,18 +107,7 @@ public class SysUserServiceImpl implements ISysUserService {
         }
 
         // 4. 创建用户对象
-        SysUser user = new SysUser();
-        user.setUsername(registerDTO.getUsername());
-        user.setPassword(passwordEncoder.encode(registerDTO.getPassword())); // 密码加密
-        user.setName(registerDTO.getName());
-        user.setEmail(registerDTO.getEmail());
-        user.setPhone(registerDTO.getPhone());
-        user.setAvatar(registerDTO.getAvatar());
-        user.setDepartmentId(registerDTO.getDepartmentId());
-        user.setStatus(UserStatus.NORMAL); // 新注册用户默认为正常状态
-        user.setDeleted(0); // 未删除
-        user.setCreateTime(LocalDateTime.now());
-        user.setUpdateTime(LocalDateTime.now());
+        SysUser user = UserConverter.toEntity(registerDTO, passwordEncoder.encode(registerDTO.getPassword()));
 
         // 5. 保存用户
         int result = sysUserMapper.insert(user);
@@ -87,6 +115,8 @@ public class SysUserServiceImpl implements ISysUserService {
             log.error("用户注册失败，插入数据库失败，用户名: {}", registerDTO.getUsername());
             throw BusinessException.operationFailed("用户注册失败");
         }
+        userStatsCounter.userCreated(user.getDepartmentId(), user.getStatus());
+        markWrite(Collections.singletonList(user.getDepartmentId()));
 
         log.info("用户注册成功，用户ID: {}, 用户名: {}", user.getId(), user.getUsername());
         return user;
@@ -94,7 +124,7 @@ public class SysUserServiceImpl implements ISysUserService {
 
     @Override
     public String login(UserLoginDTO loginDTO) {
-        log.info("开始用户登录，用户名: {}", loginDTO.getUsername());
+        log.debug("开始用户登录，用户名: {}", loginDTO.getUsername());
 
         try {
             // 遵循：安全规范-使用AuthenticationManager进行认证
@@ -108,12 +138,14 @@ public class SysUserServiceImpl implements ISysUserService {
             );
 
             // 2. 认证成功后，从Authentication对象中获取用户信息
-            // 注意：这里使用的是Spring Security的UserDetails，不是我们的SysUser
+            // LoginUser已携带认证时加载的SysUser，无需再次查询
             Object principal = authentication.getPrincipal();
             log.debug("认证成功，principal类型: {}", principal.getClass().getName());
 
-            // 3. 重新查询用户信息以获取完整的SysUser对象
-            SysUser user = findByUsername(loginDTO.getUsername());
+            // 3. 获取完整的SysUser对象（principal不是LoginUser时重新查询）
+            SysUser user = principal instanceof LoginUser loginUser
+                    ? loginUser.getUser()
+                    : findByUsername(loginDTO.getUsername());
             if (user == null) {
                 log.error("认证成功但未找到用户信息，用户名: {}", loginDTO.getUsername());
                 throw BusinessException.userNotFound();
@@ -133,25 +165,24 @@ public class SysUserServiceImpl implements ISysUserService {
             }
 
             // 5. 更新最后登录时间
-            updateLastLoginTime(user.getId());
+            updateLastLoginTime(user.getId(), Collections.singletonList(user.getDepartmentId()));
 
             // 6. 记录登录成功日志
             recordLoginLog(user.getId(), loginDTO.getIpAddress(), true, null);
 
-            // 7. 生成JWT token
+            // 7. 生成短期access token
             // 遵循：安全规范-使用JWT工具类生成token
             // 遵循：配置规范-从配置文件读取过期时间
-            Map<String, Object> claims = new HashMap<>();
-            claims.put("userId", user.getId());
-            claims.put("username", user.getUsername());
-            claims.put("name", user.getName());
-            
-            String token = jwtUtils.generateToken(claims, null);
+            String token = generateAccessToken(user);
             
             log.info("用户登录成功，用户名: {}, 用户ID: {}", user.getUsername(), user.getId());
             return token;
 
         } catch (AuthenticationException e) {
+            // 加载用户时隔离舱已满，不属于认证失败，原样抛出由调用方返回503
+            if (e.getCause() instanceof BulkheadFullException busy) {
+                throw busy;
+            }
             // 遵循：异常处理规范-完善的异常处理
             // 认证失败（用户名或密码错误）
             log.warn("用户登录失败，认证失败，用户名: {}, 原因: {}", 
@@ -175,6 +206,64 @@ public class SysUserServiceImpl implements ISysUserService {
         }
     }
 
+    @Override
+    public String createRefreshToken(SysUser user) {
+        long ttl = jwtUtils.getRefreshExpiration();
+        String tokenId = refreshTokenStore.register(user.getId(), ttl);
+        return jwtUtils.generateRefreshToken(user.getId(), user.getUsername(), tokenId);
+    }
+
+    @Override
+    public TokenPairVO refreshToken(String refreshToken) {
+        // 1. 校验签名和有效期（不涉及密码校验，无BCrypt开销）
+        Claims claims = jwtUtils.parseToken(refreshToken);
+        if (!jwtUtils.isRefreshToken(claims)) {
+            log.warn("token续期失败，提交的不是refresh token");
+            throw new BusinessException(401, "refresh token无效");
+        }
+
+        // 2. 消费旧的refresh token，每个refresh token只能使用一次
+        RefreshTokenStore.RefreshSession session = refreshTokenStore.consume(claims.getId());
+        if (session == null) {
+            log.warn("token续期失败，refresh token已使用或已失效，jti: {}", claims.getId());
+            throw new BusinessException(401, "refresh token已失效，请重新登录");
+        }
+
+        // 3. 重新加载用户，确认用户仍然可用
+        SysUser user = findById(session.userId());
+        if (user == null) {
+            throw BusinessException.userNotFound();
+        }
+        if (user.getStatus() == UserStatus.DISABLED) {
+            throw BusinessException.userDisabled();
+        }
+        if (user.getStatus() == UserStatus.LOCKED) {
+            throw BusinessException.userLocked();
+        }
+
+        // 4. 签发新的token对
+        log.debug("token续期成功，用户ID: {}", user.getId());
+        return new TokenPairVO(generateAccessToken(user), createRefreshToken(user),
+                jwtUtils.getAccessExpiration() / 1000);
+    }
+
+    /**
+     * 为用户生成access token
+     *
+     * @param user 用户信息
+     * @return access token
+     */
+    private String generateAccessToken(SysUser user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put("username", user.getUsername());
+        claims.put("name", user.getName());
+        // 权限以位图写入token，版本号与位图取自同一份快照
+        AuthoritySnapshot snapshot = authorityResolver.getSnapshot();
+        return jwtUtils.generateAccessToken(claims, snapshot.getIndexVersion(),
+                snapshot.forUser(user.getId()).permissionBits());
+    }
+
     @Override
     public SysUser findByUsername(String username) {
         return sysUserMapper.selectByUsername(username);
@@ -188,7 +277,7 @@ public class SysUserServiceImpl implements ISysUserService {
     @Override
     @Transactional
     public SysUser updateUser(Long userId, UserUpdateDTO updateDTO) {
-        log.info("开始更新用户信息，用户ID: {}", userId);
+        log.debug("开始更新用户信息，用户ID: {}", userId);
 
         // 1. 检查用户是否存在
         SysUser existingUser = findById(userId);
@@ -211,20 +300,19 @@ public class SysUserServiceImpl implements ISysUserService {
         }
 
         // 4. 更新用户信息
-        SysUser updateUser = new SysUser();
-        updateUser.setId(userId);
-        updateUser.setName(updateDTO.getName());
-        updateUser.setEmail(updateDTO.getEmail());
-        updateUser.setPhone(updateDTO.getPhone());
-        updateUser.setAvatar(updateDTO.getAvatar());
-        updateUser.setDepartmentId(updateDTO.getDepartmentId());
-        updateUser.setUpdateTime(LocalDateTime.now());
+        SysUser updateUser = UserConverter.toUpdateEntity(userId, updateDTO);
 
         int result = sysUserMapper.updateById(updateUser);
         if (result <= 0) {
             log.error("更新用户信息失败，用户ID: {}", userId);
             throw BusinessException.operationFailed("更新用户信息失败");
         }
+        // 部门为空表示不修改部门
+        if (updateDTO.getDepartmentId() != null) {
+            userStatsCounter.departmentChanged(existingUser.getDepartmentId(), updateDTO.getDepartmentId());
+        }
+
+        markWrite(Arrays.asList(existingUser.getDepartmentId(), updateDTO.getDepartmentId()));
 
         // 5. 返回更新后的用户信息
         SysUser updatedUser = findById(userId);
@@ -235,7 +323,7 @@ public class SysUserServiceImpl implements ISysUserService {
     @Override
     @Transactional
     public boolean updateUserStatus(Long userId, UserStatus status, Long updateBy) {
-        log.info("开始更新用户状态，用户ID: {}, 新状态: {}, 操作人: {}", userId, status, updateBy);
+        log.debug("开始更新用户状态，用户ID: {}, 新状态: {}, 操作人: {}", userId, status, updateBy);
 
         // 1. 检查用户是否存在
         SysUser user = findById(userId);
@@ -259,27 +347,143 @@ public class SysUserServiceImpl implements ISysUserService {
             log.error("更新用户状态失败，用户ID: {}", userId);
             return false;
         }
+        userStatsCounter.statusChanged(user.getStatus(), status);
+        markWrite(Collections.singletonList(user.getDepartmentId()));
+
+        // 3. 非正常状态的用户不允许再续期
+        if (status != UserStatus.NORMAL) {
+            refreshTokenStore.revokeUser(userId);
+        }
 
         log.info("用户状态更新成功，用户ID: {}, 新状态: {}", userId, status);
         return true;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public IPage<SysUser> findUserPage(Page<SysUser> page, String username, String name,
                                      UserStatus status, Long departmentId) {
         return sysUserMapper.selectUserPage(page, username, name,
-                                          status != null ? status.getCode() : null, departmentId);
+                                          status != null ? status.getCode() : null, departmentId, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public IPage<SysUser> findUserPage(Page<SysUser> page, String username, String name,
+                                     UserStatus status, Long departmentId, boolean includeChildren) {
+        if (!includeChildren || departmentId == null) {
+            return findUserPage(page, username, name, status, departmentId);
+        }
+        // 部门及其下级部门的ID直接取自内存中的部门树快照；部门不在快照中时按单个部门查询
+        List<Long> departmentIds = departmentService.getDescendantIds(departmentId, true);
+        return sysUserMapper.selectUserPage(page, username, name,
+                                          status != null ? status.getCode() : null, departmentId,
+                                          departmentIds.isEmpty() ? null : departmentIds);
+    }
+
+    @Override
+    public List<DepartmentUserStatsVO> getDepartmentUserStats() {
+        DepartmentTree tree = departmentService.getSnapshot();
+        Map<Long, Long> counts = userStatsCounter.getDepartmentCounts();
+
+        // 逆先序遍历时下级部门总是先于上级部门处理，一次遍历即可汇总子树用户数
+        List<Long> preorderIds = tree.getPreorderIds();
+        Map<Long, Long> totals = new HashMap<>(preorderIds.size() * 2);
+        for (int i = preorderIds.size() - 1; i >= 0; i--) {
+            Long departmentId = preorderIds.get(i);
+            long total = totals.getOrDefault(departmentId, 0L) + counts.getOrDefault(departmentId, 0L);
+            totals.put(departmentId, total);
+            Long parentId = tree.get(departmentId).getParentId();
+            if (parentId != null && tree.isDescendant(parentId, departmentId)) {
+                totals.merge(parentId, total, Long::sum);
+            }
+        }
+
+        List<DepartmentUserStatsVO> result = new ArrayList<>(preorderIds.size());
+        for (Long departmentId : preorderIds) {
+            SysDepartment department = tree.get(departmentId);
+            result.add(toDepartmentUserStats(departmentId, department.getName(), department.getParentId(),
+                    counts.getOrDefault(departmentId, 0L), totals.get(departmentId)));
+        }
+        // 用户引用了部门树中不存在的部门时单独列出
+        counts.forEach((departmentId, count) -> {
+            if (!tree.contains(departmentId)) {
+                result.add(toDepartmentUserStats(departmentId, null, null, count, count));
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public Map<UserStatus, Long> getStatusUserStats() {
+        Map<UserStatus, Long> result = new EnumMap<>(UserStatus.class);
+        for (UserStatus status : UserStatus.values()) {
+            result.put(status, userStatsCounter.getStatusCount(status));
+        }
+        return result;
+    }
+
+    /**
+     * 定期检查用户表是否有直接改库等未经版本登记的修改，有则递增本节点的用户表版本号
+     * <p>
+     * 登录、用户管理等修改以及其他节点同步来的修改都已按部门递增过版本号，
+     * 只有指纹变化而上次检查以来版本号没有变化时，才视为未登记的修改并使全部部门的版本号变化；
+     * 否则只记录新的指纹，登录等频繁的修改不会使其他部门的ETag失效。
+     * 同一检查间隔内既有登记的修改又有直接改库时，直接改库要等到其他部门下次修改时才会体现
+     */
+    @Scheduled(fixedDelayString = "${user.version.check-interval:60000}")
+    public void checkTableChanged() {
+        try {
+            // 先取版本号再查指纹：二者之间提交的修改只会被当作未登记的修改，多递增一次
+            long version = tableVersions.current(TableVersionRegistry.SYS_USER);
+            String current = sysUserMapper.selectFingerprint();
+            if (tableFingerprint != null && !Objects.equals(current, tableFingerprint)
+                    && version == checkedTableVersion) {
+                tableVersions.bumpLocal(TableVersionRegistry.SYS_USER);
+                version = tableVersions.current(TableVersionRegistry.SYS_USER);
+            }
+            tableFingerprint = current;
+            checkedTableVersion = version;
+        } catch (Exception e) {
+            log.warn("用户表变更检查失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 登记当前用户修改了用户数据：
+     * - 粘滞窗口内其只读查询访问主库（读己之写）
+     * - 事务提交后递增用户表及相关部门的版本号
+     *
+     * @param departmentIds 被修改的用户修改前后所属的部门
+     */
+    private void markWrite(Collection<Long> departmentIds) {
+        readYourWritesTracker.markWrite(AuthContext.currentUserId());
+        tableVersions.bumpAfterCommit(TableVersionRegistry.SYS_USER, departmentIds);
+    }
+
+    private static DepartmentUserStatsVO toDepartmentUserStats(Long departmentId, String name, Long parentId,
+                                                              long userCount, long totalUserCount) {
+        DepartmentUserStatsVO stats = new DepartmentUserStatsVO();
+        stats.setDepartmentId(departmentId);
+        stats.setDepartmentName(name);
+        stats.setParentId(parentId);
+        stats.setUserCount(userCount);
+        stats.setTotalUserCount(totalUserCount);
+        return stats;
     }
 
     @Override
     @Transactional
     public int batchUpdateStatus(List<Long> userIds, UserStatus status, Long updateBy) {
-        log.info("开始批量更新用户状态，用户数量: {}, 新状态: {}, 操作人: {}", userIds.size(), status, updateBy);
+        log.debug("开始批量更新用户状态，用户数量: {}, 新状态: {}, 操作人: {}", userIds.size(), status, updateBy);
 
         if (userIds == null || userIds.isEmpty()) {
             return 0;
         }
 
+        // 更新前的状态用于增量维护用户统计计数
+        List<SysUser> users = sysUserMapper.selectBatchIds(userIds);
+
         // 使用MyBatis-Plus的UpdateWrapper批量更新状态
         SysUser updateUser = new SysUser();
         updateUser.setStatus(status);
@@ -292,6 +496,13 @@ public class SysUserServiceImpl implements ISysUserService {
         updateWrapper.eq("deleted", 0);
 
         int result = sysUserMapper.update(updateUser, updateWrapper);
+        for (SysUser user : users) {
+            userStatsCounter.statusChanged(user.getStatus(), status);
+        }
+        markWrite(users.stream().map(SysUser::getDepartmentId).toList());
+        if (status != UserStatus.NORMAL) {
+            refreshTokenStore.revokeUsers(userIds);
+        }
         log.info("批量更新用户状态完成，影响用户数量: {}", result);
         return result;
     }
@@ -299,7 +510,7 @@ public class SysUserServiceImpl implements ISysUserService {
     @Override
     @Transactional
     public boolean deleteUser(Long userId, Long deleteBy) {
-        log.info("开始删除用户，用户ID: {}, 操作人: {}", userId, deleteBy);
+        log.debug("开始删除用户，用户ID: {}, 操作人: {}", userId, deleteBy);
 
         // 1. 检查用户是否存在
         SysUser user = findById(userId);
@@ -314,6 +525,9 @@ public class SysUserServiceImpl implements ISysUserService {
             return false;
         }
 
+        userStatsCounter.userRemoved(user.getDepartmentId(), user.getStatus());
+        markWrite(Collections.singletonList(user.getDepartmentId()));
+        refreshTokenStore.revokeUser(userId);
         log.info("用户删除成功，用户ID: {}", userId);
         return true;
     }
@@ -321,7 +535,7 @@ public class SysUserServiceImpl implements ISysUserService {
     @Override
     @Transactional
     public int batchDeleteUsers(List<Long> userIds, Long deleteBy) {
-        log.info("开始批量删除用户，用户数量: {}, 操作人: {}", userIds.size(), deleteBy);
+        log.debug("开始批量删除用户，用户数量: {}, 操作人: {}", userIds.size(), deleteBy);
 
         if (userIds == null || userIds.isEmpty()) {
             return 0;
@@ -377,17 +591,21 @@ public class SysUserServiceImpl implements ISysUserService {
             
             SysUserLoginLog loginLog = new SysUserLoginLog();
             loginLog.setUserId(userId);
-            
-            SysUser user = findById(userId);
-            if (user != null) {
-                loginLog.setUsername(user.getUsername());
-            }
             loginLog.setLoginIp(loginIp);
             loginLog.setLoginTime(LocalDateTime.now());
             loginLog.setLoginSuccess(success);
             loginLog.setFailReason(failReason);
 
-            loginLogMapper.insert(loginLog);
+            // 在log-write隔离舱内写入，日志写入积压时不占用认证和业务查询的连接
+            dbBulkheads.logWrite().run(() -> {
+                SysUser user = findById(userId);
+                if (user != null) {
+                    loginLog.setUsername(user.getUsername());
+                }
+                loginLogMapper.insert(loginLog);
+            });
+        } catch (BulkheadFullException e) {
+            log.warn("登录日志写入繁忙，跳过记录，用户ID: {}", userId);
         } catch (Exception e) {
             log.error("记录登录日志失败: {}", e.getMessage(), e);
             // 登录日志记录失败不应该影响正常业务流程
@@ -396,6 +614,16 @@ public class SysUserServiceImpl implements ISysUserService {
 
     @Override
     public void updateLastLoginTime(Long userId) {
+        updateLastLoginTime(userId, null);
+    }
+
+    /**
+     * 更新最后登录时间
+     *
+     * @param userId        用户ID
+     * @param departmentIds 用户所属部门，为null表示未知（递增全部部门的版本号）
+     */
+    private void updateLastLoginTime(Long userId, Collection<Long> departmentIds) {
         try {
             SysUser updateUser = new SysUser();
             updateUser.setId(userId);
@@ -403,6 +631,11 @@ public class SysUserServiceImpl implements ISysUserService {
             updateUser.setUpdateTime(LocalDateTime.now());
 
             sysUserMapper.updateById(updateUser);
+            if (departmentIds != null) {
+                tableVersions.bump(TableVersionRegistry.SYS_USER, departmentIds);
+            } else {
+                tableVersions.bump(TableVersionRegistry.SYS_USER);
+            }
         } catch (Exception e) {
             log.error("更新用户最后登录时间失败，用户ID: {}", userId, e);
             // 更新登录时间失败不应该影响登录流程
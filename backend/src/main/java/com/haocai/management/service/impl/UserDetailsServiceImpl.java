@@ -1,27 +1,28 @@
 package com.haocai.management.service.impl;
 
+import com.haocai.management.config.DbBulkheads;
 import com.haocai.management.entity.SysUser;
 import com.haocai.management.entity.UserStatus;
 import com.haocai.management.exception.BusinessException;
+import com.haocai.management.security.AuthorityResolver;
+import com.haocai.management.security.LoginUser;
 import com.haocai.management.service.ISysUserService;
+import com.haocai.management.timing.RequestPhase;
+import com.haocai.management.timing.RequestTiming;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-
 /**
  * Spring Security用户详情服务实现
  * <p>
  * 职责：
  * 1. 根据用户名从数据库加载用户信息
- * 2. 将用户信息转换为Spring Security的UserDetails对象
+ * 2. 将用户信息转换为Spring Security的UserDetails对象，权限从AuthorityResolver的快照获取
  * 3. 处理用户状态验证（激活/禁用）
  * <p>
  * 使用场景：
@@ -47,6 +48,12 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Lazy
     private ISysUserService sysUserService;
 
+    @Autowired
+    private AuthorityResolver authorityResolver;
+
+    @Autowired
+    private DbBulkheads dbBulkheads;
+
     /**
      * 根据用户名加载用户详情
      * <p>
@@ -63,15 +70,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        long start = System.nanoTime();
+
         // 步骤1：从数据库查询用户信息
         // 遵循：代码规范-第2条（参数校验）
-        SysUser sysUser = sysUserService.findByUsername(username);
+        // 在auth-read隔离舱内查询，认证流量不会占满整个连接池
+        SysUser sysUser = dbBulkheads.authRead().call(() -> sysUserService.findByUsername(username));
 
         // 步骤2：验证用户是否存在
         if (sysUser == null) {
-            String errorMsg = "用户不存在: " + username;
-            log.warn(errorMsg);
-            throw new UsernameNotFoundException(errorMsg);
+            log.warn("用户不存在 - 用户名: {}", username);
+            throw new UsernameNotFoundException("用户不存在: " + username);
         }
 
         // 步骤3：验证用户状态
@@ -83,21 +92,15 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         }
 
         // 步骤4：构建UserDetails对象
-        // 注意：这里使用空权限列表，实际权限可根据需要从数据库加载
-        // 密码字段可以为null，因为JWT认证时不需要密码验证
-        UserDetails userDetails = User.builder()
-                .username(sysUser.getUsername())
-                .password(sysUser.getPassword())
-                .authorities(Collections.emptyList())
-                .accountExpired(false) // 账户未过期
-                .accountLocked(false) // 账户未锁定
-                .credentialsExpired(false) // 凭证未过期
-                .disabled(sysUser.getStatus() == UserStatus.DISABLED) // 是否禁用
-                .build();
+        // 权限来自内存中的权限快照（角色ROLE_编码 + 权限编码），不额外查询数据库
+        // LoginUser携带完整的SysUser，认证完成后下游无需再次查询用户
+        UserDetails userDetails = new LoginUser(sysUser, authorityResolver.getAuthorities(sysUser.getId()));
 
         // 步骤5：记录日志
-        log.info("用户详情加载成功 - 用户ID: {}, 用户名: {}",
+        // 每个携带token的请求都会执行到这里，只在DEBUG级别记录
+        log.debug("用户详情加载成功 - 用户ID: {}, 用户名: {}",
                 sysUser.getId(), sysUser.getUsername());
+        RequestTiming.record(RequestPhase.USER, System.nanoTime() - start);
 
         return userDetails;
     }
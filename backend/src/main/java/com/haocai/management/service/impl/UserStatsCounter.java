@@ -0,0 +1,247 @@
+package com.haocai.management.service.impl;
+
+import com.haocai.management.entity.UserStatus;
+import com.haocai.management.mapper.SysUserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 用户统计计数器
+ * <p>
+ * 职责：
+ * 1. 在内存中维护各部门的用户数和各状态的用户数（只统计未删除用户）
+ * 2. 用户注册、修改部门、修改状态、删除时增量更新计数
+ * 3. 启动时和定期用GROUP BY查询校准计数，修正直接改库或异常导致的偏差
+ * <p>
+ * 设计原则：
+ * - 计数使用LongAdder，并发写入不争用同一缓存行
+ * - 增量在事务提交后才生效，回滚的事务不影响计数
+ * - 查询统计只遍历计数表，不扫描用户表
+ * <p>
+ * 注意：校准与并发写入之间存在很小的时间窗口，窗口内的增量可能被覆盖，下次校准时自动修正
+ */
+@Slf4j
+@Component
+public class UserStatsCounter {
+
+    @Autowired
+    private SysUserMapper sysUserMapper;
+
+    /**
+     * 部门ID -> 未删除用户数（未分配部门的用户不计入）
+     */
+    private volatile Map<Long, LongAdder> departmentCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 状态ordinal -> 未删除用户数
+     */
+    private volatile LongAdder[] statusCounts = newStatusCounts();
+
+    /**
+     * 应用启动完成后加载计数
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("用户统计计数加载失败，稍后自动重试: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 定期用数据库校准计数
+     */
+    @Scheduled(fixedDelayString = "${user.stats.reconcile-interval:300000}",
+               initialDelayString = "${user.stats.reconcile-interval:300000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("用户统计计数校准失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库重新统计并整体替换计数
+     */
+    public synchronized void reconcile() {
+        Map<Long, LongAdder> departments = new ConcurrentHashMap<>();
+        for (SysUserMapper.UserDepartmentStats stats : sysUserMapper.selectUserCountByDepartment()) {
+            if (stats.getDepartmentId() != null && stats.getUserCount() != null) {
+                adder(departments, stats.getDepartmentId()).add(stats.getUserCount());
+            }
+        }
+        LongAdder[] statuses = newStatusCounts();
+        for (SysUserMapper.UserStatusStats stats : sysUserMapper.selectUserCountByStatus()) {
+            UserStatus status = UserStatus.getByCode(stats.getStatus());
+            if (status != null && stats.getCount() != null) {
+                statuses[status.ordinal()].add(stats.getCount());
+            }
+        }
+
+        long drift = countDrift(departments, statuses);
+        departmentCounts = departments;
+        statusCounts = statuses;
+        if (drift != 0) {
+            log.info("用户统计计数已校准，偏差: {}", drift);
+        } else {
+            log.debug("用户统计计数校准完成，无偏差");
+        }
+    }
+
+    /**
+     * 新增用户
+     */
+    public void userCreated(Long departmentId, UserStatus status) {
+        afterCommit(() -> {
+            changeDepartment(departmentId, 1);
+            changeStatus(status, 1);
+        });
+    }
+
+    /**
+     * 删除用户
+     */
+    public void userRemoved(Long departmentId, UserStatus status) {
+        afterCommit(() -> {
+            changeDepartment(departmentId, -1);
+            changeStatus(status, -1);
+        });
+    }
+
+    /**
+     * 用户调整部门
+     */
+    public void departmentChanged(Long oldDepartmentId, Long newDepartmentId) {
+        if (Objects.equals(oldDepartmentId, newDepartmentId)) {
+            return;
+        }
+        afterCommit(() -> {
+            changeDepartment(oldDepartmentId, -1);
+            changeDepartment(newDepartmentId, 1);
+        });
+    }
+
+    /**
+     * 用户状态变化
+     */
+    public void statusChanged(UserStatus oldStatus, UserStatus newStatus) {
+        if (oldStatus == newStatus) {
+            return;
+        }
+        afterCommit(() -> {
+            changeStatus(oldStatus, -1);
+            changeStatus(newStatus, 1);
+        });
+    }
+
+    /**
+     * 获取各部门的用户数
+     *
+     * @return 部门ID -> 用户数（只读副本，不含计数为0的部门）
+     */
+    public Map<Long, Long> getDepartmentCounts() {
+        Map<Long, Long> result = new HashMap<>();
+        departmentCounts.forEach((departmentId, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                result.put(departmentId, count);
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 获取指定部门的用户数
+     *
+     * @param departmentId 部门ID
+     * @return 用户数
+     */
+    public long getDepartmentCount(Long departmentId) {
+        LongAdder adder = departmentId == null ? null : departmentCounts.get(departmentId);
+        return adder == null ? 0 : Math.max(0, adder.sum());
+    }
+
+    /**
+     * 获取指定状态的用户数
+     *
+     * @param status 用户状态
+     * @return 用户数
+     */
+    public long getStatusCount(UserStatus status) {
+        return status == null ? 0 : Math.max(0, statusCounts[status.ordinal()].sum());
+    }
+
+    private void changeDepartment(Long departmentId, int delta) {
+        if (departmentId != null) {
+            adder(departmentCounts, departmentId).add(delta);
+        }
+    }
+
+    private void changeStatus(UserStatus status, int delta) {
+        if (status != null) {
+            statusCounts[status.ordinal()].add(delta);
+        }
+    }
+
+    /**
+     * 事务提交后执行；不在事务中时立即执行
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * 计算当前计数与校准结果之间的总偏差
+     */
+    private long countDrift(Map<Long, LongAdder> departments, LongAdder[] statuses) {
+        long drift = 0;
+        for (Map.Entry<Long, LongAdder> entry : departments.entrySet()) {
+            drift += Math.abs(entry.getValue().sum() - getDepartmentCount(entry.getKey()));
+        }
+        for (Map.Entry<Long, LongAdder> entry : departmentCounts.entrySet()) {
+            if (!departments.containsKey(entry.getKey())) {
+                drift += Math.abs(entry.getValue().sum());
+            }
+        }
+        for (UserStatus status : UserStatus.values()) {
+            drift += Math.abs(statuses[status.ordinal()].sum() - statusCounts[status.ordinal()].sum());
+        }
+        return drift;
+    }
+
+    private static LongAdder adder(Map<Long, LongAdder> counts, Long departmentId) {
+        return counts.computeIfAbsent(departmentId, key -> new LongAdder());
+    }
+
+    private static LongAdder[] newStatusCounts() {
+        LongAdder[] counts = new LongAdder[UserStatus.values().length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+        return counts;
+    }
+}
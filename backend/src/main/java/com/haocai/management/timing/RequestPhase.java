@@ -0,0 +1,48 @@
+package com.haocai.management.timing;
+
+/**
+ * 请求处理阶段
+ * <p>
+ * 各阶段不是严格串行的：DB阶段是其他阶段中执行SQL的累计耗时，
+ * 与USER、CONTROLLER阶段有重叠
+ */
+public enum RequestPhase {
+
+    /**
+     * JWT解析与签名验证
+     */
+    JWT("jwt"),
+
+    /**
+     * 加载认证用户（登录和携带token的请求）
+     */
+    USER("user"),
+
+    /**
+     * 控制器方法执行（不含响应序列化）
+     */
+    CONTROLLER("controller"),
+
+    /**
+     * SQL执行累计耗时
+     */
+    DB("db"),
+
+    /**
+     * 响应体序列化与写出
+     */
+    SERIALIZATION("serialization");
+
+    /**
+     * 指标标签值与Server-Timing名称
+     */
+    private final String tagValue;
+
+    RequestPhase(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String getTagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,226 @@
+package com.haocai.management.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Locale;
+
+/**
+ * 请求级分阶段计时
+ * <p>
+ * 职责：
+ * 1. 累计一次请求在各处理阶段（RequestPhase）的耗时
+ * 2. 由RequestTimingFilter在请求开始时创建，请求结束时导出为指标
+ * 3. 生成Server-Timing响应头的内容
+ * 4. 记录处理中出现的过载信号（数据库连接失败或超时、隔离舱已满），
+ *    控制器把这类异常转换成HTTP 200的ApiResponse后，ConcurrencyLimitFilter仍能据此把请求计为失败
+ * <p>
+ * 设计原则：
+ * - 以请求属性保存，同时绑定到处理线程，SQL拦截器等拿不到请求对象的代码通过current()累加
+ * - 每个阶段只是数组中的一个计数，不分配对象
+ * - 非请求线程（定时任务等）中current()返回null，所有静态方法此时不做任何事
+ * - 同一时刻只有一个线程修改：请求线程，或请求线程交出后接手异步处理的线程（attach），不需要同步
+ */
+public final class RequestTiming {
+
+    /**
+     * 请求属性名
+     */
+    public static final String REQUEST_ATTRIBUTE = RequestTiming.class.getName();
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private static final RequestPhase[] PHASES = RequestPhase.values();
+
+    /**
+     * 各阶段累计耗时（纳秒）
+     */
+    private final long[] elapsed = new long[PHASES.length];
+
+    /**
+     * 各阶段当前一次的开始时间
+     */
+    private final long[] startedAt = new long[PHASES.length];
+
+    /**
+     * 正在计时的阶段（按ordinal置位）
+     */
+    private int running;
+
+    /**
+     * 执行过的阶段（按ordinal置位）
+     */
+    private int executed;
+
+    /**
+     * 请求开始时间
+     */
+    private final long requestStart = System.nanoTime();
+
+    /**
+     * 处理中是否出现过载信号（异步请求由线程池写入、由完成事件读取，使用volatile）
+     */
+    private volatile boolean overloaded;
+
+    /**
+     * 创建计时并绑定到请求和当前线程
+     *
+     * @param request HTTP请求
+     * @return 请求计时
+     */
+    public static RequestTiming bind(HttpServletRequest request) {
+        RequestTiming timing = new RequestTiming();
+        request.setAttribute(REQUEST_ATTRIBUTE, timing);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    /**
+     * 把已有的请求计时绑定到当前线程，用于在线程池中继续处理异步请求
+     *
+     * @param timing 请求计时，为null时不绑定
+     */
+    public static void attach(RequestTiming timing) {
+        if (timing != null) {
+            CURRENT.set(timing);
+        }
+    }
+
+    /**
+     * 解除与当前线程的绑定
+     */
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * 获取请求上的计时
+     *
+     * @param request HTTP请求
+     * @return 请求计时，未绑定时返回null
+     */
+    public static RequestTiming of(HttpServletRequest request) {
+        return (RequestTiming) request.getAttribute(REQUEST_ATTRIBUTE);
+    }
+
+    /**
+     * 获取当前线程处理的请求的计时
+     *
+     * @return 请求计时，非请求线程返回null
+     */
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 为当前请求累加一段耗时
+     *
+     * @param phase 阶段
+     * @param nanos 耗时（纳秒）
+     */
+    public static void record(RequestPhase phase, long nanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, nanos);
+        }
+    }
+
+    /**
+     * 标记当前请求遇到了过载：数据库连接失败或超时、隔离舱或线程池已满
+     */
+    public static void markOverloaded() {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.overloaded = true;
+        }
+    }
+
+    /**
+     * 累加一段耗时
+     *
+     * @param phase 阶段
+     * @param nanos 耗时（纳秒）
+     */
+    public void add(RequestPhase phase, long nanos) {
+        elapsed[phase.ordinal()] += nanos;
+        executed |= 1 << phase.ordinal();
+    }
+
+    /**
+     * 开始一个阶段
+     *
+     * @param phase 阶段
+     */
+    public void start(RequestPhase phase) {
+        startedAt[phase.ordinal()] = System.nanoTime();
+        running |= 1 << phase.ordinal();
+    }
+
+    /**
+     * 结束一个阶段，阶段未开始时忽略
+     *
+     * @param phase 阶段
+     * @return true-阶段正在计时并已结束
+     */
+    public boolean stop(RequestPhase phase) {
+        int bit = 1 << phase.ordinal();
+        if ((running & bit) == 0) {
+            return false;
+        }
+        running &= ~bit;
+        add(phase, System.nanoTime() - startedAt[phase.ordinal()]);
+        return true;
+    }
+
+    /**
+     * 阶段是否执行过
+     */
+    public boolean isExecuted(RequestPhase phase) {
+        return (executed & (1 << phase.ordinal())) != 0;
+    }
+
+    /**
+     * 阶段累计耗时（纳秒）
+     */
+    public long getElapsed(RequestPhase phase) {
+        return elapsed[phase.ordinal()];
+    }
+
+    /**
+     * 处理中是否出现过载信号
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * 从请求开始到现在的耗时（纳秒）
+     */
+    public long getTotalElapsed() {
+        return System.nanoTime() - requestStart;
+    }
+
+    /**
+     * 生成Server-Timing响应头，只包含已执行的阶段和到目前为止的总耗时
+     * <p>
+     * 格式：jwt;dur=0.42, user;dur=1.30, db;dur=2.05, total;dur=6.71（毫秒）
+     *
+     * @return 响应头内容
+     */
+    public String toServerTiming() {
+        StringBuilder header = new StringBuilder(128);
+        for (RequestPhase phase : PHASES) {
+            if (isExecuted(phase)) {
+                appendMetric(header, phase.getTagValue(), elapsed[phase.ordinal()]);
+            }
+        }
+        appendMetric(header, "total", getTotalElapsed());
+        return header.toString();
+    }
+
+    private static void appendMetric(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+    }
+}
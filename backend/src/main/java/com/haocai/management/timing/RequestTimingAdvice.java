@@ -0,0 +1,54 @@
+package com.haocai.management.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * 响应体写出前的计时切换
+ * <p>
+ * 1. 结束CONTROLLER阶段，开始SERIALIZATION阶段
+ * 2. 开启request.timing.server-timing-header时（开发环境）添加Server-Timing响应头，
+ *    浏览器开发者工具的Timing面板可直接查看各阶段耗时；序列化尚未开始，因此不包含SERIALIZATION阶段
+ */
+@RestControllerAdvice
+public class RequestTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Server-Timing响应头
+     */
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    @Value("${request.timing.server-timing-header:false}")
+    private boolean serverTimingHeader;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            RequestTiming timing = RequestTiming.of(httpRequest);
+            if (timing != null) {
+                timing.stop(RequestPhase.CONTROLLER);
+                if (serverTimingHeader) {
+                    response.getHeaders().add(SERVER_TIMING_HEADER, timing.toServerTiming());
+                }
+                timing.start(RequestPhase.SERIALIZATION);
+            }
+        }
+        return body;
+    }
+}
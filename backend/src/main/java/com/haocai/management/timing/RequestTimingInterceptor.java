@@ -0,0 +1,36 @@
+package com.haocai.management.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 控制器与序列化阶段计时拦截器
+ * <p>
+ * - preHandle开始CONTROLLER阶段
+ * - RequestTimingAdvice在写响应体之前结束CONTROLLER阶段、开始SERIALIZATION阶段
+ * - afterCompletion结束仍在计时的阶段（没有响应体或控制器抛出异常时只有CONTROLLER阶段）
+ */
+@Component
+public class RequestTimingInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestTiming timing = RequestTiming.of(request);
+        if (timing != null) {
+            timing.start(RequestPhase.CONTROLLER);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        RequestTiming timing = RequestTiming.of(request);
+        if (timing != null) {
+            timing.stop(RequestPhase.CONTROLLER);
+            timing.stop(RequestPhase.SERIALIZATION);
+        }
+    }
+}
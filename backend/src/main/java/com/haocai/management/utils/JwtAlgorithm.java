@@ -0,0 +1,75 @@
+package com.haocai.management.utils;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+/**
+ * JWT签名算法
+ *
+ * 功能说明：
+ * - HS256：对称签名，所有节点共享jwt.secret，任何能验证token的节点也能签发token
+ * - EdDSA：Ed25519非对称签名，签发节点持有私钥，验证节点只需公钥
+ * - ES256：P-256椭圆曲线非对称签名，适用于只支持NIST曲线的外部验证方
+ *
+ * @author 开发团队
+ * @since 2026-01-05
+ */
+public enum JwtAlgorithm {
+
+    HS256(Jwts.SIG.HS256, null),
+
+    EdDSA(Jwts.SIG.EdDSA, "Ed25519"),
+
+    ES256(Jwts.SIG.ES256, "EC");
+
+    /**
+     * jjwt签名算法
+     */
+    private final SecureDigestAlgorithm<?, ?> signatureAlgorithm;
+
+    /**
+     * 解析密钥时使用的KeyFactory算法名（对称算法为null）
+     */
+    private final String keyFactoryAlgorithm;
+
+    JwtAlgorithm(SecureDigestAlgorithm<?, ?> signatureAlgorithm, String keyFactoryAlgorithm) {
+        this.signatureAlgorithm = signatureAlgorithm;
+        this.keyFactoryAlgorithm = keyFactoryAlgorithm;
+    }
+
+    public SecureDigestAlgorithm<?, ?> getSignatureAlgorithm() {
+        return signatureAlgorithm;
+    }
+
+    public String getKeyFactoryAlgorithm() {
+        return keyFactoryAlgorithm;
+    }
+
+    /**
+     * 是否为非对称算法
+     *
+     * @return true-非对称算法
+     */
+    public boolean isAsymmetric() {
+        return keyFactoryAlgorithm != null;
+    }
+
+    /**
+     * 根据配置值获取算法（忽略大小写）
+     *
+     * @param name 配置值
+     * @return 签名算法
+     * @throws IllegalArgumentException 不支持的算法
+     */
+    public static JwtAlgorithm of(String name) {
+        if (name == null || name.isBlank()) {
+            return HS256;
+        }
+        for (JwtAlgorithm algorithm : values()) {
+            if (algorithm.name().equalsIgnoreCase(name.trim())) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("不支持的JWT签名算法: " + name);
+    }
+}
@@ -0,0 +1,304 @@
+package com.haocai.management.utils;
+
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * JWT密钥环
+ *
+ * 功能说明：
+ * 1. 持有当前签名密钥及其kid
+ * 2. 持有全部仍然有效的验证密钥（kid -> 密钥）
+ * 3. 按轮换周期从主密钥派生周期密钥，所有节点无需协调即可得到相同的密钥
+ *
+ * 设计说明：
+ * - 实例不可变，轮换时整体替换，读取方无需加锁
+ * - 验证密钥保存在不可变Map中，按kid查找不产生额外对象
+ * - kid格式：主密钥指纹（未轮换）或“主密钥指纹.周期序号”（轮换）
+ * - 旧周期的密钥保留到其签发的token全部过期为止
+ * - 已退役的主密钥（retired secrets）只用于验证，不再用于签名
+ * - 非对称模式下验证密钥为公钥，只配置公钥的节点签名密钥为null，只能验证不能签发
+ *
+ * @author 开发团队
+ * @since 2026-01-05
+ */
+public final class JwtKeyRing {
+
+    /**
+     * 周期密钥派生时使用的上下文前缀
+     */
+    private static final String DERIVATION_CONTEXT = "haocai-jwt-key:";
+
+    /**
+     * 签名算法
+     */
+    private final JwtAlgorithm algorithm;
+
+    /**
+     * 签名密钥的kid
+     */
+    private final String signingKeyId;
+
+    /**
+     * 签名密钥
+     */
+    private final Key signingKey;
+
+    /**
+     * 验证密钥（kid -> 密钥）
+     */
+    private final Map<String, Key> verificationKeys;
+
+    /**
+     * 不带kid的旧token使用的验证密钥（可为null）
+     */
+    private final Key defaultVerificationKey;
+
+    /**
+     * 密钥环对应的轮换周期序号（未启用轮换时为0）
+     */
+    private final long epoch;
+
+    public JwtKeyRing(JwtAlgorithm algorithm, String signingKeyId, Key signingKey,
+                      Map<String, Key> verificationKeys, Key defaultVerificationKey, long epoch) {
+        this.algorithm = algorithm;
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = Map.copyOf(verificationKeys);
+        this.defaultVerificationKey = defaultVerificationKey;
+        this.epoch = epoch;
+    }
+
+    /**
+     * 从HMAC主密钥构建密钥环
+     *
+     * @param secret           当前主密钥
+     * @param retiredSecrets   已退役的主密钥（只用于验证，可为null）
+     * @param rotationInterval 轮换周期（毫秒），小于等于0表示不轮换
+     * @param retentionMillis  旧密钥保留时长（毫秒），应不小于token的最长有效期
+     * @param now              当前时间戳（毫秒）
+     * @return 密钥环
+     */
+    public static JwtKeyRing fromSecrets(String secret, String[] retiredSecrets,
+                                         long rotationInterval, long retentionMillis, long now) {
+        boolean rotating = rotationInterval > 0;
+        long epoch = rotating ? now / rotationInterval : 0;
+        // 保留足够多的旧周期，再加上下一个周期以容忍节点之间的时钟偏差
+        long retainedEpochs = rotating ? (retentionMillis + rotationInterval - 1) / rotationInterval : 0;
+
+        Map<String, Key> keys = new HashMap<>();
+        SecretKey legacyKey = legacyKey(secret);
+        String fingerprint = fingerprint(secret);
+        putSecretKeys(keys, secret, rotating, epoch, retainedEpochs);
+        if (retiredSecrets != null) {
+            for (String retired : retiredSecrets) {
+                if (retired != null && !retired.isBlank()) {
+                    putSecretKeys(keys, retired.trim(), rotating, epoch, retainedEpochs);
+                }
+            }
+        }
+
+        if (!rotating) {
+            return new JwtKeyRing(JwtAlgorithm.HS256, fingerprint, legacyKey, keys, legacyKey, 0);
+        }
+        String signingKeyId = fingerprint + "." + epoch;
+        return new JwtKeyRing(JwtAlgorithm.HS256, signingKeyId, keys.get(signingKeyId), keys, legacyKey, epoch);
+    }
+
+    /**
+     * 从非对称密钥构建密钥环
+     * <p>
+     * 公钥格式为“kid:公钥”，公钥为X.509编码的Base64或PEM；私钥为PKCS#8编码的Base64或PEM。
+     * 轮换密钥对时先在所有节点的公钥列表中加入新公钥，再切换签发节点的私钥和kid，
+     * 旧公钥在其签发的token全部过期后移除。
+     *
+     * @param algorithm    非对称签名算法
+     * @param signingKeyId 签名密钥的kid（只验证的节点可为null）
+     * @param privateKey   签名私钥（只验证的节点为null或空）
+     * @param publicKeys   验证公钥列表，格式为“kid:公钥”
+     * @return 密钥环
+     */
+    public static JwtKeyRing fromKeyPairs(JwtAlgorithm algorithm, String signingKeyId,
+                                          String privateKey, String[] publicKeys) {
+        if (!algorithm.isAsymmetric()) {
+            throw new IllegalArgumentException("算法" + algorithm + "不是非对称算法");
+        }
+        Map<String, Key> keys = new HashMap<>();
+        if (publicKeys != null) {
+            for (String entry : publicKeys) {
+                if (entry == null || entry.isBlank()) {
+                    continue;
+                }
+                int separator = entry.indexOf(':');
+                if (separator <= 0) {
+                    throw new IllegalArgumentException("JWT公钥配置格式应为 kid:公钥");
+                }
+                keys.put(entry.substring(0, separator).trim(),
+                        parsePublicKey(algorithm, entry.substring(separator + 1)));
+            }
+        }
+
+        PrivateKey signingKey = null;
+        if (privateKey != null && !privateKey.isBlank()) {
+            if (signingKeyId == null || signingKeyId.isBlank()) {
+                throw new IllegalArgumentException("配置JWT私钥时必须同时配置kid");
+            }
+            if (!keys.containsKey(signingKeyId)) {
+                throw new IllegalArgumentException("JWT公钥列表中缺少签名kid对应的公钥: " + signingKeyId);
+            }
+            signingKey = parsePrivateKey(algorithm, privateKey);
+        }
+        // 非对称模式下的token一律带kid，不再兼容不带kid的token
+        return new JwtKeyRing(algorithm, signingKey == null ? null : signingKeyId, signingKey, keys, null, 0);
+    }
+
+    /**
+     * 按kid查找验证密钥
+     * <p>
+     * kid为null时返回默认验证密钥，兼容升级前签发的不带kid的token
+     *
+     * @param keyId token头部的kid
+     * @return 验证密钥，未知kid返回null
+     */
+    public Key findVerificationKey(String keyId) {
+        if (keyId == null) {
+            return defaultVerificationKey;
+        }
+        return verificationKeys.get(keyId);
+    }
+
+    /**
+     * 当前节点能否签发token
+     *
+     * @return true-持有签名密钥
+     */
+    public boolean canSign() {
+        return signingKey != null;
+    }
+
+    public JwtAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public SecureDigestAlgorithm<?, ?> getSignatureAlgorithm() {
+        return algorithm.getSignatureAlgorithm();
+    }
+
+    public String getSigningKeyId() {
+        return signingKeyId;
+    }
+
+    public Key getSigningKey() {
+        return signingKey;
+    }
+
+    public Map<String, Key> getVerificationKeys() {
+        return verificationKeys;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    /**
+     * 登记某个主密钥对应的全部验证密钥
+     */
+    private static void putSecretKeys(Map<String, Key> keys, String secret, boolean rotating,
+                                      long epoch, long retainedEpochs) {
+        String fingerprint = fingerprint(secret);
+        // 未轮换时签发的token使用主密钥本身，轮换开启后仍需验证
+        keys.put(fingerprint, legacyKey(secret));
+        if (!rotating) {
+            return;
+        }
+        for (long e = Math.max(0, epoch - retainedEpochs); e <= epoch + 1; e++) {
+            keys.put(fingerprint + "." + e, deriveEpochKey(secret, e));
+        }
+    }
+
+    /**
+     * 主密钥直接生成的HMAC密钥（与升级前的签名密钥一致）
+     */
+    private static SecretKey legacyKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 从主密钥派生指定周期的HMAC密钥
+     * <p>
+     * 使用HMAC-SHA256(主密钥, 上下文+周期序号)作为周期密钥，相同输入在任何节点上结果一致
+     */
+    static SecretKey deriveEpochKey(String secret, long epoch) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] derived = mac.doFinal((DERIVATION_CONTEXT + epoch).getBytes(StandardCharsets.UTF_8));
+            return Keys.hmacShaKeyFor(derived);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT周期密钥派生失败", e);
+        }
+    }
+
+    /**
+     * 主密钥指纹（SHA-256前4字节的十六进制），用于kid，不泄露密钥本身
+     */
+    static String fingerprint(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(secret.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 4);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT密钥指纹计算失败", e);
+        }
+    }
+
+    /**
+     * 解析X.509编码的公钥
+     */
+    static PublicKey parsePublicKey(JwtAlgorithm algorithm, String encoded) {
+        try {
+            return KeyFactory.getInstance(algorithm.getKeyFactoryAlgorithm())
+                    .generatePublic(new X509EncodedKeySpec(decodeKey(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("JWT公钥解析失败，算法: " + algorithm, e);
+        }
+    }
+
+    /**
+     * 解析PKCS#8编码的私钥
+     */
+    static PrivateKey parsePrivateKey(JwtAlgorithm algorithm, String encoded) {
+        try {
+            return KeyFactory.getInstance(algorithm.getKeyFactoryAlgorithm())
+                    .generatePrivate(new PKCS8EncodedKeySpec(decodeKey(encoded)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("JWT私钥解析失败，算法: " + algorithm, e);
+        }
+    }
+
+    /**
+     * 解码Base64或PEM格式的密钥（去掉PEM首尾行和空白）
+     */
+    private static byte[] decodeKey(String encoded) {
+        String base64 = encoded.replaceAll("-----(BEGIN|END)[A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
@@ -2,14 +2,21 @@ package com.haocai.management.utils;
 
 import com.haocai.management.exception.BusinessException;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,6 +27,10 @@ import java.util.Map;
  * 2. 解析JWT token
  * 3. 验证token有效性
  * 4. 从token中提取用户信息
+ * 5. 签发短期access token与可轮换的refresh token
+ * 6. 基于kid的密钥环，支持签名密钥定期轮换和主密钥平滑退役
+ * 7. 可选的非对称签名（EdDSA/ES256），验证节点只需公钥，公钥通过JWKS发布
+ * 8. access token以位图形式携带权限（pv=权限索引版本，pm=权限位图）
  * 
  * 遵循规范：
  * - 配置规范：从application.yml读取JWT配置参数
@@ -39,9 +50,34 @@ public class JwtUtils {
      * 遵循：安全规范-密钥分离原则
      * 遵循：配置规范-从配置文件读取
      */
-    @Value("${jwt.secret}")
+    @Value("${jwt.secret:}")
     private String secret;
 
+    /**
+     * 签名算法：HS256（默认，共享密钥）、EdDSA、ES256
+     */
+    @Value("${jwt.algorithm:HS256}")
+    private String algorithm;
+
+    /**
+     * 非对称模式下签名私钥的kid
+     */
+    @Value("${jwt.asymmetric.key-id:}")
+    private String asymmetricKeyId;
+
+    /**
+     * 非对称模式下的签名私钥（PKCS#8，Base64或PEM）
+     * 只在签发token的节点上配置，只验证的节点留空
+     */
+    @Value("${jwt.asymmetric.private-key:}")
+    private String asymmetricPrivateKey;
+
+    /**
+     * 非对称模式下的验证公钥（逗号分隔，每项格式为“kid:X.509公钥Base64”）
+     */
+    @Value("${jwt.asymmetric.public-keys:}")
+    private String[] asymmetricPublicKeys;
+
     /**
      * token默认过期时间（毫秒）
      * 遵循：配置规范-从配置文件读取
@@ -49,11 +85,82 @@ public class JwtUtils {
     @Value("${jwt.expiration:86400000}")  // 默认24小时
     private Long expiration;
 
+    /**
+     * access token过期时间（毫秒）
+     * 短期有效，过期后通过refresh token续期，避免重新登录带来的BCrypt开销
+     */
+    @Value("${jwt.access-expiration:1800000}")  // 默认30分钟
+    private Long accessExpiration;
+
+    /**
+     * refresh token过期时间（毫秒）
+     */
+    @Value("${jwt.refresh-expiration:604800000}")  // 默认7天
+    private Long refreshExpiration;
+
+    /**
+     * 续期提示阈值（毫秒）
+     * access token剩余有效期低于该值时，过滤器在响应头中提示客户端续期
+     */
+    @Value("${jwt.renew-threshold:300000}")  // 默认5分钟
+    private Long renewThreshold;
+
+    /**
+     * 签名密钥轮换周期（毫秒），小于等于0表示不轮换
+     * 周期密钥由jwt.secret派生，各节点独立计算即可得到相同的密钥
+     */
+    @Value("${jwt.key-rotation-interval:0}")
+    private Long keyRotationInterval;
+
+    /**
+     * 已退役的主密钥（逗号分隔）
+     * 更换jwt.secret时把旧值放在这里，旧token在过期前仍可验证，避免全员重新登录
+     */
+    @Value("${jwt.retired-secrets:}")
+    private String[] retiredSecrets;
+
+    /**
+     * token类型声明名称
+     */
+    public static final String CLAIM_TOKEN_TYPE = "typ";
+
+    /**
+     * access token类型
+     */
+    public static final String TOKEN_TYPE_ACCESS = "access";
+
+    /**
+     * refresh token类型
+     */
+    public static final String TOKEN_TYPE_REFRESH = "refresh";
+
+    /**
+     * 权限索引版本声明名称
+     */
+    public static final String CLAIM_PERMISSION_VERSION = "pv";
+
+    /**
+     * 权限位图声明名称（Base64url编码的long[]）
+     */
+    public static final String CLAIM_PERMISSIONS = "pm";
+
+    /**
+     * 当前密钥环
+     * 不可变对象，轮换时整体替换；签发和解析只需一次volatile读取
+     */
+    private volatile JwtKeyRing keyRing;
+
+    /**
+     * 缓存的JWT解析器（线程安全，可复用）
+     * 通过kid从当前密钥环定位验证密钥，密钥轮换后无需重建
+     */
+    private volatile JwtParser jwtParser;
+
     /**
      * 生成JWT token
      * 
      * 遵循：配置规范-条款1（从配置文件读取参数）
-     * 遵循：安全规范（使用HS256强签名算法）
+     * 遵循：安全规范（使用配置的签名算法，默认HS256）
      * 遵循：日志规范-条款3（记录生成日志）
      * 
      * @param claims 用户声明信息（如userId, username等）
@@ -68,16 +175,17 @@ public class JwtUtils {
             // 计算过期时间点
             Date expireDate = new Date(System.currentTimeMillis() + exp);
             
-            // 生成密钥
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            
-            // 构建JWT
-            String token = Jwts.builder()
+            // 构建JWT（使用当前密钥环的签名密钥，并在头部写入kid）
+            JwtKeyRing ring = getKeyRing();
+            if (!ring.canSign()) {
+                throw new IllegalStateException("当前节点未配置JWT签名私钥，只能验证token");
+            }
+            JwtBuilder builder = Jwts.builder()
+                    .header().keyId(ring.getSigningKeyId()).and()  // 密钥标识
                     .claims(claims)                    // 设置声明信息
                     .issuedAt(new Date())               // 签发时间
-                    .expiration(expireDate)             // 过期时间
-                    .signWith(key, Jwts.SIG.HS256)      // 签名算法
-                    .compact();
+                    .expiration(expireDate);            // 过期时间
+            String token = signWith(builder, ring).compact();
             
             log.debug("JWT token生成成功: userId={}, 过期时间={}", 
                     claims.get("userId"), expireDate);
@@ -103,13 +211,8 @@ public class JwtUtils {
      */
     public Claims parseToken(String token) throws BusinessException {
         try {
-            // 生成密钥
-            SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-            
-            // 解析JWT
-            Claims claims = Jwts.parser()
-                    .verifyWith(key)
-                    .build()
+            // 解析JWT（复用缓存的解析器）
+            Claims claims = getJwtParser()
                     .parseSignedClaims(token)
                     .getPayload();
             
@@ -150,6 +253,109 @@ public class JwtUtils {
         }
     }
 
+    /**
+     * 生成access token
+     * <p>
+     * 短期有效的访问令牌，携带typ=access声明
+     *
+     * @param claims 用户声明信息（如userId, username等）
+     * @return access token字符串
+     */
+    public String generateAccessToken(Map<String, Object> claims) {
+        Map<String, Object> accessClaims = new HashMap<>(claims);
+        accessClaims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_ACCESS);
+        return generateToken(accessClaims, getAccessExpiration());
+    }
+
+    /**
+     * 生成携带权限位图的access token
+     * <p>
+     * 权限以位图形式写入，位编号由权限索引版本确定；验证方版本不一致时不能使用该位图。
+     * 服务端鉴权始终以本地权限快照为准（撤销的权限立即生效），token中的位图只作为签发时的权限记录
+     *
+     * @param claims 用户声明信息（如userId, username等）
+     * @param permissionVersion 权限索引版本
+     * @param permissionBits 权限位图
+     * @return access token字符串
+     */
+    public String generateAccessToken(Map<String, Object> claims, String permissionVersion, long[] permissionBits) {
+        Map<String, Object> accessClaims = new HashMap<>(claims);
+        accessClaims.put(CLAIM_PERMISSION_VERSION, permissionVersion);
+        accessClaims.put(CLAIM_PERMISSIONS, PermissionBitmapCodec.encode(permissionBits));
+        return generateAccessToken(accessClaims);
+    }
+
+    /**
+     * 获取token中的权限索引版本
+     *
+     * @param claims 已解析的Claims
+     * @return 权限索引版本，旧token不含该声明时返回null
+     */
+    public String getPermissionVersion(Claims claims) {
+        return claims.get(CLAIM_PERMISSION_VERSION, String.class);
+    }
+
+    /**
+     * 获取token中的权限位图
+     *
+     * @param claims 已解析的Claims
+     * @return 权限位图，不含该声明或格式错误时返回null
+     */
+    public long[] getPermissionBits(Claims claims) {
+        String encoded = claims.get(CLAIM_PERMISSIONS, String.class);
+        if (encoded == null) {
+            return null;
+        }
+        try {
+            return PermissionBitmapCodec.decode(encoded);
+        } catch (IllegalArgumentException e) {
+            log.warn("token中的权限位图格式错误: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 生成refresh token
+     * <p>
+     * 只携带用户标识和一次性的jti，用于换取新的token对，不能用于访问接口
+     *
+     * @param userId 用户ID
+     * @param username 用户名
+     * @param tokenId refresh token唯一标识（jti），由RefreshTokenStore登记
+     * @return refresh token字符串
+     */
+    public String generateRefreshToken(Long userId, String username, String tokenId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", userId);
+        claims.put("username", username);
+        claims.put(CLAIM_TOKEN_TYPE, TOKEN_TYPE_REFRESH);
+        claims.put(Claims.ID, tokenId);
+        return generateToken(claims, getRefreshExpiration());
+    }
+
+    /**
+     * 判断声明是否属于access token
+     * <p>
+     * 未携带typ声明的旧token按access token处理，保证升级前签发的token仍可使用
+     *
+     * @param claims 已解析的声明
+     * @return true-access token，false-其他类型（如refresh token）
+     */
+    public boolean isAccessToken(Claims claims) {
+        Object type = claims.get(CLAIM_TOKEN_TYPE);
+        return type == null || TOKEN_TYPE_ACCESS.equals(type);
+    }
+
+    /**
+     * 判断声明是否属于refresh token
+     *
+     * @param claims 已解析的声明
+     * @return true-refresh token
+     */
+    public boolean isRefreshToken(Claims claims) {
+        return TOKEN_TYPE_REFRESH.equals(claims.get(CLAIM_TOKEN_TYPE));
+    }
+
     /**
      * 验证token有效性
      * 
@@ -245,10 +451,7 @@ public class JwtUtils {
      */
     public boolean isTokenExpiringSoon(String token, long thresholdMillis) {
         try {
-            Claims claims = parseToken(token);
-            Date expiration = claims.getExpiration();
-            long remainingTime = expiration.getTime() - System.currentTimeMillis();
-            return remainingTime <= thresholdMillis;
+            return isTokenExpiringSoon(parseToken(token), thresholdMillis);
         } catch (Exception e) {
             log.warn("检查token过期状态失败", e);
             return true;  // 解析失败视为即将过期
@@ -263,12 +466,224 @@ public class JwtUtils {
      */
     public long getTokenRemainingTime(String token) {
         try {
-            Claims claims = parseToken(token);
-            Date expiration = claims.getExpiration();
-            return Math.max(0, expiration.getTime() - System.currentTimeMillis());
+            return getTokenRemainingTime(parseToken(token));
         } catch (Exception e) {
             log.warn("获取token剩余时间失败", e);
             return -1;
         }
     }
+
+    /**
+     * 检查已解析的token是否即将过期
+     * <p>
+     * 供过滤器等已持有Claims的调用方使用，避免重复解析token
+     *
+     * @param claims 已解析的声明
+     * @param thresholdMillis 过期阈值（毫秒）
+     * @return true-即将过期，false-未即将过期
+     */
+    public boolean isTokenExpiringSoon(Claims claims, long thresholdMillis) {
+        return getTokenRemainingTime(claims) <= thresholdMillis;
+    }
+
+    /**
+     * 获取已解析token的剩余有效期（毫秒）
+     *
+     * @param claims 已解析的声明
+     * @return 剩余有效期（毫秒），没有过期时间时返回Long.MAX_VALUE
+     */
+    public long getTokenRemainingTime(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, expiration.getTime() - System.currentTimeMillis());
+    }
+
+    /**
+     * 获取access token过期时间（毫秒）
+     *
+     * @return access token过期时间
+     */
+    public long getAccessExpiration() {
+        return accessExpiration != null ? accessExpiration : expiration;
+    }
+
+    /**
+     * 获取refresh token过期时间（毫秒）
+     *
+     * @return refresh token过期时间
+     */
+    public long getRefreshExpiration() {
+        return refreshExpiration != null ? refreshExpiration : expiration;
+    }
+
+    /**
+     * 获取续期提示阈值（毫秒）
+     *
+     * @return 续期提示阈值
+     */
+    public long getRenewThreshold() {
+        return renewThreshold != null ? renewThreshold : 300000L;
+    }
+
+    /**
+     * 定期检查并轮换签名密钥
+     * <p>
+     * 进入新的轮换周期时重建密钥环并整体替换：新token使用新周期密钥签名，
+     * 旧周期密钥保留到其签发的token全部过期为止，用户无需重新登录
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void rotateKeys() {
+        long interval = getKeyRotationInterval();
+        // 非对称密钥对由运维轮换（先发布新公钥，再切换私钥），这里只轮换HMAC周期密钥
+        if (interval <= 0 || getAlgorithm().isAsymmetric()) {
+            return;
+        }
+        JwtKeyRing current = keyRing;
+        long epoch = System.currentTimeMillis() / interval;
+        if (current != null && current.getEpoch() == epoch) {
+            return;
+        }
+        JwtKeyRing rotated = buildKeyRing();
+        keyRing = rotated;
+        log.info("JWT签名密钥已轮换: kid={}, 有效验证密钥数量={}",
+                rotated.getSigningKeyId(), rotated.getVerificationKeys().size());
+    }
+
+    /**
+     * 获取当前签名密钥的kid
+     *
+     * @return kid
+     */
+    public String getCurrentKeyId() {
+        return getKeyRing().getSigningKeyId();
+    }
+
+    /**
+     * 获取当前可公开的验证公钥（JWK格式）
+     * <p>
+     * HS256模式下密钥不可公开，返回空列表
+     *
+     * @return JWK列表
+     */
+    public List<Map<String, Object>> getPublicJwks() {
+        JwtKeyRing ring = getKeyRing();
+        List<Map<String, Object>> jwks = new ArrayList<>();
+        if (!ring.getAlgorithm().isAsymmetric()) {
+            return jwks;
+        }
+        ring.getVerificationKeys().forEach((keyId, key) -> {
+            if (key instanceof PublicKey publicKey) {
+                PublicJwk<PublicKey> jwk = Jwks.builder().key(publicKey).id(keyId).build();
+                Map<String, Object> entry = new LinkedHashMap<>(jwk);
+                entry.put("use", "sig");
+                entry.put("alg", ring.getSignatureAlgorithm().getId());
+                jwks.add(entry);
+            }
+        });
+        return jwks;
+    }
+
+    /**
+     * 获取当前密钥环（懒加载）
+     * <p>
+     * 并发首次访问时可能重复构建，但结果一致，无需加锁
+     *
+     * @return 密钥环
+     */
+    private JwtKeyRing getKeyRing() {
+        JwtKeyRing ring = keyRing;
+        if (ring == null) {
+            ring = buildKeyRing();
+            keyRing = ring;
+        }
+        return ring;
+    }
+
+    /**
+     * 根据配置构建密钥环
+     * <p>
+     * 旧密钥保留时长取各类token有效期的最大值
+     *
+     * @return 新的密钥环
+     */
+    private JwtKeyRing buildKeyRing() {
+        JwtAlgorithm signingAlgorithm = getAlgorithm();
+        if (signingAlgorithm.isAsymmetric()) {
+            return JwtKeyRing.fromKeyPairs(signingAlgorithm, asymmetricKeyId,
+                    asymmetricPrivateKey, asymmetricPublicKeys);
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("HS256模式下必须配置jwt.secret");
+        }
+        long retention = Math.max(expiration, Math.max(getAccessExpiration(), getRefreshExpiration()));
+        return JwtKeyRing.fromSecrets(secret, retiredSecrets, getKeyRotationInterval(),
+                retention, System.currentTimeMillis());
+    }
+
+    /**
+     * 获取签名算法
+     *
+     * @return 签名算法，未配置时为HS256
+     */
+    private JwtAlgorithm getAlgorithm() {
+        return JwtAlgorithm.of(algorithm);
+    }
+
+    /**
+     * 使用密钥环的签名密钥和算法签名
+     * <p>
+     * 密钥类型与算法由密钥环保证匹配（HMAC密钥配HS256，私钥配EdDSA/ES256）
+     *
+     * @param builder JWT构建器
+     * @param ring 密钥环
+     * @return 构建器
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static JwtBuilder signWith(JwtBuilder builder, JwtKeyRing ring) {
+        return builder.signWith(ring.getSigningKey(), (SecureDigestAlgorithm) ring.getSignatureAlgorithm());
+    }
+
+    /**
+     * 获取轮换周期（毫秒）
+     *
+     * @return 轮换周期，未配置时为0
+     */
+    private long getKeyRotationInterval() {
+        return keyRotationInterval != null ? keyRotationInterval : 0L;
+    }
+
+    /**
+     * 获取JWT解析器（懒加载并缓存）
+     * <p>
+     * 验证密钥通过kid在当前密钥环的不可变Map中查找，不产生额外对象
+     *
+     * @return 按kid定位验证密钥的解析器
+     */
+    private JwtParser getJwtParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .keyLocator(this::locateVerificationKey)
+                    .build();
+            jwtParser = parser;
+        }
+        return parser;
+    }
+
+    /**
+     * 按token头部的kid定位验证密钥
+     *
+     * @param header token头部
+     * @return 验证密钥
+     */
+    private Key locateVerificationKey(Header header) {
+        String keyId = header instanceof ProtectedHeader protectedHeader ? protectedHeader.getKeyId() : null;
+        Key key = getKeyRing().findVerificationKey(keyId);
+        if (key == null) {
+            throw new UnsupportedJwtException("未知的签名密钥: " + keyId);
+        }
+        return key;
+    }
 }
@@ -0,0 +1,86 @@
+package com.haocai.management.utils;
+
+import java.util.Base64;
+
+/**
+ * 权限位图编解码
+ * <p>
+ * 把权限位图（long[]，第i位表示权限索引中的第i个权限）编码为紧凑的Base64url字符串写入JWT：
+ * - 按小端字节序输出，去掉末尾全零字节，100个权限最多17个字符
+ * - 不使用填充字符，可直接放入JSON和URL
+ * <p>
+ * 相比在token中逐个写入"system:user"之类的权限编码，token体积基本不随权限数量增长，
+ * 签名和解析的开销也随之降低
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public final class PermissionBitmapCodec {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PermissionBitmapCodec() {
+    }
+
+    /**
+     * 编码权限位图
+     *
+     * @param bits 权限位图
+     * @return Base64url字符串，没有任何权限时返回空字符串
+     */
+    public static String encode(long[] bits) {
+        if (bits == null) {
+            return "";
+        }
+        int length = bits.length * Long.BYTES;
+        // 去掉末尾的全零字节
+        while (length > 0 && byteAt(bits, length - 1) == 0) {
+            length--;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = byteAt(bits, i);
+        }
+        return ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * 解码权限位图
+     *
+     * @param encoded Base64url字符串
+     * @return 权限位图，输入为空时返回空数组
+     * @throws IllegalArgumentException 输入不是合法的Base64url字符串
+     */
+    public static long[] decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return new long[0];
+        }
+        byte[] bytes = DECODER.decode(encoded);
+        long[] bits = new long[(bytes.length + Long.BYTES - 1) / Long.BYTES];
+        for (int i = 0; i < bytes.length; i++) {
+            bits[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return bits;
+    }
+
+    /**
+     * 判断位图中是否包含指定位
+     *
+     * @param bits  权限位图
+     * @param index 位编号
+     * @return true-包含
+     */
+    public static boolean contains(long[] bits, int index) {
+        if (bits == null || index < 0) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < bits.length && (bits[word] & (1L << index)) != 0;
+    }
+
+    private static byte byteAt(long[] bits, int byteIndex) {
+        return (byte) (bits[byteIndex >>> 3] >>> ((byteIndex & 7) << 3));
+    }
+}
@@ -120,6 +120,13 @@ CREATE TABLE sys_user_role (
     INDEX idx_role (role_id)
 ) COMMENT '用户角色关联表';
 
+-- 数据版本表（各节点通过该表互相通知数据表版本号的变化，用于ETag等缓存校验）
+CREATE TABLE sys_data_version (
+    version_key VARCHAR(64) PRIMARY KEY COMMENT '版本键：表名、表名:部门ID或表名:（未分配部门的数据）',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '版本号',
+    update_time DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) COMMENT '数据版本表';
+
 -- 插入初始数据
 -- 默认管理员用户
 INSERT INTO sys_user (username, password, name, email, phone, status, deleted) VALUES
@@ -0,0 +1,104 @@
+package com.haocai.management.benchmark;
+
+import com.haocai.management.utils.JwtAlgorithm;
+import com.haocai.management.utils.JwtKeyRing;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.SecureDigestAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT签名/验证基准测试
+ *
+ * 对比HS256、EdDSA、ES256三种算法签发和验证access token的开销，
+ * 用于评估切换到非对称签名后登录、续期和每个请求验证token的成本。
+ *
+ * 运行方式（不随单元测试执行）：
+ * mvn test-compile 后执行 JwtSigningBenchmark.main，或
+ * java -cp target/test-classes:target/classes:依赖 org.openjdk.jmh.Main JwtSigningBenchmark
+ *
+ * @author 开发团队
+ * @since 2026-01-05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"HS256", "EdDSA", "ES256"})
+    private String algorithm;
+
+    private JwtKeyRing ring;
+
+    private JwtParser parser;
+
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        JwtAlgorithm jwtAlgorithm = JwtAlgorithm.of(algorithm);
+        if (jwtAlgorithm.isAsymmetric()) {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(jwtAlgorithm.getKeyFactoryAlgorithm());
+            if (jwtAlgorithm == JwtAlgorithm.ES256) {
+                generator.initialize(new ECGenParameterSpec("secp256r1"));
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            String publicKey = "bench:" + Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded());
+            String privateKey = Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded());
+            ring = JwtKeyRing.fromKeyPairs(jwtAlgorithm, "bench", privateKey, new String[]{publicKey});
+        } else {
+            ring = JwtKeyRing.fromSecrets("benchmark-secret-key-for-jwt-signing-2024", null,
+                    86400000L, 604800000L, System.currentTimeMillis());
+        }
+        parser = Jwts.parser()
+                .keyLocator(header -> ring.findVerificationKey(((ProtectedHeader) header).getKeyId()))
+                .build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwts.builder()
+                .header().keyId(ring.getSigningKeyId()).and()
+                .claim("userId", 1L)
+                .claim("username", "admin")
+                .claim("typ", "access")
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 1800000L))
+                .signWith(ring.getSigningKey(), signatureAlgorithm())
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private SecureDigestAlgorithm signatureAlgorithm() {
+        return ring.getSignatureAlgorithm();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtSigningBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
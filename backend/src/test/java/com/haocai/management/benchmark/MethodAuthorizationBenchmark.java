@@ -0,0 +1,124 @@
+package com.haocai.management.benchmark;
+
+import com.haocai.management.entity.SysUser;
+import com.haocai.management.security.AuthoritySnapshot;
+import com.haocai.management.security.AuthorityResolver;
+import com.haocai.management.security.LoginUser;
+import com.haocai.management.security.PermissionAuthorizationManager;
+import com.haocai.management.security.RequiresPermission;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 方法授权基准测试
+ *
+ * 对比@PreAuthorize（SpEL）与@RequiresPermission（预编译规则+权限位图）每次调用的授权开销，
+ * 分别覆盖只要求登录和要求具体权限两种场景。
+ *
+ * 运行方式（不随单元测试执行）：
+ * mvn test-compile 后执行 MethodAuthorizationBenchmark.main
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MethodAuthorizationBenchmark {
+
+    private final PreAuthorizeAuthorizationManager spelManager = new PreAuthorizeAuthorizationManager();
+
+    private PermissionAuthorizationManager permissionManager;
+
+    private Supplier<Authentication> authentication;
+
+    private SimpleMethodInvocation authenticatedOnly;
+
+    private SimpleMethodInvocation withPermission;
+
+    @Setup
+    public void setup() throws Exception {
+        LinkedHashMap<Long, String> permissions = new LinkedHashMap<>();
+        for (long id = 1; id <= 40; id++) {
+            permissions.put(id, "perm:" + id);
+        }
+        permissions.put(100L, "system:user");
+        AuthoritySnapshot snapshot = AuthoritySnapshot.build(permissions, Map.of(1L, "admin"),
+                Map.of(1L, List.copyOf(permissions.keySet())), Map.of(1L, List.of(1L)));
+        AuthorityResolver resolver = new AuthorityResolver();
+        Field field = AuthorityResolver.class.getDeclaredField("snapshot");
+        field.setAccessible(true);
+        field.set(resolver, snapshot);
+        permissionManager = new PermissionAuthorizationManager(resolver);
+
+        SysUser user = new SysUser();
+        user.setId(1L);
+        user.setUsername("admin");
+        LoginUser loginUser = new LoginUser(user, snapshot.forUser(1L).authorities());
+        Authentication auth = new UsernamePasswordAuthenticationToken(loginUser, null, loginUser.getAuthorities());
+        authentication = () -> auth;
+
+        Target target = new Target();
+        authenticatedOnly = new SimpleMethodInvocation(target, Target.class.getMethod("authenticatedOnly"));
+        withPermission = new SimpleMethodInvocation(target, Target.class.getMethod("withPermission"));
+    }
+
+    @Benchmark
+    public AuthorizationDecision spelAuthenticated() {
+        return spelManager.check(authentication, authenticatedOnly);
+    }
+
+    @Benchmark
+    public AuthorizationDecision compiledAuthenticated() {
+        return permissionManager.check(authentication, authenticatedOnly);
+    }
+
+    @Benchmark
+    public AuthorizationDecision spelHasAuthority() {
+        return spelManager.check(authentication, withPermission);
+    }
+
+    @Benchmark
+    public AuthorizationDecision compiledHasPermission() {
+        return permissionManager.check(authentication, withPermission);
+    }
+
+    public static class Target {
+
+        @PreAuthorize("isAuthenticated()")
+        @RequiresPermission
+        public void authenticatedOnly() {
+        }
+
+        @PreAuthorize("hasAuthority('system:user')")
+        @RequiresPermission("system:user")
+        public void withPermission() {
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MethodAuthorizationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
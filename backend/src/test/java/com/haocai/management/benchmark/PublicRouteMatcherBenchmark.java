@@ -0,0 +1,64 @@
+package com.haocai.management.benchmark;
+
+import com.haocai.management.security.PublicEndpoints;
+import com.haocai.management.security.PublicRouteMatcher;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 公开路由匹配基准测试
+ *
+ * 对比预编译的PublicRouteMatcher与逐个调用AntPathMatcher匹配模式字符串的开销，
+ * 覆盖健康检查、用户名探测和需要认证的接口三类路径。
+ *
+ * 运行方式（不随单元测试执行）：
+ * mvn test-compile 后执行 PublicRouteMatcherBenchmark.main
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicRouteMatcherBenchmark {
+
+    @Param({"/actuator/health", "/api/users/check/username", "/api/users/current"})
+    private String path;
+
+    private final PublicRouteMatcher precompiled = new PublicRouteMatcher();
+
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    private final String[] patterns = PublicEndpoints.all();
+
+    @Benchmark
+    public boolean precompiled() {
+        return precompiled.matches(path);
+    }
+
+    @Benchmark
+    public boolean antPathMatcher() {
+        for (String pattern : patterns) {
+            if (antPathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PublicRouteMatcherBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
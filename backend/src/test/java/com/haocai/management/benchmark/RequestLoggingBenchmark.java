@@ -0,0 +1,110 @@
+package com.haocai.management.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 请求日志吞吐量基准测试
+ *
+ * 模拟一次携带token的请求：少量业务计算加上认证路径上的一条INFO日志，
+ * 对比三种配置下的请求吞吐量：
+ * - OFF：INFO未开启（调整后的认证路径，日志在级别判断处返回）
+ * - SYNC：INFO开启，请求线程同步编码并写出（调整前的控制台输出方式）
+ * - ASYNC：INFO开启，经AsyncAppender有界队列写出（logback-spring.xml的配置）
+ *
+ * 输出目标为空输出流，只测量日志框架本身的开销，不受终端速度影响。
+ * ASYNC在队列剩余容量低于20%时会丢弃INFO日志，这正是生产配置下的行为。
+ *
+ * 运行方式（不随单元测试执行）：
+ * mvn test-compile 后执行 RequestLoggingBenchmark.main
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class RequestLoggingBenchmark {
+
+    @Param({"OFF", "SYNC", "ASYNC"})
+    private String mode;
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    private final Long userId = 10086L;
+
+    private final String username = "teacher01";
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> sink = new OutputStreamAppender<>();
+        sink.setContext(context);
+        sink.setEncoder(encoder);
+        sink.setOutputStream(OutputStream.nullOutputStream());
+        sink.start();
+
+        Appender<ILoggingEvent> appender = sink;
+        if ("ASYNC".equals(mode)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setIncludeCallerData(false);
+            async.addAppender(sink);
+            async.start();
+            appender = async;
+        }
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.addAppender(appender);
+        root.setLevel("OFF".equals(mode) ? Level.WARN : Level.INFO);
+        logger = context.getLogger("com.haocai.management.service.impl.UserDetailsServiceImpl");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void request(Blackhole blackhole) {
+        // 模拟token解析、权限判断等请求处理开销
+        Blackhole.consumeCPU(200);
+        logger.info("用户详情加载成功 - 用户ID: {}, 用户名: {}", userId, username);
+        blackhole.consume(userId);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RequestLoggingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
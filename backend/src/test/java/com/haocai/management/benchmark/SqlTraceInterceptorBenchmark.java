@@ -0,0 +1,80 @@
+package com.haocai.management.benchmark;
+
+import com.haocai.management.mybatis.SqlTraceInterceptor;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL追踪拦截器基准测试
+ *
+ * 对比直接执行语句与经SqlTraceInterceptor执行的耗时差，
+ * 语句本身是空实现，差值即每条语句的统计和指标记录开销（目标：低于1微秒）。
+ * 使用带百分位直方图的Prometheus注册表，与生产配置一致。
+ *
+ * 运行方式（不随单元测试执行）：
+ * mvn test-compile 后执行 SqlTraceInterceptorBenchmark.main
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlTraceInterceptorBenchmark {
+
+    private SqlTraceInterceptor interceptor;
+
+    private Invocation invocation;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        // 生产默认配置：慢SQL阈值500ms，不采样，不开启全量追踪
+        interceptor = new SqlTraceInterceptor(500, 0, new String[0],
+                new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), true);
+        Configuration configuration = new Configuration();
+        MappedStatement statement = new MappedStatement.Builder(configuration,
+                "com.haocai.management.mapper.SysUserMapper.selectById",
+                new StaticSqlSource(configuration, "SELECT * FROM sys_user WHERE id = ?"),
+                SqlCommandType.SELECT).build();
+        // 空执行器：update直接返回1，不访问数据库
+        Executor executor = (Executor) Proxy.newProxyInstance(Executor.class.getClassLoader(),
+                new Class<?>[]{Executor.class}, (proxy, method, args) -> 1);
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        invocation = new Invocation(executor, update, new Object[]{statement, 1L});
+    }
+
+    @Benchmark
+    public Object direct() throws Exception {
+        return invocation.proceed();
+    }
+
+    @Benchmark
+    public Object intercepted() throws Throwable {
+        return interceptor.intercept(invocation);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SqlTraceInterceptorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
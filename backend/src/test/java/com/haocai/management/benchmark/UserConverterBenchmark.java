@@ -0,0 +1,97 @@
+package com.haocai.management.benchmark;
+
+import com.haocai.management.converter.UserConverter;
+import com.haocai.management.dto.UserVO;
+import com.haocai.management.entity.SysUser;
+import com.haocai.management.entity.UserStatus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户VO转换基准测试
+ *
+ * 转换一页用户（SysUser -> UserVO），对比：
+ * - beanUtils：原SysUserController.convertToUserVO的实现（BeanUtils.copyProperties + 状态转换）
+ * - converter：UserConverter.toVO逐字段赋值
+ *
+ * 运行方式（不随单元测试执行）：
+ * mvn test-compile 后执行 UserConverterBenchmark.main
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserConverterBenchmark {
+
+    @Param({"1000"})
+    private int pageSize;
+
+    private List<SysUser> users;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        UserStatus[] statuses = UserStatus.values();
+        users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            SysUser user = new SysUser();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setPassword("$2a$10$abcdefghijklmnopqrstuv");
+            user.setName("用户" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPhone("138" + String.format("%08d", i));
+            user.setStatus(statuses[i % statuses.length]);
+            user.setDepartmentId((long) (i % 20));
+            user.setCreateTime(now.minusDays(i));
+            user.setUpdateTime(now.minusHours(i));
+            user.setLastLoginTime(now.minusMinutes(i));
+            user.setRemark(i % 3 == 0 ? "备注" + i : null);
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public List<UserVO> beanUtils() {
+        List<UserVO> result = new ArrayList<>(users.size());
+        for (SysUser user : users) {
+            UserVO vo = new UserVO();
+            BeanUtils.copyProperties(user, vo);
+            if (user.getStatus() != null) {
+                vo.setStatus(user.getStatus().ordinal());
+            }
+            result.add(vo);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<UserVO> converter() {
+        List<UserVO> result = new ArrayList<>(users.size());
+        for (SysUser user : users) {
+            result.add(UserConverter.toVO(user));
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserConverterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
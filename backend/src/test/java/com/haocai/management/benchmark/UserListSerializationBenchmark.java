@@ -0,0 +1,136 @@
+package com.haocai.management.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.haocai.management.common.ApiResponse;
+import com.haocai.management.config.JacksonConfig;
+import com.haocai.management.dto.PageResult;
+import com.haocai.management.dto.UserVO;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户列表响应序列化基准测试
+ *
+ * 序列化GET /api/users的响应（ApiResponse<PageResult<UserVO>>），对比：
+ * - defaultMapper：Spring Boot默认配置（JavaTimeModule，日期不输出为时间戳）
+ * - tunedMapper：在默认配置上应用JacksonConfig（Blackbird + FastLocalDateTimeSerializer）
+ *
+ * 除ops/s外，辅助计数器bytes给出每秒输出的JSON字节数。
+ *
+ * 运行方式（不随单元测试执行）：
+ * mvn test-compile 后执行 UserListSerializationBenchmark.main
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserListSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectWriter defaultWriter;
+
+    private ObjectWriter tunedWriter;
+
+    private ApiResponse<PageResult<UserVO>> response;
+
+    /**
+     * 每秒输出字节数
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Throughput {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    /**
+     * 每个线程复用的输出缓冲
+     */
+    @State(Scope.Thread)
+    public static class Buffer {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @Setup
+    public void setUp() {
+        ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        Jackson2ObjectMapperBuilder tunedBuilder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        new JacksonConfig().jacksonCustomizer().customize(tunedBuilder);
+        ObjectMapper tunedMapper = tunedBuilder.build();
+
+        defaultWriter = defaultMapper.writer();
+        tunedWriter = tunedMapper.writer();
+
+        List<UserVO> records = new ArrayList<>(pageSize);
+        LocalDateTime base = LocalDateTime.of(2026, 1, 7, 8, 0, 0, 123_456_000);
+        for (int i = 0; i < pageSize; i++) {
+            UserVO user = new UserVO();
+            user.setId((long) i + 1);
+            user.setUsername("teacher" + i);
+            user.setName("教师" + i);
+            user.setEmail("teacher" + i + "@example.edu.cn");
+            user.setPhone("1380000" + String.format("%04d", i));
+            user.setStatus(1);
+            user.setDepartmentId((long) (i % 8) + 1);
+            user.setRoles(new String[]{"USER"});
+            user.setCreateTime(base.plusMinutes(i));
+            user.setUpdateTime(base.plusHours(i));
+            user.setLastLoginTime(base.plusSeconds(i * 37L));
+            user.setRemark("实验室耗材管理员");
+            records.add(user);
+        }
+        response = ApiResponse.success(new PageResult<>(records, 1000, 1, pageSize, 1000 / pageSize));
+    }
+
+    @Benchmark
+    public int defaultMapper(Buffer buffer, Throughput throughput) throws IOException {
+        return write(defaultWriter, buffer, throughput);
+    }
+
+    @Benchmark
+    public int tunedMapper(Buffer buffer, Throughput throughput) throws IOException {
+        return write(tunedWriter, buffer, throughput);
+    }
+
+    private int write(ObjectWriter writer, Buffer buffer, Throughput throughput) throws IOException {
+        buffer.out.reset();
+        writer.writeValue(buffer.out, response);
+        int size = buffer.out.size();
+        throughput.bytes += size;
+        return size;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(UserListSerializationBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
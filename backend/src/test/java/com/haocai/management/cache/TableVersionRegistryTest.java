@@ -0,0 +1,185 @@
+package com.haocai.management.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数据表版本登记测试
+ *
+ * 测试场景：
+ * 1. 版本号递增后ETag变化，多张表的ETag分别反映各自的版本
+ * 2. 事务中的递增在提交后才生效，回滚时不生效
+ * 3. 启用读写分离时，递增后的粘滞窗口内不生成ETag
+ * 4. 部门版本号：已知部门的修改只影响这些部门，未知部门的修改影响全部部门
+ * 5. 待发布的版本键与其他节点发布的版本变化
+ * 6. 两个节点（进程）的版本号相同时ETag也不相同
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+public class TableVersionRegistryTest {
+
+    /**
+     * 测试1：版本号与ETag
+     */
+    @Test
+    void testBumpChangesETag() {
+        TableVersionRegistry registry = new TableVersionRegistry(false, 5000);
+
+        String userETag = registry.weakETag(TableVersionRegistry.SYS_USER);
+        String combinedETag = registry.weakETag(TableVersionRegistry.SYS_USER, TableVersionRegistry.SYS_DEPARTMENT);
+        assertTrue(userETag.startsWith("W/\"") && userETag.endsWith("\""));
+        assertEquals(userETag, registry.weakETag(TableVersionRegistry.SYS_USER));
+
+        registry.bump(TableVersionRegistry.SYS_DEPARTMENT);
+        assertEquals(userETag, registry.weakETag(TableVersionRegistry.SYS_USER));
+        assertNotEquals(combinedETag,
+                registry.weakETag(TableVersionRegistry.SYS_USER, TableVersionRegistry.SYS_DEPARTMENT));
+
+        long before = registry.current(TableVersionRegistry.SYS_USER);
+        registry.bump(TableVersionRegistry.SYS_USER);
+        assertEquals(before + 1, registry.current(TableVersionRegistry.SYS_USER));
+        assertNotEquals(userETag, registry.weakETag(TableVersionRegistry.SYS_USER));
+    }
+
+    /**
+     * 测试2：事务提交后递增
+     */
+    @Test
+    void testBumpAfterCommit() {
+        TableVersionRegistry registry = new TableVersionRegistry(false, 5000);
+        long initial = registry.current(TableVersionRegistry.SYS_USER);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.bumpAfterCommit(TableVersionRegistry.SYS_USER);
+            assertEquals(initial, registry.current(TableVersionRegistry.SYS_USER));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(initial + 1, registry.current(TableVersionRegistry.SYS_USER));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // 回滚时不会调用afterCommit
+            registry.bumpAfterCommit(TableVersionRegistry.SYS_USER);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(initial + 1, registry.current(TableVersionRegistry.SYS_USER));
+
+        registry.bumpAfterCommit(TableVersionRegistry.SYS_USER);
+        assertEquals(initial + 2, registry.current(TableVersionRegistry.SYS_USER));
+    }
+
+    /**
+     * 测试3：读写分离时的粘滞窗口
+     */
+    @Test
+    void testNoETagWithinSettleWindow() throws InterruptedException {
+        TableVersionRegistry registry = new TableVersionRegistry(true, 200);
+        assertNotNull(registry.weakETag(TableVersionRegistry.SYS_USER));
+
+        registry.bump(TableVersionRegistry.SYS_USER);
+        assertNull(registry.weakETag(TableVersionRegistry.SYS_USER));
+        assertNull(registry.weakETag(TableVersionRegistry.SYS_DEPARTMENT, TableVersionRegistry.SYS_USER));
+        assertNotNull(registry.weakETag(TableVersionRegistry.SYS_DEPARTMENT));
+
+        Thread.sleep(250);
+        assertNotNull(registry.weakETag(TableVersionRegistry.SYS_USER));
+    }
+
+    /**
+     * 测试4：部门版本号
+     */
+    @Test
+    void testDepartmentVersions() {
+        TableVersionRegistry registry = new TableVersionRegistry(false, 5000);
+        String table = TableVersionRegistry.SYS_USER;
+        long dept1 = registry.departmentVersion(table, 1L);
+        long dept2 = registry.departmentVersion(table, 2L);
+        String dept1ETag = registry.weakDepartmentETag(table, List.of(1L));
+        String treeETag = registry.weakDepartmentETag(table, List.of(1L, 2L), TableVersionRegistry.SYS_DEPARTMENT);
+
+        registry.bump(table, List.of(2L));
+        assertEquals(dept1, registry.departmentVersion(table, 1L));
+        assertEquals(dept2 + 1, registry.departmentVersion(table, 2L));
+        assertEquals(dept1ETag, registry.weakDepartmentETag(table, List.of(1L)));
+        assertNotEquals(treeETag,
+                registry.weakDepartmentETag(table, List.of(1L, 2L), TableVersionRegistry.SYS_DEPARTMENT));
+
+        // 未分配部门的数据只影响表的版本号
+        long tableVersion = registry.current(table);
+        registry.bump(table, Arrays.asList((Long) null));
+        assertEquals(tableVersion + 1, registry.current(table));
+        assertEquals(dept1ETag, registry.weakDepartmentETag(table, List.of(1L)));
+
+        registry.bump(table);
+        assertEquals(dept1 + 1, registry.departmentVersion(table, 1L));
+        assertEquals(dept2 + 2, registry.departmentVersion(table, 2L));
+        assertNotEquals(dept1ETag, registry.weakDepartmentETag(table, List.of(1L)));
+    }
+
+    /**
+     * 测试5：发布与应用其他节点的变化
+     */
+    @Test
+    void testPublishAndApplyRemote() {
+        TableVersionRegistry registry = new TableVersionRegistry(false, 5000);
+        String table = TableVersionRegistry.SYS_USER;
+
+        registry.bump(table, Arrays.asList(1L, null, 1L));
+        registry.bump(table);
+        registry.bumpLocal(TableVersionRegistry.SYS_DEPARTMENT);
+        List<String> keys = registry.drainUnpublished();
+        assertEquals(3, keys.size());
+        assertTrue(keys.containsAll(List.of("sys_user:1", "sys_user:", "sys_user")));
+        assertTrue(registry.drainUnpublished().isEmpty());
+
+        long dept1 = registry.departmentVersion(table, 1L);
+        long dept2 = registry.departmentVersion(table, 2L);
+        long tableVersion = registry.current(table);
+        registry.applyRemote("sys_user:2");
+        assertEquals(dept1, registry.departmentVersion(table, 1L));
+        assertEquals(dept2 + 1, registry.departmentVersion(table, 2L));
+        registry.applyRemote("sys_user:");
+        registry.applyRemote("sys_user:abc");
+        assertEquals(tableVersion + 2, registry.current(table));
+        registry.applyRemote("sys_user");
+        assertEquals(dept1 + 1, registry.departmentVersion(table, 1L));
+
+        // 其他节点的变化不再发布
+        assertTrue(registry.drainUnpublished().isEmpty());
+    }
+
+    /**
+     * 测试6：不同节点的ETag
+     */
+    @Test
+    void testETagsDifferAcrossNodes() {
+        TableVersionRegistry node1 = new TableVersionRegistry(false, 5000);
+        TableVersionRegistry node2 = new TableVersionRegistry(false, 5000);
+        String table = TableVersionRegistry.SYS_USER;
+
+        // 节点1本地修改两次，节点2应用一轮同步，计数恰好相同
+        node1.bump(table, List.of(1L));
+        node1.bump(table, List.of(1L));
+        node2.applyRemote("sys_user:1");
+        node2.bumpLocal(table);
+        assertEquals(node1.current(table), node2.current(table));
+        assertEquals(node1.departmentVersion(table, 1L), node2.departmentVersion(table, 1L));
+
+        assertNotEquals(node1.weakETag(table), node2.weakETag(table));
+        assertNotEquals(node1.weakDepartmentETag(table, List.of(1L)),
+                node2.weakDepartmentETag(table, List.of(1L)));
+    }
+}
@@ -0,0 +1,109 @@
+package com.haocai.management.cache;
+
+import com.haocai.management.entity.SysDataVersion;
+import com.haocai.management.mapper.SysDataVersionMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * 数据表版本同步测试
+ *
+ * 测试场景：
+ * 1. 同一版本键的多次修改只发布一次，本节点的发布不会被当作其他节点的修改
+ * 2. 其他节点发布的变化使本节点的版本号递增
+ * 3. 发布失败时保留待发布的版本键，下次同步重试
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+@ExtendWith(MockitoExtension.class)
+public class TableVersionSynchronizerTest {
+
+    @Spy
+    private TableVersionRegistry registry = new TableVersionRegistry(false, 5000);
+
+    @Mock
+    private SysDataVersionMapper dataVersionMapper;
+
+    @InjectMocks
+    private TableVersionSynchronizer synchronizer;
+
+    /**
+     * 测试1：合并发布
+     */
+    @Test
+    void testPublishCoalesced() {
+        when(dataVersionMapper.selectList(any())).thenReturn(List.of(row("sys_user:1", 4)));
+        synchronizer.synchronize();
+
+        registry.bump(TableVersionRegistry.SYS_USER, List.of(1L));
+        registry.bump(TableVersionRegistry.SYS_USER, List.of(1L));
+        long version = registry.departmentVersion(TableVersionRegistry.SYS_USER, 1L);
+        when(dataVersionMapper.selectList(any())).thenReturn(List.of(row("sys_user:1", 5)));
+        synchronizer.synchronize();
+
+        verify(dataVersionMapper, times(1)).increment("sys_user:1");
+        assertEquals(version, registry.departmentVersion(TableVersionRegistry.SYS_USER, 1L));
+    }
+
+    /**
+     * 测试2：应用其他节点的变化
+     */
+    @Test
+    void testApplyRemoteChanges() {
+        when(dataVersionMapper.selectList(any())).thenReturn(List.of(row("sys_user:1", 4), row("sys_user", 2)));
+        synchronizer.synchronize();
+        long dept1 = registry.departmentVersion(TableVersionRegistry.SYS_USER, 1L);
+        long dept2 = registry.departmentVersion(TableVersionRegistry.SYS_USER, 2L);
+
+        when(dataVersionMapper.selectList(any()))
+                .thenReturn(List.of(row("sys_user:1", 4), row("sys_user", 2), row("sys_user:2", 1)));
+        synchronizer.synchronize();
+        assertEquals(dept1, registry.departmentVersion(TableVersionRegistry.SYS_USER, 1L));
+        assertEquals(dept2 + 1, registry.departmentVersion(TableVersionRegistry.SYS_USER, 2L));
+
+        // 本节点与其他节点同时修改同一版本键
+        registry.bump(TableVersionRegistry.SYS_USER, List.of(1L));
+        long afterLocal = registry.departmentVersion(TableVersionRegistry.SYS_USER, 1L);
+        when(dataVersionMapper.selectList(any()))
+                .thenReturn(List.of(row("sys_user:1", 6), row("sys_user", 2), row("sys_user:2", 1)));
+        synchronizer.synchronize();
+        assertEquals(afterLocal + 1, registry.departmentVersion(TableVersionRegistry.SYS_USER, 1L));
+        verify(dataVersionMapper, never()).increment("sys_user:2");
+    }
+
+    /**
+     * 测试3：发布失败后重试
+     */
+    @Test
+    void testRetryAfterFailure() {
+        registry.bump(TableVersionRegistry.SYS_USER);
+        doThrow(new RuntimeException("Table 'sys_data_version' doesn't exist"))
+                .doReturn(1)
+                .when(dataVersionMapper).increment("sys_user");
+        synchronizer.synchronize();
+        verify(dataVersionMapper, never()).selectList(any());
+
+        when(dataVersionMapper.selectList(any())).thenReturn(List.of(row("sys_user", 1)));
+        synchronizer.synchronize();
+        verify(dataVersionMapper, times(2)).increment("sys_user");
+        assertTrue(registry.drainUnpublished().isEmpty());
+    }
+
+    private static SysDataVersion row(String key, long version) {
+        SysDataVersion row = new SysDataVersion();
+        row.setVersionKey(key);
+        row.setVersion(version);
+        return row;
+    }
+}
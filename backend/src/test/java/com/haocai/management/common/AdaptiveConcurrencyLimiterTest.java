@@ -0,0 +1,133 @@
+package com.haocai.management.common;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 自适应并发限制器测试
+ *
+ * 测试场景：
+ * 1. 达到限制时立即拒绝，释放后可再次占用，指标反映限制、处理中请求数和拒绝次数
+ * 2. 耗时正常且并发过半时限制加1，不超过上限；低负载时限制不变
+ * 3. 超时或失败时限制按比例缩减，不低于下限
+ * 4. 同一时间窗口内多个请求超时只缩减一次
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    /**
+     * 缩减窗口，与构造限制器时的超时阈值100毫秒一致
+     */
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * 测试1：达到限制时拒绝
+     */
+    @Test
+    void testRejectAtLimit() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 100, 0.5, registry);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+        assertEquals(2.0, registry.get("http.concurrency.in-flight").tag("group", "test").gauge().value());
+        assertEquals(1.0, registry.get("http.concurrency.rejected").tag("group", "test").counter().count());
+
+        limiter.release(FAST, false);
+        assertEquals(1, limiter.getInFlight());
+        assertTrue(limiter.tryAcquire());
+        assertEquals(3.0, registry.get("http.concurrency.limit").tag("group", "test").gauge().value());
+    }
+
+    /**
+     * 测试2：加性增
+     */
+    @Test
+    void testAdditiveIncrease() {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("test", 4, 1, 5, 100, 0.5, new SimpleMeterRegistry());
+
+        // 并发1，不到限制的一半，限制不变
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, false);
+        assertEquals(4, limiter.getLimit());
+
+        // 并发2，达到限制的一半，限制加1
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.getLimit());
+
+        // 不超过上限
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        limiter.release(FAST, false);
+        assertEquals(5, limiter.getLimit());
+    }
+
+    /**
+     * 测试3：乘性减
+     */
+    @Test
+    void testMultiplicativeDecrease() {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("test", 8, 3, 10, 100, 0.5, new SimpleMeterRegistry());
+
+        long now = System.nanoTime();
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW, false, now);
+        assertEquals(4, limiter.getLimit());
+
+        now += WINDOW;
+        assertTrue(limiter.tryAcquire());
+        limiter.release(FAST, true, now);
+        assertEquals(3, limiter.getLimit());
+
+        now += WINDOW;
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW, false, now);
+        assertEquals(3, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new AdaptiveConcurrencyLimiter("bad", 1, 5, 2, 100, 0.5, new SimpleMeterRegistry()));
+    }
+
+    /**
+     * 测试4：按窗口缩减
+     */
+    @Test
+    void testBackoffOncePerWindow() {
+        AdaptiveConcurrencyLimiter limiter =
+                new AdaptiveConcurrencyLimiter("test", 50, 2, 100, 100, 0.9, new SimpleMeterRegistry());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // 50个处理中的请求同时超时，只缩减一次
+        long now = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            limiter.release(SLOW, false, now + i);
+        }
+        assertEquals(45, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+
+        // 下一个窗口再次超时才继续缩减
+        assertTrue(limiter.tryAcquire());
+        limiter.release(SLOW, false, now + WINDOW);
+        assertEquals(40, limiter.getLimit());
+    }
+}
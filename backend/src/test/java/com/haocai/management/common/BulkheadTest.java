@@ -0,0 +1,71 @@
+package com.haocai.management.common;
+
+import com.haocai.management.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 信号量隔离舱测试
+ * 
+ * 测试场景：
+ * 1. 未满时直接执行并释放许可
+ * 2. 已满时等待超时抛出BulkheadFullException并计入拒绝指标
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class BulkheadTest {
+
+    /**
+     * 测试1：未满时执行
+     */
+    @Test
+    void testCallReleasesPermit() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead("test", 2, 10, registry);
+
+        assertEquals("ok", bulkhead.call(() -> {
+            assertEquals(1, bulkhead.getActiveCount());
+            return "ok";
+        }));
+        assertEquals(0, bulkhead.getActiveCount());
+        assertEquals(2.0, registry.get("db.bulkhead.limit").tag("name", "test").gauge().value());
+    }
+
+    /**
+     * 测试2：已满时拒绝
+     */
+    @Test
+    void testRejectWhenFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Bulkhead bulkhead = new Bulkhead("test", 1, 20, registry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> bulkhead.run(() -> {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        holder.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        BulkheadFullException e = assertThrows(BulkheadFullException.class, () -> bulkhead.run(() -> { }));
+        assertEquals("test", e.getBulkheadName());
+        assertEquals(503, e.getCode());
+        assertEquals(1.0, registry.get("db.bulkhead.rejected").tag("name", "test").counter().count());
+        assertEquals(1, registry.get("db.bulkhead.wait").tag("name", "test").timer().count());
+
+        release.countDown();
+        holder.join();
+        assertEquals(0, bulkhead.getActiveCount());
+    }
+}
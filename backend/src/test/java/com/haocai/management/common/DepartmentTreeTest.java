@@ -0,0 +1,102 @@
+package com.haocai.management.common;
+
+import com.haocai.management.dto.DepartmentTreeVO;
+import com.haocai.management.entity.SysDepartment;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 部门树快照测试
+ * 
+ * 测试场景：
+ * 1. 下级部门按先序区间截取，同级按sort_order排序
+ * 2. 物化路径、深度和子树判断
+ * 3. 父部门缺失和parent_id成环时不丢失部门、不死循环
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class DepartmentTreeTest {
+
+    private static SysDepartment department(long id, Long parentId, int sortOrder) {
+        SysDepartment department = new SysDepartment();
+        department.setId(id);
+        department.setName("部门" + id);
+        department.setParentId(parentId);
+        department.setSortOrder(sortOrder);
+        return department;
+    }
+
+    /**
+     * 1 ─┬─ 3 ── 7
+     *    └─ 2
+     * 4
+     */
+    private DepartmentTree buildDefault() {
+        return DepartmentTree.build(List.of(
+                department(4, null, 2),
+                department(7, 3L, 0),
+                department(2, 1L, 5),
+                department(3, 1L, 1),
+                department(1, null, 1)));
+    }
+
+    /**
+     * 测试1：下级部门ID
+     */
+    @Test
+    void testDescendantIds() {
+        DepartmentTree tree = buildDefault();
+
+        assertEquals(List.of(1L, 3L, 7L, 2L), tree.getDescendantIds(1L, true));
+        assertEquals(List.of(3L, 7L, 2L), tree.getDescendantIds(1L, false));
+        assertEquals(List.of(3L, 7L), tree.getDescendantIds(3L, true));
+        assertEquals(List.of(), tree.getDescendantIds(7L, false));
+        assertEquals(List.of(), tree.getDescendantIds(99L, true));
+        assertEquals(List.of(1L, 4L), tree.getRootIds());
+        assertEquals(List.of(3L, 2L), tree.getChildIds(1L));
+    }
+
+    /**
+     * 测试2：物化路径、深度和子树判断
+     */
+    @Test
+    void testPathAndAncestry() {
+        DepartmentTree tree = buildDefault();
+
+        assertEquals("/1/3/7/", tree.getPath(7L));
+        assertEquals("/4/", tree.getPath(4L));
+        assertEquals(3, tree.getDepth(7L));
+        assertTrue(tree.isDescendant(1L, 7L));
+        assertTrue(tree.isDescendant(3L, 3L));
+        assertFalse(tree.isDescendant(3L, 2L));
+        assertFalse(tree.isDescendant(7L, 1L));
+        assertFalse(tree.isDescendant(4L, 1L));
+
+        List<DepartmentTreeVO> roots = tree.toTreeVO();
+        assertEquals(2, roots.size());
+        assertEquals(2, roots.get(0).getChildren().size());
+        assertEquals(7L, roots.get(0).getChildren().get(0).getChildren().get(0).getId());
+    }
+
+    /**
+     * 测试3：父部门缺失和成环
+     */
+    @Test
+    void testOrphanAndCycle() {
+        DepartmentTree tree = DepartmentTree.build(List.of(
+                department(1, 99L, 0),
+                department(5, 6L, 0),
+                department(6, 5L, 0)));
+
+        assertEquals(3, tree.size());
+        assertEquals("/1/", tree.getPath(1L));
+        assertEquals(List.of(5L, 6L), tree.getDescendantIds(5L, true));
+        assertEquals("/5/6/", tree.getPath(6L));
+        assertEquals(1, tree.toTreeVO().get(1).getChildren().size());
+        assertTrue(tree.toTreeVO().get(1).getChildren().get(0).getChildren().isEmpty());
+    }
+}
@@ -0,0 +1,63 @@
+package com.haocai.management.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求ID生成器测试
+ *
+ * 测试场景：
+ * 1. 生成的ID带节点前缀、按计数器递增且不重复
+ * 2. 节点ID派生结果稳定且为3位
+ * 3. 上游请求ID的合法性校验
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class RequestIdGeneratorTest {
+
+    /**
+     * 测试1：生成格式与唯一性
+     */
+    @Test
+    void testNext() {
+        RequestIdGenerator generator = new RequestIdGenerator("n01", 35);
+        assertEquals("n01-z", generator.next());
+        assertEquals("n01-10", generator.next());
+
+        RequestIdGenerator now = RequestIdGenerator.startingNow("abc");
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            String id = now.next();
+            assertTrue(id.startsWith("abc-"), id);
+            assertTrue(ids.add(id), id);
+        }
+    }
+
+    /**
+     * 测试2：节点ID派生
+     */
+    @Test
+    void testDeriveNodeId() {
+        String nodeId = RequestIdGenerator.deriveNodeId("haocai-backend-7d9f8c6b5-x2k4p");
+        assertEquals(3, nodeId.length());
+        assertEquals(nodeId, RequestIdGenerator.deriveNodeId("haocai-backend-7d9f8c6b5-x2k4p"));
+        assertTrue(RequestIds.isValid(nodeId));
+    }
+
+    /**
+     * 测试3：上游请求ID校验
+     */
+    @Test
+    void testIsValid() {
+        assertTrue(RequestIds.isValid("gw-20260107.abc_123"));
+        assertFalse(RequestIds.isValid(null));
+        assertFalse(RequestIds.isValid(""));
+        assertFalse(RequestIds.isValid("abc\nFAKE LOG LINE"));
+        assertFalse(RequestIds.isValid("x".repeat(65)));
+    }
+}
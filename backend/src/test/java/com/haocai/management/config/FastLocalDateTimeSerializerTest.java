@@ -0,0 +1,70 @@
+package com.haocai.management.config;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LocalDateTime序列化器测试
+ *
+ * 测试场景：
+ * 1. 输出与ISO_LOCAL_DATE_TIME逐字符一致（纳秒为0、末尾为0、随机值）
+ * 2. 超出0~9999年、@JsonFormat指定格式时交给JavaTimeModule处理
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class FastLocalDateTimeSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new SimpleModule().addSerializer(LocalDateTime.class, FastLocalDateTimeSerializer.INSTANCE))
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    /**
+     * 测试1：与ISO_LOCAL_DATE_TIME一致
+     */
+    @Test
+    void testMatchesIsoFormat() throws Exception {
+        assertFormat(LocalDateTime.of(2026, 1, 7, 9, 30));
+        assertFormat(LocalDateTime.of(2026, 1, 7, 9, 30, 5, 120_000_000));
+        assertFormat(LocalDateTime.of(2026, 12, 31, 23, 59, 59, 999_999_999));
+        assertFormat(LocalDateTime.of(0, 1, 1, 0, 0, 0, 1));
+        assertFormat(LocalDateTime.of(9999, 12, 31, 0, 0, 0, 1_000));
+
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            assertFormat(LocalDateTime.of(random.nextInt(10_000), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60),
+                    random.nextBoolean() ? random.nextInt(1_000) * 1_000_000 : random.nextInt(1_000_000_000)));
+        }
+    }
+
+    /**
+     * 测试2：回退到JavaTimeModule
+     */
+    @Test
+    void testFallback() throws Exception {
+        assertFormat(LocalDateTime.of(10_000, 1, 1, 0, 0));
+        assertFormat(LocalDateTime.of(-1, 1, 1, 0, 0));
+        assertEquals("{\"time\":\"2026-01-07 09:30\"}",
+                objectMapper.writeValueAsString(new Formatted(LocalDateTime.of(2026, 1, 7, 9, 30, 5))));
+    }
+
+    private void assertFormat(LocalDateTime value) throws Exception {
+        assertEquals("\"" + value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + "\"",
+                objectMapper.writeValueAsString(value));
+    }
+
+    private record Formatted(@JsonFormat(pattern = "yyyy-MM-dd HH:mm") LocalDateTime time) {
+    }
+}
@@ -4,11 +4,20 @@ import com.haocai.management.HaocaiManagementApplication;
 import com.haocai.management.utils.JwtUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Spring Security配置测试类
@@ -22,10 +31,13 @@ import static org.junit.jupiter.api.Assertions.*;
  * - 密码加密和验证
  * - JWT token生成和验证
  * - Security配置加载
+ * - 编码路径不能绕过/api/的认证要求
+ * - actuator只公开health和info，其他端点需要system权限
  * <p>
  * 注意：这是基础的配置测试，完整的认证授权测试需要集成测试
  */
 @SpringBootTest(classes = HaocaiManagementApplication.class)
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
 public class SecurityConfigTest {
 
@@ -38,6 +50,9 @@ public class SecurityConfigTest {
     @Autowired(required = false)
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private MockMvc mockMvc;
+
     /**
      * 测试1：验证Security配置加载成功
      */
@@ -121,4 +136,35 @@ public class SecurityConfigTest {
 
         assertTrue(passwordEncoder.matches(specialPassword, encodedPassword));
     }
+
+    /**
+     * 测试7：编码的/api前缀仍然需要认证
+     * 如/%61pi/fix/table解码后为/api/fix/table，Spring MVC会路由到受保护的控制器
+     */
+    @Test
+    public void testEncodedApiPrefixRequiresAuthentication() throws Exception {
+        mockMvc.perform(post(URI.create("/%61pi/fix/table")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post(URI.create("/api/fix/table")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    /**
+     * 测试8：actuator端点的访问控制
+     */
+    @Test
+    public void testActuatorEndpointsRequireSystemAuthority() throws Exception {
+        // 测试环境没有数据库，健康检查可能返回503，这里只验证不需要认证
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(result -> assertNotEquals(401, result.getResponse().getStatus()));
+
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get(URI.create("/%61ctuator/metrics")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").with(user("viewer").authorities()))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(user("admin").authorities(new SimpleGrantedAuthority("system"))))
+                .andExpect(status().isOk());
+    }
 }
@@ -0,0 +1,54 @@
+package com.haocai.management.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 虚拟线程配置测试
+ *
+ * 测试场景：
+ * 1. Java 21及以上：执行器为每个任务创建一个命名的虚拟线程
+ * 2. Java 21以下：创建执行器失败并给出明确的原因
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+public class VirtualThreadConfigTest {
+
+    private static final boolean VIRTUAL_THREADS_AVAILABLE = Runtime.version().feature() >= 21;
+
+    /**
+     * 测试1：任务在虚拟线程上执行
+     */
+    @Test
+    void testTasksRunOnVirtualThreads() throws Exception {
+        if (!VIRTUAL_THREADS_AVAILABLE) {
+            return;
+        }
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadExecutor("test-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+            assertTrue((Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            assertTrue(thread.getName().startsWith("test-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 测试2：低版本Java上启用时失败
+     */
+    @Test
+    void testRequiresJava21() {
+        if (VIRTUAL_THREADS_AVAILABLE) {
+            return;
+        }
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> VirtualThreadConfig.newVirtualThreadExecutor("test-"));
+        assertTrue(e.getMessage().contains("Java 21"));
+    }
+}
@@ -0,0 +1,171 @@
+package com.haocai.management.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haocai.management.HaocaiManagementApplication;
+import com.haocai.management.common.RequestIds;
+import com.haocai.management.dto.UserLoginDTO;
+import com.haocai.management.entity.SysUser;
+import com.haocai.management.exception.BusinessException;
+import com.haocai.management.service.ISysUserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 异步认证接口测试
+ *
+ * 测试场景：
+ * 1. 唯一性检查在线程池中执行，响应体的请求ID与响应头一致（MDC已传递）
+ * 2. 登录成功返回token对，登录失败返回401
+ * 3. 线程池和队列排满时返回503
+ * 4. 当前用户接口：首次分发时认证，结果分发不再要求认证
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+@SpringBootTest(classes = HaocaiManagementApplication.class,
+        properties = {"auth.executor.pool-size=1", "auth.executor.queue-capacity=1"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AsyncAuthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ISysUserService userService;
+
+    /**
+     * 测试1：唯一性检查
+     */
+    @Test
+    void testCheckUsername() throws Exception {
+        when(userService.existsByUsername("admin")).thenReturn(true);
+
+        MvcResult started = mockMvc.perform(get("/api/async/users/check/username").param("username", "admin"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String requestId = started.getResponse().getHeader(RequestIds.HEADER);
+        assertNotNull(requestId);
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.exists").value(true))
+                .andExpect(jsonPath("$.requestId").value(requestId));
+    }
+
+    /**
+     * 测试2：登录成功与失败
+     */
+    @Test
+    void testLogin() throws Exception {
+        SysUser user = new SysUser();
+        user.setId(1L);
+        user.setUsername("admin");
+        doReturn("access-token").when(userService).login(argThat(dto -> "admin123".equals(dto.getPassword())));
+        doThrow(BusinessException.passwordError())
+                .when(userService).login(argThat(dto -> "wrong-password".equals(dto.getPassword())));
+        when(userService.findByUsername("admin")).thenReturn(user);
+        when(userService.createRefreshToken(user)).thenReturn("refresh-token");
+
+        mockMvc.perform(asyncDispatch(performLogin("admin123")))
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.token").value("access-token"))
+                .andExpect(jsonPath("$.data.refreshToken").value("refresh-token"))
+                .andExpect(jsonPath("$.data.user.username").value("admin"));
+
+        mockMvc.perform(asyncDispatch(performLogin("wrong-password")))
+                .andExpect(jsonPath("$.code").value(401))
+                .andExpect(jsonPath("$.message", startsWith("用户登录失败")));
+    }
+
+    /**
+     * 测试3：线程池排满
+     */
+    @Test
+    void testRejectWhenSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.existsByEmail(anyString(), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return false;
+        });
+
+        List<MvcResult> accepted = new ArrayList<>();
+        try {
+            // 1个执行中、1个排队，第3个被拒绝
+            accepted.add(performCheckEmail());
+            accepted.add(performCheckEmail());
+            mockMvc.perform(asyncDispatch(performCheckEmail()))
+                    .andExpect(jsonPath("$.code").value(503));
+        } finally {
+            release.countDown();
+        }
+        for (MvcResult result : accepted) {
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(jsonPath("$.code").value(200))
+                    .andExpect(jsonPath("$.data.exists").value(false));
+        }
+    }
+
+    /**
+     * 测试4：当前用户
+     */
+    @Test
+    void testCurrentUser() throws Exception {
+        SysUser user = new SysUser();
+        user.setId(1L);
+        user.setUsername("admin");
+        when(userService.findByUsername("admin")).thenReturn(user);
+
+        mockMvc.perform(get("/api/async/users/current"))
+                .andExpect(status().isUnauthorized());
+
+        MvcResult started = mockMvc.perform(get("/api/async/users/current").with(user("admin")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.username").value("admin"));
+    }
+
+    private MvcResult performLogin(String password) throws Exception {
+        UserLoginDTO loginDTO = new UserLoginDTO();
+        loginDTO.setUsername("admin");
+        loginDTO.setPassword(password);
+        return mockMvc.perform(post("/api/async/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private MvcResult performCheckEmail() throws Exception {
+        return mockMvc.perform(get("/api/async/users/check/email").param("email", "a@example.com"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,110 @@
+package com.haocai.management.converter;
+
+import com.haocai.management.dto.UserRegisterDTO;
+import com.haocai.management.dto.UserUpdateDTO;
+import com.haocai.management.dto.UserVO;
+import com.haocai.management.entity.SysUser;
+import com.haocai.management.entity.UserStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.BeanUtils;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用户对象转换器测试
+ *
+ * 测试场景：
+ * 1. SysUser -> UserVO 与原BeanUtils.copyProperties的结果一致（防止新增字段遗漏）
+ * 2. 注册信息转换为用户实体，设置默认状态和时间
+ * 3. 更新信息只包含允许修改的字段
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+public class UserConverterTest {
+
+    /**
+     * 测试1：转换结果与BeanUtils一致
+     */
+    @Test
+    void testToVOMatchesBeanUtils() {
+        LocalDateTime now = LocalDateTime.now();
+        SysUser user = new SysUser();
+        user.setId(7L);
+        user.setUsername("zhangsan");
+        user.setPassword("secret-hash");
+        user.setName("张三");
+        user.setEmail("zhangsan@example.com");
+        user.setPhone("13800000000");
+        user.setAvatar("/avatar/7.png");
+        user.setStatus(UserStatus.LOCKED);
+        user.setDepartmentId(3L);
+        user.setCreateTime(now.minusDays(2));
+        user.setUpdateTime(now.minusDays(1));
+        user.setLastLoginTime(now);
+        user.setCreateBy(1L);
+        user.setUpdateBy(1L);
+        user.setRemark("备注");
+        user.setDeleted(0);
+
+        UserVO expected = new UserVO();
+        BeanUtils.copyProperties(user, expected);
+        expected.setStatus(UserStatus.LOCKED.getCode());
+
+        assertEquals(expected, UserConverter.toVO(user));
+        assertNull(UserConverter.toVO(null));
+
+        user.setStatus(null);
+        assertNull(UserConverter.toVO(user).getStatus());
+    }
+
+    /**
+     * 测试2：注册信息转换
+     */
+    @Test
+    void testToEntity() {
+        UserRegisterDTO dto = new UserRegisterDTO();
+        dto.setUsername("lisi");
+        dto.setPassword("plain-password");
+        dto.setName("李四");
+        dto.setEmail("lisi@example.com");
+        dto.setPhone("13900000000");
+        dto.setDepartmentId(5L);
+
+        SysUser user = UserConverter.toEntity(dto, "encoded");
+
+        assertEquals("lisi", user.getUsername());
+        assertEquals("encoded", user.getPassword());
+        assertEquals("李四", user.getName());
+        assertEquals("lisi@example.com", user.getEmail());
+        assertEquals("13900000000", user.getPhone());
+        assertEquals(5L, user.getDepartmentId());
+        assertEquals(UserStatus.NORMAL, user.getStatus());
+        assertEquals(0, user.getDeleted());
+        assertNotNull(user.getCreateTime());
+        assertEquals(user.getCreateTime(), user.getUpdateTime());
+        assertNull(user.getId());
+    }
+
+    /**
+     * 测试3：更新信息转换
+     */
+    @Test
+    void testToUpdateEntity() {
+        UserUpdateDTO dto = new UserUpdateDTO();
+        dto.setName("王五");
+        dto.setEmail("wangwu@example.com");
+
+        SysUser user = UserConverter.toUpdateEntity(9L, dto);
+
+        assertEquals(9L, user.getId());
+        assertEquals("王五", user.getName());
+        assertEquals("wangwu@example.com", user.getEmail());
+        assertNull(user.getPhone());
+        assertNull(user.getDepartmentId());
+        assertNull(user.getPassword());
+        assertNotNull(user.getUpdateTime());
+    }
+}
@@ -0,0 +1,150 @@
+package com.haocai.management.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 读写分离路由测试
+ * 
+ * 以多个模拟数据源代替主库和从库实例
+ * 
+ * 测试场景：
+ * 1. 非只读操作访问主库，只读操作在从库之间轮询
+ * 2. 从库延迟超限或查询失败时移出路由，全部不可用时回退主库
+ * 3. 读己之写粘滞窗口
+ * 4. 读写事务中的@ReadOnly查询访问主库
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class ReplicaRoutingDataSourceTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica1 = mock(DataSource.class);
+    private final DataSource replica2 = mock(DataSource.class);
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private ReplicaRoutingDataSource routing(ReadYourWritesTracker tracker) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-1", replica1);
+        replicas.put("replica-2", replica2);
+        return new ReplicaRoutingDataSource(primary, replicas, tracker);
+    }
+
+    /**
+     * 测试1：读写路由
+     */
+    @Test
+    void testRouteByReadOnly() {
+        ReplicaRoutingDataSource routing = routing(new ReadYourWritesTracker(5000));
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        RoutingContext.enterReadOnly();
+        try {
+            assertEquals("replica-1", routing.determineCurrentLookupKey());
+            assertEquals("replica-2", routing.determineCurrentLookupKey());
+            assertEquals("replica-1", routing.determineCurrentLookupKey());
+        } finally {
+            RoutingContext.exitReadOnly();
+        }
+        assertFalse(RoutingContext.isReadOnly());
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(routing.determineCurrentLookupKey().toString().startsWith("replica-"));
+    }
+
+    /**
+     * 测试2：从库延迟监控
+     */
+    @Test
+    void testLagMonitorRemovesLaggingReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(new ReadYourWritesTracker(5000));
+        mockLag(replica1, 30L);
+        mockLag(replica2, 1L);
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(routing, 5, new SimpleMeterRegistry());
+
+        monitor.checkReplicaLag();
+        assertEquals(List.of("replica-2"), routing.getAvailableReplicas());
+
+        when(replica2.getConnection()).thenThrow(new SQLException("connection refused"));
+        monitor.checkReplicaLag();
+        assertEquals(List.of(), routing.getAvailableReplicas());
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+        mockLag(replica1, 0L);
+        monitor.checkReplicaLag();
+        assertEquals(List.of("replica-1"), routing.getAvailableReplicas());
+    }
+
+    /**
+     * 测试3：读己之写粘滞
+     */
+    @Test
+    void testReadYourWritesTracker() throws InterruptedException {
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(50);
+        tracker.markWrite(1L);
+        tracker.markWrite(null);
+
+        assertTrue(tracker.isSticky(1L));
+        assertFalse(tracker.isSticky(2L));
+        assertFalse(tracker.isSticky(null));
+
+        Thread.sleep(80);
+        assertFalse(tracker.isSticky(1L));
+    }
+
+    /**
+     * 测试4：读写事务中的@ReadOnly查询
+     */
+    @Test
+    void testReadOnlyCallInsideReadWriteTransactionUsesPrimary() {
+        ReplicaRoutingDataSource routing = routing(new ReadYourWritesTracker(5000));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        RoutingContext.enterReadOnly();
+        try {
+            assertEquals(ReplicaRoutingDataSource.PRIMARY, routing.determineCurrentLookupKey());
+
+            // 只读事务仍然使用从库
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertTrue(routing.determineCurrentLookupKey().toString().startsWith("replica-"));
+        } finally {
+            RoutingContext.exitReadOnly();
+        }
+    }
+
+    private static void mockLag(DataSource dataSource, long lagSeconds) throws SQLException {
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(anyString())).thenReturn(lagSeconds);
+        when(resultSet.wasNull()).thenReturn(false);
+    }
+}
@@ -0,0 +1,69 @@
+package com.haocai.management.dto;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 响应记录JSON结构测试
+ *
+ * 测试场景：
+ * 1. PageResult的字段与原分页Map的键一致，并正确转换记录
+ * 2. 登录、批量操作、唯一性检查的响应字段与原Map的键一致
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class ResponseRecordJsonTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    /**
+     * 测试1：分页响应
+     */
+    @Test
+    void testPageResult() throws Exception {
+        Page<Long> page = new Page<>(2, 10, 25);
+        page.setRecords(List.of(11L, 12L));
+
+        PageResult<String> result = PageResult.of(page, id -> "user" + id);
+        JsonNode json = objectMapper.valueToTree(result);
+
+        assertEquals(Set.of("records", "total", "current", "size", "pages"), fieldNames(json));
+        assertEquals("user11", json.get("records").get(0).asText());
+        assertEquals(25, json.get("total").asLong());
+        assertEquals(2, json.get("current").asLong());
+        assertEquals(10, json.get("size").asLong());
+        assertEquals(3, json.get("pages").asLong());
+    }
+
+    /**
+     * 测试2：小型结果记录
+     */
+    @Test
+    void testSmallResults() throws Exception {
+        JsonNode login = objectMapper.valueToTree(new LoginResultVO("a", "r", 1800, new UserVO()));
+        assertEquals(Set.of("token", "refreshToken", "expiresIn", "user"), fieldNames(login));
+
+        assertEquals("{\"count\":3}", objectMapper.writeValueAsString(new CountResultVO(3)));
+        assertEquals("{\"exists\":true}", objectMapper.writeValueAsString(ExistsResultVO.of(true)));
+        assertSame(ExistsResultVO.of(false), ExistsResultVO.of(false));
+    }
+
+    private static Set<String> fieldNames(JsonNode json) {
+        Set<String> names = new TreeSet<>();
+        json.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
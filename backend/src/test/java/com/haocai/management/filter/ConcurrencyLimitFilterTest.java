@@ -0,0 +1,212 @@
+package com.haocai.management.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.haocai.management.HaocaiManagementApplication;
+import com.haocai.management.common.AdaptiveConcurrencyLimiter;
+import com.haocai.management.common.Bulkhead;
+import com.haocai.management.config.ConcurrencyLimiters;
+import com.haocai.management.dto.UserLoginDTO;
+import com.haocai.management.service.ISysUserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * 并发限制过滤器测试
+ *
+ * 每个路由组的限制固定为1，测试中先占用某一组的名额，再发出请求观察是否被该组拒绝
+ *
+ * 测试场景：
+ * 1. 路由分组：登录、注册、唯一性检查（含编码路径）归入auth，批量操作归入admin-batch，
+ *    其他/api/下的GET归入reads，非GET请求和/api/之外的请求不受限制
+ * 2. 被拒绝的请求返回503、Retry-After: 1和统一的ApiResponse
+ * 3. 同步请求和异步请求（/api/async/users/login）结束后处理中请求数回到0
+ * 4. 隔离舱已满时控制器以HTTP 200返回错误码503，限制器仍把请求计为失败
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+@SpringBootTest(classes = HaocaiManagementApplication.class,
+        properties = {
+                "request.limit.auth.initial-limit=1", "request.limit.auth.min-limit=1",
+                "request.limit.auth.max-limit=1",
+                "request.limit.reads.initial-limit=1", "request.limit.reads.min-limit=1",
+                "request.limit.reads.max-limit=1",
+                "request.limit.admin-batch.initial-limit=1", "request.limit.admin-batch.min-limit=1",
+                "request.limit.admin-batch.max-limit=1"
+        })
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ConcurrencyLimitFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @SpyBean
+    private ConcurrencyLimiters limiters;
+
+    @MockBean
+    private ISysUserService userService;
+
+    /**
+     * 测试1：路由分组
+     */
+    @Test
+    void testRouteGroups() throws Exception {
+        assertRejectedBy(limiters.auth(), post("/api/users/login"));
+        assertRejectedBy(limiters.auth(), post("/api/users/register"));
+        assertRejectedBy(limiters.auth(), post("/api/async/users/login"));
+        assertRejectedBy(limiters.auth(), get("/api/users/check/username").param("username", "admin"));
+        // 编码路径按解码后的应用内路径归组
+        assertRejectedBy(limiters.auth(), post(URI.create("/api/users/%6cogin")));
+        assertRejectedBy(limiters.auth(), post(URI.create("/%61pi/users/login")));
+
+        assertRejectedBy(limiters.adminBatch(), patch("/api/users/batch/status"));
+        assertRejectedBy(limiters.adminBatch(), delete("/api/users/batch"));
+        assertRejectedBy(limiters.adminBatch(), delete(URI.create("/api/users/%62atch")));
+
+        assertRejectedBy(limiters.reads(), get("/api/users/1"));
+        assertRejectedBy(limiters.reads(), get("/api/users"));
+
+        assertNotLimited(put("/api/users/1"));
+        assertNotLimited(delete("/api/users/batchx"));
+        assertNotLimited(get("/index.html"));
+    }
+
+    /**
+     * 测试2：拒绝响应
+     */
+    @Test
+    void testRejectResponse() throws Exception {
+        AdaptiveConcurrencyLimiter auth = limiters.auth();
+        assertTrue(auth.tryAcquire());
+        try {
+            mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.code").value(503))
+                    .andExpect(jsonPath("$.message").value("系统繁忙，请稍后重试"))
+                    .andExpect(jsonPath("$.timestamp").exists());
+        } finally {
+            auth.release(0, false);
+        }
+        assertEquals(0, auth.getInFlight());
+    }
+
+    /**
+     * 测试3：请求结束后释放名额
+     */
+    @Test
+    void testReleaseAfterSyncAndAsyncRequests() throws Exception {
+        AdaptiveConcurrencyLimiter auth = limiters.auth();
+        doReturn("access-token").when(userService).login(any());
+
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginBody()))
+                .andExpect(request().asyncNotStarted());
+        assertEquals(0, auth.getInFlight());
+
+        MvcResult started = mockMvc.perform(post("/api/async/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginBody()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk());
+        assertEquals(0, auth.getInFlight());
+
+        // 名额已释放，下一个请求不会被拒绝
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginBody()))
+                .andExpect(result -> assertNotEquals(503, result.getResponse().getStatus()));
+        assertEquals(0, auth.getInFlight());
+    }
+
+    /**
+     * 测试4：以ApiResponse返回的过载错误计为失败
+     */
+    @Test
+    void testOverloadReturnedAsApiResponseCountsAsFailure() throws Exception {
+        AdaptiveConcurrencyLimiter auth = spy(limiters.auth());
+        doReturn(auth).when(limiters).auth();
+        // 占满只有一个许可的隔离舱后再次获取，与登录查询遇到隔离舱已满的路径相同
+        Bulkhead bulkhead = new Bulkhead("auth-read", 1, 0, new SimpleMeterRegistry());
+        doAnswer(invocation -> bulkhead.call(() -> bulkhead.call(() -> "access-token")))
+                .when(userService).login(any());
+
+        mockMvc.perform(post("/api/users/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(loginBody()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(503));
+        verify(auth).release(anyLong(), eq(true));
+        assertEquals(0, auth.getInFlight());
+    }
+
+    /**
+     * 占用限制器唯一的名额后发出请求，断言请求被拒绝
+     */
+    private void assertRejectedBy(AdaptiveConcurrencyLimiter limiter, RequestBuilder request) throws Exception {
+        assertTrue(limiter.tryAcquire());
+        try {
+            mockMvc.perform(request).andExpect(status().isServiceUnavailable());
+        } finally {
+            limiter.release(0, false);
+        }
+    }
+
+    /**
+     * 占用全部路由组的名额后发出请求，断言请求没有被任何一组拒绝
+     */
+    private void assertNotLimited(RequestBuilder request) throws Exception {
+        AdaptiveConcurrencyLimiter[] all = {limiters.auth(), limiters.reads(), limiters.adminBatch()};
+        for (AdaptiveConcurrencyLimiter limiter : all) {
+            assertTrue(limiter.tryAcquire());
+        }
+        try {
+            mockMvc.perform(request)
+                    .andExpect(result -> assertNotEquals(503, result.getResponse().getStatus()));
+        } finally {
+            for (AdaptiveConcurrencyLimiter limiter : all) {
+                limiter.release(0, false);
+            }
+        }
+    }
+
+    private String loginBody() throws Exception {
+        UserLoginDTO loginDTO = new UserLoginDTO();
+        loginDTO.setUsername("admin");
+        loginDTO.setPassword("admin123");
+        return objectMapper.writeValueAsString(loginDTO);
+    }
+}
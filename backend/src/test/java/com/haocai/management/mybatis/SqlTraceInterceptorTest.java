@@ -0,0 +1,212 @@
+package com.haocai.management.mybatis;
+
+import com.haocai.management.timing.RequestTiming;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * SQL追踪拦截器测试
+ *
+ * 测试场景：
+ * 1. 对数直方图分桶与分位数估算
+ * 2. 拦截更新语句时按语句ID累计次数、行数和慢SQL次数
+ * 3. 运行时开启、关闭Mapper全量追踪
+ * 4. 执行抛出异常的语句只计入失败次数，不计为慢SQL
+ * 5. 执行成功时计入outcome=success的计时器，重复执行复用同一计时器
+ * 6. 执行失败时计入outcome=error的计时器并原样抛出异常
+ * 7. 取不到连接、超时的失败标记当前请求过载，约束冲突等数据错误不标记
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class SqlTraceInterceptorTest {
+
+    private static final String STATEMENT_ID = "com.haocai.management.mapper.SysUserMapper.updateStatus";
+
+    /**
+     * 测试1：直方图分桶与分位数
+     */
+    @Test
+    void testHistogramPercentile() {
+        assertEquals(0, Log2Histogram.bucketOf(0));
+        assertEquals(1, Log2Histogram.bucketOf(1));
+        assertEquals(2, Log2Histogram.bucketOf(3));
+        assertEquals(11, Log2Histogram.bucketOf(1500));
+        assertEquals(63, Log2Histogram.bucketOf(Long.MAX_VALUE));
+
+        Log2Histogram histogram = new Log2Histogram();
+        assertEquals(0, histogram.percentile(0.99));
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(50_000);
+        assertEquals(128, histogram.percentile(0.50));
+        assertEquals(128, histogram.percentile(0.99));
+        assertEquals(65_536, histogram.percentile(1.0));
+    }
+
+    /**
+     * 测试2：累计统计
+     */
+    @Test
+    void testRecordStatistics() throws Throwable {
+        // 阈值为0时每条语句都计为慢SQL
+        SqlTraceInterceptor interceptor = new SqlTraceInterceptor(0, 0, new String[0], new SimpleMeterRegistry(), false);
+        Executor executor = mock(Executor.class);
+        when(executor.update(any(), any())).thenReturn(3);
+        MappedStatement statement = updateStatement();
+
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        assertEquals(3, interceptor.intercept(new Invocation(executor, update, new Object[]{statement, null})));
+        assertEquals(3, interceptor.intercept(new Invocation(executor, update, new Object[]{statement, null})));
+
+        assertEquals(1, interceptor.getStatistics().size());
+        SqlStatementStats stats = interceptor.getStatistics().get(0);
+        assertEquals(STATEMENT_ID, stats.getStatementId());
+        assertEquals(2, stats.getCount());
+        assertEquals(6, stats.getTotalRows());
+        assertEquals(2, stats.getSlowCount());
+
+        interceptor.resetStatistics();
+        assertTrue(interceptor.getStatistics().isEmpty());
+    }
+
+    /**
+     * 测试3：运行时切换全量追踪
+     */
+    @Test
+    void testToggleTracedMappers() {
+        SqlTraceInterceptor interceptor = new SqlTraceInterceptor(500, 0,
+                new String[]{" com.haocai.management.mapper.SysUserMapper ", ""}, new SimpleMeterRegistry(), false);
+        assertEquals(1, interceptor.getTracedMappers().size());
+        assertEquals(500, interceptor.getSlowThresholdMillis());
+
+        interceptor.setTraced("com.haocai.management.mapper.SysLoginLogMapper", true);
+        assertEquals(2, interceptor.getTracedMappers().size());
+
+        interceptor.setTraced("com.haocai.management.mapper.SysUserMapper", false);
+        assertEquals(Set.of("com.haocai.management.mapper.SysLoginLogMapper"),
+                interceptor.getTracedMappers());
+    }
+
+    /**
+     * 测试4：执行失败与慢SQL分开统计
+     */
+    @Test
+    void testFailedStatementNotCountedAsSlow() throws Throwable {
+        SqlTraceInterceptor interceptor = new SqlTraceInterceptor(0, 0, new String[0], new SimpleMeterRegistry(), false);
+        Executor executor = mock(Executor.class);
+        doThrow(new SQLException("Deadlock found")).when(executor).update(any(), any());
+        MappedStatement statement = updateStatement();
+
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        assertThrows(Exception.class,
+                () -> interceptor.intercept(new Invocation(executor, update, new Object[]{statement, null})));
+
+        SqlStatementStats stats = interceptor.getStatistics().get(0);
+        assertEquals(1, stats.getErrorCount());
+        assertEquals(0, stats.getCount());
+        assertEquals(0, stats.getSlowCount());
+        assertNull(stats.getLastSlowRequestId());
+        assertEquals(0, stats.getDurationHistogram().percentile(0.99));
+    }
+
+    /**
+     * 测试5：成功执行的语句指标
+     */
+    @Test
+    void testRecordSuccessTimer() throws Throwable {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlTraceInterceptor interceptor = new SqlTraceInterceptor(500, 0, new String[0], registry, false);
+        Executor executor = mock(Executor.class);
+        when(executor.update(any(), any())).thenReturn(1);
+
+        Invocation invocation = updateInvocation(executor);
+        interceptor.intercept(invocation);
+        interceptor.intercept(invocation);
+
+        Timer timer = registry.get(SqlTraceInterceptor.METRIC_NAME)
+                .tags("statement", STATEMENT_ID, "command", "UPDATE", "outcome", "success").timer();
+        assertEquals(2, timer.count());
+        assertNull(registry.find(SqlTraceInterceptor.METRIC_NAME).tag("outcome", "error").timer());
+    }
+
+    /**
+     * 测试6：执行失败的语句指标
+     */
+    @Test
+    void testRecordErrorTimer() throws Throwable {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SqlTraceInterceptor interceptor = new SqlTraceInterceptor(500, 0, new String[0], registry, false);
+        Executor executor = mock(Executor.class);
+        when(executor.update(any(), any())).thenThrow(new SQLException("Duplicate entry"));
+
+        Invocation invocation = updateInvocation(executor);
+        // Invocation.proceed通过反射调用，异常包装为InvocationTargetException
+        assertThrows(Exception.class, () -> interceptor.intercept(invocation));
+
+        assertEquals(1, registry.get(SqlTraceInterceptor.METRIC_NAME)
+                .tags("statement", STATEMENT_ID, "outcome", "error").timer().count());
+    }
+
+    /**
+     * 测试7：过载信号
+     */
+    @Test
+    void testOverloadFailureMarksRequest() throws Throwable {
+        SqlTraceInterceptor interceptor = new SqlTraceInterceptor(500, 0, new String[0], new SimpleMeterRegistry(), false);
+        Executor executor = mock(Executor.class);
+        when(executor.update(any(), any()))
+                .thenThrow(new SQLException("Duplicate entry"))
+                .thenThrow(new RuntimeException("Failed to obtain JDBC Connection",
+                        new SQLTransientConnectionException("Connection is not available, request timed out")));
+
+        RequestTiming timing = RequestTiming.bind(new MockHttpServletRequest());
+        try {
+            assertThrows(Exception.class, () -> interceptor.intercept(updateInvocation(executor)));
+            assertFalse(timing.isOverloaded());
+            assertThrows(Exception.class, () -> interceptor.intercept(updateInvocation(executor)));
+            assertTrue(timing.isOverloaded());
+        } finally {
+            RequestTiming.unbind();
+        }
+
+        assertTrue(SqlTraceInterceptor.isOverload(new SQLTimeoutException("Query execution was interrupted")));
+        assertTrue(SqlTraceInterceptor.isOverload(new SQLRecoverableException("Communications link failure")));
+        assertFalse(SqlTraceInterceptor.isOverload(new SQLIntegrityConstraintViolationException("Duplicate entry")));
+    }
+
+    private static Invocation updateInvocation(Executor executor) throws NoSuchMethodException {
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+        return new Invocation(executor, update, new Object[]{updateStatement(), null});
+    }
+
+    private static MappedStatement updateStatement() {
+        Configuration configuration = new Configuration();
+        return new MappedStatement.Builder(configuration, STATEMENT_ID,
+                new StaticSqlSource(configuration, "UPDATE sys_user SET status = ? WHERE id = ?"),
+                SqlCommandType.UPDATE).build();
+    }
+}
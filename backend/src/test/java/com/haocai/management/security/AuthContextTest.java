@@ -0,0 +1,69 @@
+package com.haocai.management.security;
+
+import com.haocai.management.entity.SysUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求级认证上下文测试
+ * 
+ * 测试场景：
+ * 1. Bearer前缀识别与token截取
+ * 2. 通过RequestContextHolder读取当前用户ID
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class AuthContextTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * 测试1：Bearer前缀识别（不区分大小写），缺少或格式错误时不截取
+     */
+    @Test
+    public void testBearerTokenExtraction() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(AuthContext.AUTHORIZATION_HEADER, "Bearer abc.def.ghi");
+        AuthContext context = AuthContext.bind(request);
+        assertTrue(context.hasBearerToken());
+        assertEquals("abc.def.ghi", context.getToken());
+        assertSame(context.getToken(), context.getToken(), "token应该只截取一次");
+        assertSame(context, AuthContext.from(request));
+
+        MockHttpServletRequest lowerCase = new MockHttpServletRequest();
+        lowerCase.addHeader(AuthContext.AUTHORIZATION_HEADER, "bearer abc");
+        assertEquals("abc", AuthContext.bind(lowerCase).getToken());
+
+        MockHttpServletRequest basic = new MockHttpServletRequest();
+        basic.addHeader(AuthContext.AUTHORIZATION_HEADER, "Basic dXNlcjpwYXNz");
+        assertFalse(AuthContext.bind(basic).hasBearerToken());
+        assertNull(AuthContext.bind(new MockHttpServletRequest()).getToken());
+    }
+
+    /**
+     * 测试2：下游代码通过RequestContextHolder读取当前用户ID
+     */
+    @Test
+    public void testCurrentUserId() {
+        assertNull(AuthContext.currentUserId(), "非请求线程应该返回null");
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        AuthContext context = AuthContext.bind(request);
+        assertNull(AuthContext.currentUserId(), "未认证时应该返回null");
+
+        SysUser user = new SysUser();
+        user.setId(42L);
+        context.setUser(user);
+        assertEquals(42L, AuthContext.currentUserId());
+    }
+}
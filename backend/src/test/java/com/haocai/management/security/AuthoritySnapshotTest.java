@@ -0,0 +1,98 @@
+package com.haocai.management.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 权限快照测试
+ * 
+ * 测试场景：
+ * 1. 用户权限由角色权限位图合并而成，并生成ROLE_前缀的角色权限
+ * 2. 超过64个权限时位图跨字
+ * 3. 权限索引版本只随权限列表变化
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class AuthoritySnapshotTest {
+
+    private AuthoritySnapshot buildDefault() {
+        LinkedHashMap<Long, String> permissions = new LinkedHashMap<>();
+        permissions.put(1L, "system");
+        permissions.put(2L, "system:user");
+        permissions.put(3L, "system:role");
+        return AuthoritySnapshot.build(permissions,
+                Map.of(10L, "admin", 20L, "teacher"),
+                Map.of(10L, List.of(1L, 2L, 3L), 20L, List.of(2L)),
+                Map.of(100L, List.of(10L), 200L, List.of(20L)));
+    }
+
+    /**
+     * 测试1：管理员拥有全部权限，教师只拥有用户管理权限
+     */
+    @Test
+    public void testResolveAuthorities() {
+        AuthoritySnapshot snapshot = buildDefault();
+        assertTrue(snapshot.hasPermission(100L, "system:role"));
+        assertTrue(snapshot.hasPermission(200L, "system:user"));
+        assertFalse(snapshot.hasPermission(200L, "system:role"));
+        assertFalse(snapshot.hasPermission(300L, "system"), "没有角色的用户不应拥有权限");
+        assertFalse(snapshot.hasPermission(100L, "unknown"));
+
+        assertEquals(List.of("ROLE_teacher", "system:user"), codes(snapshot.forUser(200L).authorities()));
+        assertTrue(snapshot.forUser(200L).hasRole(20L));
+        assertFalse(snapshot.forUser(200L).hasRole(10L));
+        assertSame(snapshot.forUser(100L).authorities(), snapshot.forUser(100L).authorities(),
+                "权限列表应预先计算，每次返回同一实例");
+    }
+
+    /**
+     * 测试2：超过64个权限时位图跨多个long
+     */
+    @Test
+    public void testMultiWordBitmap() {
+        LinkedHashMap<Long, String> permissions = new LinkedHashMap<>();
+        for (long id = 1; id <= 130; id++) {
+            permissions.put(id, "perm:" + id);
+        }
+        AuthoritySnapshot snapshot = AuthoritySnapshot.build(permissions,
+                Map.of(1L, "r"), Map.of(1L, List.of(1L, 65L, 130L)), Map.of(7L, List.of(1L)));
+        assertTrue(snapshot.hasPermission(7L, "perm:65"));
+        assertTrue(snapshot.hasPermission(7L, "perm:130"));
+        assertFalse(snapshot.hasPermission(7L, "perm:64"));
+        assertEquals(3, snapshot.forUser(7L).permissionBits().length);
+    }
+
+    /**
+     * 测试3：角色和用户变化不改变权限索引版本，权限列表变化才改变
+     */
+    @Test
+    public void testIndexVersion() {
+        AuthoritySnapshot snapshot = buildDefault();
+        assertEquals(snapshot.getIndexVersion(), buildDefault().getIndexVersion(), "相同数据应得到相同版本");
+        LinkedHashMap<Long, String> same = new LinkedHashMap<>();
+        same.put(1L, "system");
+        same.put(2L, "system:user");
+        same.put(3L, "system:role");
+        AuthoritySnapshot regranted = AuthoritySnapshot.build(same,
+                Map.of(20L, "teacher"), Map.of(20L, List.of(3L)), Map.of(300L, List.of(20L)));
+        assertEquals(snapshot.getIndexVersion(), regranted.getIndexVersion());
+
+        LinkedHashMap<Long, String> permissions = new LinkedHashMap<>();
+        permissions.put(1L, "system");
+        permissions.put(2L, "system:user");
+        AuthoritySnapshot fewer = AuthoritySnapshot.build(permissions, Map.of(), Map.of(), Map.of());
+        assertNotEquals(snapshot.getIndexVersion(), fewer.getIndexVersion());
+    }
+
+    private List<String> codes(List<GrantedAuthority> authorities) {
+        return authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,124 @@
+package com.haocai.management.security;
+
+import com.haocai.management.entity.SysUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @RequiresPermission授权管理器测试
+ * 
+ * 测试场景：
+ * 1. 无权限编码时只要求已登录，匿名用户被拒绝
+ * 2. 通过权限位图判断权限
+ * 3. 没有位图时退回比较GrantedAuthority
+ * 4. 规则按方法缓存，类上的注解作为默认值
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class PermissionAuthorizationManagerTest {
+
+    private PermissionAuthorizationManager manager;
+
+    @BeforeEach
+    public void setUp() {
+        LinkedHashMap<Long, String> permissions = new LinkedHashMap<>();
+        permissions.put(1L, "system:user");
+        permissions.put(2L, "system:role");
+        AuthoritySnapshot snapshot = AuthoritySnapshot.build(permissions, Map.of(10L, "teacher"),
+                Map.of(10L, List.of(1L)), Map.of(100L, List.of(10L)));
+        AuthorityResolver resolver = mock(AuthorityResolver.class);
+        when(resolver.getSnapshot()).thenReturn(snapshot);
+        manager = new PermissionAuthorizationManager(resolver);
+    }
+
+    /**
+     * 测试1：只要求登录
+     */
+    @Test
+    public void testAuthenticatedOnly() throws Exception {
+        SimpleMethodInvocation invocation = invocation("authenticatedOnly");
+        assertTrue(manager.check(() -> new TestingAuthenticationToken("u", "p", "ROLE_X"), invocation).isGranted());
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+        assertFalse(manager.check(() -> anonymous, invocation).isGranted());
+        assertFalse(manager.check(() -> null, invocation).isGranted());
+    }
+
+    /**
+     * 测试2：LoginUser通过权限快照中的位图判断
+     */
+    @Test
+    public void testPermissionBits() throws Exception {
+        SysUser user = new SysUser();
+        user.setId(100L);
+        user.setUsername("teacher");
+        LoginUser loginUser = new LoginUser(user);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(loginUser, null, List.of());
+
+        assertTrue(manager.check(() -> authentication, invocation("userPermission")).isGranted());
+        assertFalse(manager.check(() -> authentication, invocation("rolePermission")).isGranted());
+    }
+
+    /**
+     * 测试3：非LoginUser时比较GrantedAuthority
+     */
+    @Test
+    public void testAuthorityFallback() throws Exception {
+        Authentication both = new TestingAuthenticationToken("u", "p", "system:user", "system:role");
+        assertTrue(manager.check(() -> both, invocation("rolePermission")).isGranted());
+
+        Authentication roleOnly = new TestingAuthenticationToken("u", "p", "system:role");
+        assertFalse(manager.check(() -> roleOnly, invocation("userPermission")).isGranted());
+        assertFalse(manager.check(() -> roleOnly, invocation("rolePermission")).isGranted(), "需要同时拥有全部权限");
+    }
+
+    /**
+     * 测试4：规则按方法缓存，未标注的方法继承类上的注解
+     */
+    @Test
+    public void testRuleCache() throws Exception {
+        SimpleMethodInvocation invocation = invocation("inherited");
+        PermissionAuthorizationManager.PermissionRule rule = manager.getRule(invocation);
+        assertSame(rule, manager.getRule(invocation("inherited")));
+        assertArrayEquals(new String[]{"system:user"}, rule.getCodes());
+    }
+
+    private SimpleMethodInvocation invocation(String methodName) throws NoSuchMethodException {
+        SecuredTarget target = new SecuredTarget();
+        return new SimpleMethodInvocation(target, SecuredTarget.class.getMethod(methodName));
+    }
+
+    @RequiresPermission("system:user")
+    public static class SecuredTarget {
+
+        @RequiresPermission
+        public void authenticatedOnly() {
+        }
+
+        @RequiresPermission("system:user")
+        public void userPermission() {
+        }
+
+        @RequiresPermission({"system:user", "system:role"})
+        public void rolePermission() {
+        }
+
+        public void inherited() {
+        }
+    }
+}
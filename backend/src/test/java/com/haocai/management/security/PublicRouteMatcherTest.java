@@ -0,0 +1,94 @@
+package com.haocai.management.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 公开路由匹配器测试
+ * 
+ * 测试场景：
+ * 1. 精确路径、前缀路径和非API路径判断
+ * 2. 通配符模式走PathPattern匹配
+ * 3. 带context path的请求
+ * 4. 编码路径按解码后的路径匹配；/api/之外的请求跳过认证但不属于公开清单
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class PublicRouteMatcherTest {
+
+    private final PublicRouteMatcher matcher = new PublicRouteMatcher();
+
+    /**
+     * 测试1：公开接口、探测接口、静态资源匹配，受保护接口不匹配
+     */
+    @Test
+    public void testDefaultPublicEndpoints() {
+        assertTrue(matcher.matches("/api/users/login"));
+        assertTrue(matcher.matches("/api/users/token/refresh"));
+        assertTrue(matcher.matches("/api/users/check/username"));
+        assertTrue(matcher.matches("/api/users/check"));
+        assertTrue(matcher.matches("/api/test/health"));
+        assertTrue(matcher.matches("/actuator/health"));
+
+        assertFalse(matcher.matches("/api/users/current"));
+        assertFalse(matcher.matches("/api/users"));
+        assertFalse(matcher.matches("/api/users/checkout"));
+        assertFalse(matcher.matches("/api/users/login/extra"));
+    }
+
+    /**
+     * 测试2：包含单段通配符的模式
+     */
+    @Test
+    public void testWildcardPattern() {
+        PublicRouteMatcher custom = new PublicRouteMatcher("/api/public/*/info", "/api/files/**");
+        assertTrue(custom.matches("/api/public/abc/info"));
+        assertFalse(custom.matches("/api/public/abc/def/info"));
+        assertTrue(custom.matches("/api/files/a/b/c.png"));
+        assertFalse(custom.matches("/api/users/login"));
+    }
+
+    /**
+     * 测试3：去掉context path后再匹配
+     */
+    @Test
+    public void testContextPath() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/haocai/api/users/login");
+        request.setContextPath("/haocai");
+        assertTrue(matcher.matches(request));
+
+        MockHttpServletRequest secured = new MockHttpServletRequest("GET", "/haocai/api/users/current");
+        secured.setContextPath("/haocai");
+        assertFalse(matcher.matches(secured));
+    }
+
+    /**
+     * 测试4：编码路径与跳过认证的判断
+     */
+    @Test
+    public void testEncodedPathAndSkipsAuthentication() {
+        MockHttpServletRequest encoded = new MockHttpServletRequest("POST", "/%61pi/fix/table");
+        assertEquals("/api/fix/table", PublicRouteMatcher.pathWithinApplication(encoded));
+        assertFalse(matcher.matches(encoded));
+        assertFalse(matcher.skipsAuthentication(encoded));
+
+        MockHttpServletRequest encodedPublic = new MockHttpServletRequest("POST", "/api/users/%6cogin");
+        assertTrue(matcher.matches(encodedPublic));
+
+        MockHttpServletRequest semicolon = new MockHttpServletRequest("GET", "/api;x=1/users/current");
+        assertFalse(matcher.skipsAuthentication(semicolon));
+
+        MockHttpServletRequest asset = new MockHttpServletRequest("GET", "/assets/index.js");
+        assertFalse(matcher.matches(asset));
+        assertTrue(matcher.skipsAuthentication(asset));
+
+        // actuator只公开health和info，其他端点需要解析token
+        assertTrue(matcher.skipsAuthentication(new MockHttpServletRequest("GET", "/actuator/health")));
+        assertTrue(matcher.skipsAuthentication(new MockHttpServletRequest("GET", "/actuator/health/liveness")));
+        assertFalse(matcher.skipsAuthentication(new MockHttpServletRequest("GET", "/actuator/prometheus")));
+        assertFalse(matcher.skipsAuthentication(new MockHttpServletRequest("GET", "/%61ctuator/metrics")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.haocai.management.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * refresh token登记表测试
+ * 
+ * 测试场景：
+ * 1. refresh token只能消费一次（轮换）
+ * 2. 过期的refresh token无法消费
+ * 3. 吊销用户后其refresh token全部失效
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class RefreshTokenStoreTest {
+
+    private RefreshTokenStore store;
+
+    @BeforeEach
+    public void setUp() {
+        store = new RefreshTokenStore();
+    }
+
+    /**
+     * 测试1：refresh token只能使用一次
+     */
+    @Test
+    public void testConsumeOnlyOnce() {
+        String tokenId = store.register(1L, 60000L);
+
+        RefreshTokenStore.RefreshSession session = store.consume(tokenId);
+        assertNotNull(session, "第一次消费应该成功");
+        assertEquals(1L, session.userId());
+
+        assertNull(store.consume(tokenId), "重复使用的refresh token应该被拒绝");
+        assertNull(store.consume(null), "空jti应该被拒绝");
+        assertNull(store.consume("unknown"), "未登记的jti应该被拒绝");
+    }
+
+    /**
+     * 测试2：过期的refresh token无法消费
+     */
+    @Test
+    public void testExpiredSession() {
+        String tokenId = store.register(1L, -1L);
+        assertNull(store.consume(tokenId), "过期的refresh token应该被拒绝");
+
+        String expired = store.register(2L, -1L);
+        String valid = store.register(2L, 60000L);
+        store.purgeExpired();
+        assertNull(store.consume(expired), "过期记录应该被清理");
+        assertNotNull(store.consume(valid), "未过期记录不应该被清理");
+    }
+
+    /**
+     * 测试3：吊销用户的全部refresh token
+     */
+    @Test
+    public void testRevokeUser() {
+        String first = store.register(1L, 60000L);
+        String second = store.register(1L, 60000L);
+        String other = store.register(2L, 60000L);
+        String third = store.register(3L, 60000L);
+
+        store.revokeUser(1L);
+        assertNull(store.consume(first));
+        assertNull(store.consume(second));
+        assertNotNull(store.consume(other), "其他用户的refresh token不应受影响");
+
+        store.revokeUsers(List.of(3L));
+        assertNull(store.consume(third));
+    }
+}
@@ -0,0 +1,66 @@
+package com.haocai.management.service.impl;
+
+import com.haocai.management.cache.TableVersionRegistry;
+import com.haocai.management.mapper.SysUserMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户服务测试
+ *
+ * 测试场景：
+ * 1. 用户表变更检查：已登记的修改（登录、用户管理）只更新指纹，不使全部部门的版本号变化；
+ *    没有登记的指纹变化（直接改库）才递增全部部门的版本号
+ *
+ * @author 开发团队
+ * @since 2026-01-08
+ */
+@ExtendWith(MockitoExtension.class)
+public class SysUserServiceImplTest {
+
+    private static final String TABLE = TableVersionRegistry.SYS_USER;
+
+    @Mock
+    private SysUserMapper sysUserMapper;
+
+    @Spy
+    private TableVersionRegistry tableVersions = new TableVersionRegistry(false, 5000);
+
+    @InjectMocks
+    private SysUserServiceImpl userService;
+
+    /**
+     * 测试1：用户表变更检查
+     */
+    @Test
+    void testCheckTableChangedIgnoresRegisteredWrites() {
+        when(sysUserMapper.selectFingerprint()).thenReturn("5,0,5,t1,l1", "5,0,5,t1,l2", "5,0,5,t1,l3", "5,0,5,t2,l3");
+        userService.checkTableChanged();
+        long dept2 = tableVersions.departmentVersion(TABLE, 2L);
+
+        // 部门1的用户登录：版本号已登记，指纹变化不影响部门2
+        tableVersions.bump(TABLE, List.of(1L));
+        userService.checkTableChanged();
+        assertEquals(dept2, tableVersions.departmentVersion(TABLE, 2L));
+
+        // 管理员修改部门1的用户，同样已登记
+        tableVersions.bump(TABLE, List.of(1L));
+        userService.checkTableChanged();
+        assertEquals(dept2, tableVersions.departmentVersion(TABLE, 2L));
+
+        // 没有登记的指纹变化视为直接改库，全部部门的版本号变化
+        long tableVersion = tableVersions.current(TABLE);
+        userService.checkTableChanged();
+        assertEquals(dept2 + 1, tableVersions.departmentVersion(TABLE, 2L));
+        assertEquals(tableVersion + 1, tableVersions.current(TABLE));
+    }
+}
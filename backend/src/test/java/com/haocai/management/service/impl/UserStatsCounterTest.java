@@ -0,0 +1,123 @@
+package com.haocai.management.service.impl;
+
+import com.haocai.management.entity.UserStatus;
+import com.haocai.management.mapper.SysUserMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户统计计数器测试
+ * 
+ * 测试场景：
+ * 1. 校准时用分组统计结果整体替换计数
+ * 2. 增量在事务提交后生效，回滚时不生效
+ * 3. 再次校准修正计数偏差
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+@ExtendWith(MockitoExtension.class)
+public class UserStatsCounterTest {
+
+    @Mock
+    private SysUserMapper sysUserMapper;
+
+    @InjectMocks
+    private UserStatsCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        when(sysUserMapper.selectUserCountByDepartment()).thenReturn(List.of(departmentStats(1L, 3), departmentStats(2L, 1)));
+        when(sysUserMapper.selectUserCountByStatus()).thenReturn(List.of(statusStats(0, 4), statusStats(1, 1)));
+        counter.reconcile();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * 测试1：校准加载计数，不在事务中的增量立即生效
+     */
+    @Test
+    void testReconcileAndImmediateDelta() {
+        assertEquals(Map.of(1L, 3L, 2L, 1L), counter.getDepartmentCounts());
+        assertEquals(4, counter.getStatusCount(UserStatus.NORMAL));
+        assertEquals(1, counter.getStatusCount(UserStatus.DISABLED));
+
+        counter.userCreated(2L, UserStatus.NORMAL);
+        counter.departmentChanged(1L, 3L);
+        counter.statusChanged(UserStatus.NORMAL, UserStatus.LOCKED);
+        counter.userRemoved(null, UserStatus.DISABLED);
+
+        assertEquals(Map.of(1L, 2L, 2L, 2L, 3L, 1L), counter.getDepartmentCounts());
+        assertEquals(4, counter.getStatusCount(UserStatus.NORMAL));
+        assertEquals(0, counter.getStatusCount(UserStatus.DISABLED));
+        assertEquals(1, counter.getStatusCount(UserStatus.LOCKED));
+    }
+
+    /**
+     * 测试2：事务中的增量只在提交后生效
+     */
+    @Test
+    void testDeltaAppliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        counter.userCreated(1L, UserStatus.NORMAL);
+        assertEquals(3, counter.getDepartmentCount(1L));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertEquals(4, counter.getDepartmentCount(1L));
+        assertEquals(5, counter.getStatusCount(UserStatus.NORMAL));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // 未提交（回滚）的增量不生效
+        TransactionSynchronizationManager.initSynchronization();
+        counter.userRemoved(1L, UserStatus.NORMAL);
+        TransactionSynchronizationManager.clearSynchronization();
+        assertEquals(4, counter.getDepartmentCount(1L));
+    }
+
+    /**
+     * 测试3：再次校准修正偏差
+     */
+    @Test
+    void testReconcileFixesDrift() {
+        counter.userCreated(5L, UserStatus.NORMAL);
+        assertEquals(1, counter.getDepartmentCount(5L));
+
+        counter.reconcile();
+        assertEquals(0, counter.getDepartmentCount(5L));
+        assertEquals(4, counter.getStatusCount(UserStatus.NORMAL));
+    }
+
+    private static SysUserMapper.UserDepartmentStats departmentStats(Long departmentId, int count) {
+        SysUserMapper.UserDepartmentStats stats = new SysUserMapper.UserDepartmentStats();
+        stats.setDepartmentId(departmentId);
+        stats.setUserCount(count);
+        return stats;
+    }
+
+    private static SysUserMapper.UserStatusStats statusStats(int status, int count) {
+        SysUserMapper.UserStatusStats stats = new SysUserMapper.UserStatusStats();
+        stats.setStatus(status);
+        stats.setCount(count);
+        return stats;
+    }
+}
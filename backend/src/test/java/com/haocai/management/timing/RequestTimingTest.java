@@ -0,0 +1,76 @@
+package com.haocai.management.timing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 请求分阶段计时测试
+ *
+ * 测试场景：
+ * 1. 绑定后可通过请求和当前线程获取，解除绑定后静态记录不再生效
+ * 2. 阶段只有开始后才能结束，重复结束被忽略
+ * 3. Server-Timing只包含执行过的阶段和总耗时
+ *
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class RequestTimingTest {
+
+    @AfterEach
+    void tearDown() {
+        RequestTiming.unbind();
+    }
+
+    /**
+     * 测试1：绑定与解除绑定
+     */
+    @Test
+    void testBindAndRecord() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestTiming timing = RequestTiming.bind(request);
+        assertSame(timing, RequestTiming.of(request));
+        assertSame(timing, RequestTiming.current());
+
+        RequestTiming.record(RequestPhase.DB, 1_000);
+        RequestTiming.record(RequestPhase.DB, 2_000);
+        assertEquals(3_000, timing.getElapsed(RequestPhase.DB));
+
+        RequestTiming.unbind();
+        assertNull(RequestTiming.current());
+        RequestTiming.record(RequestPhase.DB, 5_000);
+        assertEquals(3_000, timing.getElapsed(RequestPhase.DB));
+    }
+
+    /**
+     * 测试2：开始与结束阶段
+     */
+    @Test
+    void testStartStop() {
+        RequestTiming timing = RequestTiming.bind(new MockHttpServletRequest());
+        assertFalse(timing.stop(RequestPhase.SERIALIZATION));
+        assertFalse(timing.isExecuted(RequestPhase.SERIALIZATION));
+
+        timing.start(RequestPhase.CONTROLLER);
+        assertTrue(timing.stop(RequestPhase.CONTROLLER));
+        assertFalse(timing.stop(RequestPhase.CONTROLLER));
+        assertTrue(timing.isExecuted(RequestPhase.CONTROLLER));
+        assertTrue(timing.getElapsed(RequestPhase.CONTROLLER) >= 0);
+    }
+
+    /**
+     * 测试3：Server-Timing格式
+     */
+    @Test
+    void testServerTiming() {
+        RequestTiming timing = RequestTiming.bind(new MockHttpServletRequest());
+        timing.add(RequestPhase.JWT, 420_000);
+        timing.add(RequestPhase.DB, 2_050_000);
+
+        String header = timing.toServerTiming();
+        assertTrue(header.startsWith("jwt;dur=0.42, db;dur=2.05, total;dur="), header);
+        assertFalse(header.contains("controller"));
+    }
+}
@@ -387,6 +387,38 @@ public class JwtUtilsTest {
         System.out.println("✓ 测试通过：缺少必要字段处理正常");
     }
 
+    /**
+     * 测试10：access token与refresh token类型区分
+     * 
+     * 目的：验证refresh token不能被当作access token使用
+     */
+    @Test
+    public void testAccessAndRefreshTokenType() {
+        System.out.println("\n=== 测试10：access token与refresh token类型区分 ===");
+        
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 1L);
+        claims.put("username", "testuser");
+        
+        String accessToken = jwtUtils.generateAccessToken(claims);
+        String refreshToken = jwtUtils.generateRefreshToken(1L, "testuser", "test-jti");
+        
+        var accessClaims = jwtUtils.parseToken(accessToken);
+        var refreshClaims = jwtUtils.parseToken(refreshToken);
+        
+        assertTrue(jwtUtils.isAccessToken(accessClaims), "access token应该被识别为access类型");
+        assertFalse(jwtUtils.isRefreshToken(accessClaims), "access token不应该被识别为refresh类型");
+        assertTrue(jwtUtils.isRefreshToken(refreshClaims), "refresh token应该被识别为refresh类型");
+        assertFalse(jwtUtils.isAccessToken(refreshClaims), "refresh token不能作为access token使用");
+        assertEquals("test-jti", refreshClaims.getId(), "refresh token应该携带jti");
+        
+        // 未携带typ声明的旧token按access token处理
+        String legacyToken = jwtUtils.generateToken(claims, null);
+        assertTrue(jwtUtils.isAccessToken(jwtUtils.parseToken(legacyToken)), "旧token应该按access token处理");
+        
+        System.out.println("✓ 测试通过：token类型区分正常");
+    }
+
     /**
      * 主测试方法：运行所有测试
      */
@@ -0,0 +1,61 @@
+package com.haocai.management.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 权限位图编解码测试
+ * 
+ * 测试场景：
+ * 1. 编码后解码得到相同的位
+ * 2. 末尾全零字节被去掉，编码结果紧凑
+ * 3. 空位图和越界位判断
+ * 
+ * @author 开发团队
+ * @since 2026-01-07
+ */
+public class PermissionBitmapCodecTest {
+
+    /**
+     * 测试1：跨多个long的位图编解码
+     */
+    @Test
+    public void testRoundTrip() {
+        long[] bits = new long[3];
+        int[] indexes = {0, 7, 63, 64, 100, 129};
+        for (int index : indexes) {
+            bits[index >>> 6] |= 1L << index;
+        }
+        long[] decoded = PermissionBitmapCodec.decode(PermissionBitmapCodec.encode(bits));
+        for (int index : indexes) {
+            assertTrue(PermissionBitmapCodec.contains(decoded, index), "应该包含第" + index + "位");
+        }
+        assertFalse(PermissionBitmapCodec.contains(decoded, 1));
+        assertFalse(PermissionBitmapCodec.contains(decoded, 128));
+    }
+
+    /**
+     * 测试2：只有低位权限时编码很短
+     */
+    @Test
+    public void testCompactEncoding() {
+        long[] bits = new long[4];
+        bits[0] = 0b11111L;
+        String encoded = PermissionBitmapCodec.encode(bits);
+        assertEquals(2, encoded.length(), "5个权限只需要1个字节");
+        assertEquals(bits[0], PermissionBitmapCodec.decode(encoded)[0]);
+    }
+
+    /**
+     * 测试3：空位图与越界判断
+     */
+    @Test
+    public void testEmptyAndOutOfRange() {
+        assertEquals("", PermissionBitmapCodec.encode(new long[2]));
+        assertEquals(0, PermissionBitmapCodec.decode("").length);
+        assertFalse(PermissionBitmapCodec.contains(new long[0], 3));
+        assertFalse(PermissionBitmapCodec.contains(new long[]{-1L}, -1));
+        assertFalse(PermissionBitmapCodec.contains(null, 0));
+    }
+}
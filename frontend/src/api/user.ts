@@ -22,9 +22,18 @@ export interface LoginRequest {
 // 登录响应类型
 export interface LoginResponse {
   token: string
+  refreshToken: string
+  expiresIn: number
   user: UserInfo
 }
 
+// token续期响应类型
+export interface TokenPairResponse {
+  token: string
+  refreshToken: string
+  expiresIn: number
+}
+
 // 注册请求类型
 export interface RegisterRequest {
   username: string
@@ -84,6 +93,11 @@ export const userApi = {
     return request.post('/users/login', data)
   },
 
+  // 使用refresh token续期
+  refreshToken: (refreshToken: string): Promise<ApiResponse<TokenPairResponse>> => {
+    return request.post('/users/token/refresh', { refreshToken })
+  },
+
   // 获取当前用户信息
   getUserInfo: (): Promise<ApiResponse<UserInfo>> => {
     return request.get('/users/current')
@@ -148,6 +162,7 @@ export const userApi = {
 // 导出各个API方法
 export const login = userApi.login
 export const getUserInfo = userApi.getUserInfo
+export const refreshToken = userApi.refreshToken
 export const register = userApi.register
 export const updateUserInfo = userApi.updateUserInfo
 export const logout = userApi.logout
@@ -1,12 +1,13 @@
 import { defineStore } from 'pinia'
 import { ref, computed } from 'vue'
-import { login as loginApi, getUserInfo as getUserInfoApi, logout as logoutApi } from '@/api/user'
+import { login as loginApi, getUserInfo as getUserInfoApi, logout as logoutApi, refreshToken as refreshTokenApi } from '@/api/user'
 import type { UserInfo, LoginRequest, LoginResponse } from '@/api/user'
 import { ElMessage } from 'element-plus'
 
 export const useUserStore = defineStore('user', () => {
   // 状态
   const token = ref<string>('')
+  const refreshToken = ref<string>('')
   const userInfo = ref<UserInfo | null>(null)
   const tokenExpireTime = ref<number>(0) // token过期时间戳
 
@@ -32,6 +33,11 @@ export const useUserStore = defineStore('user', () => {
     localStorage.setItem('tokenExpireTime', tokenExpireTime.value.toString())
   }
 
+  const setRefreshToken = (newRefreshToken: string) => {
+    refreshToken.value = newRefreshToken
+    localStorage.setItem('refreshToken', newRefreshToken)
+  }
+
   const setUserInfo = (info: UserInfo) => {
     userInfo.value = info
   }
@@ -40,7 +46,10 @@ export const useUserStore = defineStore('user', () => {
     try {
       const response = await loginApi(loginData)
       if (response.code === 200 && response.data) {
-        setToken(response.data.token)
+        setToken(response.data.token, response.data.expiresIn)
+        if (response.data.refreshToken) {
+          setRefreshToken(response.data.refreshToken)
+        }
         setUserInfo(response.data.user)
         return response.data
       } else {
@@ -79,9 +88,11 @@ export const useUserStore = defineStore('user', () => {
   // 清除认证信息
   const clearAuth = () => {
     token.value = ''
+    refreshToken.value = ''
     userInfo.value = null
     tokenExpireTime.value = 0
     localStorage.removeItem('token')
+    localStorage.removeItem('refreshToken')
     localStorage.removeItem('tokenExpireTime')
   }
 
@@ -92,17 +103,18 @@ export const useUserStore = defineStore('user', () => {
       return false
     }
 
-    // 如果token即将过期（剩余时间小于30分钟），尝试刷新
+    // 如果token即将过期（剩余时间小于5分钟）或已过期，使用refresh token续期
     const timeUntilExpiry = tokenExpireTime.value - Date.now()
-    if (timeUntilExpiry < 30 * 60 * 1000 && timeUntilExpiry > 0) {
+    if (timeUntilExpiry < 5 * 60 * 1000 && refreshToken.value) {
       try {
-        // 调用刷新token接口（如果后端支持）
-        // 这里暂时使用重新获取用户信息的方式
-        await getUserInfo()
-        return true
+        const response = await refreshTokenApi(refreshToken.value)
+        if (response.code === 200 && response.data) {
+          setToken(response.data.token, response.data.expiresIn)
+          setRefreshToken(response.data.refreshToken)
+          return true
+        }
       } catch (error) {
         console.error('刷新token失败:', error)
-        return false
       }
     }
 
@@ -119,11 +131,16 @@ export const useUserStore = defineStore('user', () => {
   // 初始化：从localStorage恢复token
   const initFromStorage = () => {
     const savedToken = localStorage.getItem('token')
+    const savedRefreshToken = localStorage.getItem('refreshToken')
     const savedExpireTime = localStorage.getItem('tokenExpireTime')
     
     if (savedToken) {
       token.value = savedToken
     }
+
+    if (savedRefreshToken) {
+      refreshToken.value = savedRefreshToken
+    }
     
     if (savedExpireTime) {
       tokenExpireTime.value = parseInt(savedExpireTime, 10)
@@ -135,11 +152,13 @@ export const useUserStore = defineStore('user', () => {
 
   return {
     token,
+    refreshToken,
     userInfo,
     tokenExpireTime,
     isLoggedIn,
     isTokenExpired,
     setToken,
+    setRefreshToken,
     setUserInfo,
     login,
     getUserInfo,